@@ -0,0 +1,86 @@
+package com.hjwylde.bench.qjrt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import qux.lang.Int;
+import qux.lang.Rat;
+
+/**
+ * Benchmarks for {@link qux.lang.Int} arithmetic, comparison and hashing. The magnitude parameter
+ * selects between values that fit in a {@code long} and values that don't.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IntBenchmark {
+
+    @Param({"small", "big"})
+    public String magnitude;
+
+    private Int a;
+    private Int b;
+
+    @Setup
+    public void setup() {
+        if (magnitude.equals("small")) {
+            a = Int.valueOf(123456789L);
+            b = Int.valueOf(987654L);
+        } else {
+            a = Int.valueOf(BigInteger.valueOf(123456789L).shiftLeft(80));
+            b = Int.valueOf(BigInteger.valueOf(987654L).shiftLeft(70));
+        }
+    }
+
+    @Benchmark
+    public Int add() {
+        return a._add_(b);
+    }
+
+    @Benchmark
+    public int compare() {
+        return a.compareTo(b);
+    }
+
+    @Benchmark
+    public Rat div() {
+        return a._div_(b);
+    }
+
+    @Benchmark
+    public boolean eq() {
+        return a.equalTo(b);
+    }
+
+    @Benchmark
+    public int hash() {
+        return a.hash();
+    }
+
+    @Benchmark
+    public Int idiv() {
+        return a._idiv_(b);
+    }
+
+    @Benchmark
+    public Int mul() {
+        return a._mul_(b);
+    }
+
+    @Benchmark
+    public Int sub() {
+        return a._sub_(b);
+    }
+}
@@ -0,0 +1,115 @@
+package com.hjwylde.bench.qjrt;
+
+import static qux.lang.Bool.TRUE;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import qux.lang.AbstractObj;
+import qux.lang.Bool;
+import qux.lang.Int;
+import qux.lang.List;
+import qux.util.Iterator;
+
+/**
+ * Benchmarks for {@link qux.lang.List} appending, duplication, iteration and access.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ListBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int size;
+
+    private List list;
+    private List copy;
+    private List single;
+
+    private Int first;
+    private Int middle;
+    private Int last;
+
+    @Setup
+    public void setup() {
+        long[] data = new long[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = i;
+        }
+
+        list = List.valueOf(data);
+        copy = List.valueOf(data);
+        single = List.valueOf(size);
+
+        first = Int.ZERO;
+        middle = Int.valueOf(size / 2);
+        last = Int.valueOf(size - 1);
+    }
+
+    @Benchmark
+    public AbstractObj access() {
+        return list._access_(middle);
+    }
+
+    @Benchmark
+    public List append() {
+        return list._add_(single);
+    }
+
+    @Benchmark
+    public int compare() {
+        return list.compareTo(copy);
+    }
+
+    @Benchmark
+    public Bool contains() {
+        return list._contains_(last);
+    }
+
+    @Benchmark
+    public List dup() {
+        return list._dup_();
+    }
+
+    @Benchmark
+    public List dupAndWrite() {
+        List dup = list._dup_();
+        dup._assign_(middle, first);
+
+        return dup;
+    }
+
+    @Benchmark
+    public boolean eq() {
+        return list.equalTo(copy);
+    }
+
+    @Benchmark
+    public int hash() {
+        return list.hash();
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        for (Iterator it = list._iter_(); it.hasNext() == TRUE; ) {
+            bh.consume(it.next());
+        }
+    }
+
+    @Benchmark
+    public List slice() {
+        return list._slice_(first, middle);
+    }
+}
@@ -0,0 +1,77 @@
+package com.hjwylde.bench.qjrt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import qux.lang.Int;
+import qux.lang.Rat;
+
+/**
+ * Benchmarks for {@link qux.lang.Rat} normalisation and arithmetic. Every operation normalises its
+ * result, so these mostly measure the cost of finding the greatest common divisor.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RatBenchmark {
+
+    @Param({"small", "big"})
+    public String magnitude;
+
+    private Int num;
+    private Int den;
+
+    private Rat a;
+    private Rat b;
+
+    @Setup
+    public void setup() {
+        if (magnitude.equals("small")) {
+            num = Int.valueOf(2L * 3 * 5 * 7 * 11 * 13);
+            den = Int.valueOf(3L * 7 * 13 * 17);
+        } else {
+            num = Int.valueOf(BigInteger.valueOf(2L * 3 * 5 * 7 * 11 * 13).shiftLeft(70));
+            den = Int.valueOf(BigInteger.valueOf(3L * 7 * 13 * 17).shiftLeft(65));
+        }
+
+        a = Rat.valueOf(num, den);
+        b = Rat.valueOf(den, num._add_(Int.ONE));
+    }
+
+    @Benchmark
+    public Rat add() {
+        return a._add_(b);
+    }
+
+    @Benchmark
+    public int compare() {
+        return a.compareTo(b);
+    }
+
+    @Benchmark
+    public Rat div() {
+        return a._div_(b);
+    }
+
+    @Benchmark
+    public Rat mul() {
+        return a._mul_(b);
+    }
+
+    @Benchmark
+    public Rat normalise() {
+        return Rat.valueOf(num, den);
+    }
+}
@@ -0,0 +1,81 @@
+package com.hjwylde.bench.qjrt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import qux.lang.AbstractObj;
+import qux.lang.Int;
+import qux.lang.List;
+import qux.lang.Record;
+import qux.lang.Str;
+
+/**
+ * Benchmarks for {@link qux.lang.Record} field access and duplication. Field access is measured
+ * both with the slot that the compiler computes and without it.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RecordBenchmark {
+
+    private Record record;
+    private Record copy;
+
+    @Setup
+    public void setup() {
+        String[] fields = {"age", "id", "name", "tags"};
+
+        record = Record.valueOf(fields, new AbstractObj[] {Int.valueOf(42), Int.valueOf(7),
+                Str.valueOf("name"), List.valueOf(1, 2, 3)});
+        copy = Record.valueOf(fields, new AbstractObj[] {Int.valueOf(42), Int.valueOf(7),
+                Str.valueOf("name"), List.valueOf(1, 2, 3)});
+    }
+
+    @Benchmark
+    public AbstractObj accessByName() {
+        return record.get("name");
+    }
+
+    @Benchmark
+    public AbstractObj accessBySlot() {
+        return record.get(2, "name");
+    }
+
+    @Benchmark
+    public Record assign() {
+        Record dup = record._dup_();
+        dup._assign_(1, "id", Int.ONE);
+
+        return dup;
+    }
+
+    @Benchmark
+    public int compare() {
+        return record.compareTo(copy);
+    }
+
+    @Benchmark
+    public Record dup() {
+        return record._dup_();
+    }
+
+    @Benchmark
+    public boolean eq() {
+        return record.equalTo(copy);
+    }
+
+    @Benchmark
+    public int hash() {
+        return record.hash();
+    }
+}
@@ -0,0 +1,96 @@
+package com.hjwylde.bench.qjrt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import qux.lang.AbstractObj;
+import qux.lang.Bool;
+import qux.lang.Int;
+import qux.lang.Set;
+import qux.lang.Str;
+
+/**
+ * Benchmarks for {@link qux.lang.Set} insertion, union and membership. The kind parameter selects
+ * between sets of small integers and sets of strings.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SetBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int size;
+
+    @Param({"int", "str"})
+    public String kind;
+
+    private Set set;
+    private Set other;
+    private Set single;
+
+    private AbstractObj present;
+    private AbstractObj absent;
+
+    @Setup
+    public void setup() {
+        // The even elements go in one set and every third element in the other
+        AbstractObj[] evens = new AbstractObj[size];
+        AbstractObj[] thirds = new AbstractObj[size];
+        for (int i = 0; i < size; i++) {
+            evens[i] = element(i * 2);
+            thirds[i] = element(i * 3);
+        }
+
+        set = Set.valueOf(evens);
+        other = Set.valueOf(thirds);
+        single = Set.valueOf(element(size + 1));
+
+        present = element(size);
+        absent = element(size + 1);
+    }
+
+    @Benchmark
+    public Bool contains() {
+        return set._contains_(present);
+    }
+
+    @Benchmark
+    public Bool containsAbsent() {
+        return set._contains_(absent);
+    }
+
+    @Benchmark
+    public Set difference() {
+        return set._sub_(other);
+    }
+
+    @Benchmark
+    public int hash() {
+        return set.hash();
+    }
+
+    @Benchmark
+    public Set insert() {
+        return set._add_(single);
+    }
+
+    @Benchmark
+    public Set union() {
+        return set._add_(other);
+    }
+
+    private AbstractObj element(int value) {
+        return kind.equals("int") ? Int.valueOf(value) : Str.valueOf("element" + value);
+    }
+}
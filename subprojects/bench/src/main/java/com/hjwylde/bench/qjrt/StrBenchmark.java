@@ -0,0 +1,87 @@
+package com.hjwylde.bench.qjrt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import qux.lang.Int;
+import qux.lang.Str;
+
+/**
+ * Benchmarks for {@link qux.lang.Str} concatenation, slicing, comparison and hashing.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StrBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int length;
+
+    private Str str;
+    private Str copy;
+    private Str suffix;
+
+    private Int quarter;
+    private Int half;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+
+        str = Str.valueOf(sb.toString());
+        copy = Str.valueOf(sb.toString());
+        suffix = Str.valueOf("suffix");
+
+        quarter = Int.valueOf(length / 4);
+        half = Int.valueOf(length / 2);
+    }
+
+    @Benchmark
+    public int compare() {
+        return str.compareTo(copy);
+    }
+
+    @Benchmark
+    public Str concat() {
+        return str._add_(suffix);
+    }
+
+    @Benchmark
+    public Str concatRepeatedly() {
+        Str result = suffix;
+        for (int i = 0; i < 64; i++) {
+            result = result._add_(str);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public boolean eq() {
+        return str.equalTo(copy);
+    }
+
+    @Benchmark
+    public int hash() {
+        return str.hash();
+    }
+
+    @Benchmark
+    public Str slice() {
+        return str._slice_(quarter, half);
+    }
+}
@@ -0,0 +1,60 @@
+package com.hjwylde.bench.quxjc;
+
+import com.hjwylde.qux.internal.antlr.QuxParser;
+import com.hjwylde.qux.internal.compiler.Antlr2QuxTranslater;
+import com.hjwylde.qux.tree.QuxNode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for translating a parse tree to a {@link com.hjwylde.qux.tree.QuxNode}. The source is
+ * parsed once up front, so only the translation is measured.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class Antlr2QuxTranslaterBenchmark {
+
+    @Param({"8", "64"})
+    public int statements;
+
+    @Param({"1", "4"})
+    public int depth;
+
+    @Param({"int", "list", "record"})
+    public String types;
+
+    private QuxParser.StartContext start;
+
+    @Setup
+    public void setup() {
+        start = SyntheticSource.createParser(SyntheticSource.generate(statements, depth, types))
+                .start();
+    }
+
+    @Benchmark
+    public QuxNode translate() {
+        QuxNode node = new QuxNode();
+        start.accept(new Antlr2QuxTranslater(SyntheticSource.NAME, node));
+
+        return node;
+    }
+}
@@ -0,0 +1,59 @@
+package com.hjwylde.bench.quxjc;
+
+import com.hjwylde.qux.builder.ControlFlowGraph;
+import com.hjwylde.qux.tree.FunctionNode;
+import com.hjwylde.qux.tree.QuxNode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for generating the {@link com.hjwylde.qux.builder.ControlFlowGraph} of each function
+ * in a source file.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ControlFlowGraphBenchmark {
+
+    @Param({"8", "64"})
+    public int statements;
+
+    @Param({"1", "4"})
+    public int depth;
+
+    @Param({"int", "list", "record"})
+    public String types;
+
+    private QuxNode node;
+
+    @Setup
+    public void setup() {
+        node = SyntheticSource.read(SyntheticSource.generate(statements, depth, types));
+    }
+
+    @Benchmark
+    public void of(Blackhole bh) {
+        for (FunctionNode function : node.getFunctions()) {
+            bh.consume(ControlFlowGraph.of(function));
+        }
+    }
+}
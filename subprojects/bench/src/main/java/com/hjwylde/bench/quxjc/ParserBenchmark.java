@@ -0,0 +1,79 @@
+package com.hjwylde.bench.quxjc;
+
+import com.hjwylde.qux.internal.antlr.QuxLexer;
+import com.hjwylde.qux.internal.antlr.QuxParser;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for lexing and parsing Qux source. The mode parameter selects the prediction mode of
+ * the parser: {@code SLL} is the first step of the two-step parsing in {@link
+ * com.hjwylde.qux.api.QuxReader}, while {@code LL} is the fallback used when the first step fails.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ParserBenchmark {
+
+    @Param({"8", "64"})
+    public int statements;
+
+    @Param({"1", "4"})
+    public int depth;
+
+    @Param({"int", "list", "record"})
+    public String types;
+
+    @Param({"SLL", "LL"})
+    public String mode;
+
+    private String source;
+
+    @Setup
+    public void setup() {
+        source = SyntheticSource.generate(statements, depth, types);
+    }
+
+    @Benchmark
+    public int lex() {
+        return new QuxLexer(new ANTLRInputStream(source)).getAllTokens().size();
+    }
+
+    @Benchmark
+    public QuxParser.StartContext parse() {
+        QuxParser parser = SyntheticSource.createParser(source);
+        parser.removeErrorListeners();
+
+        if (mode.equals("SLL")) {
+            parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+            parser.setErrorHandler(new BailErrorStrategy());
+        } else {
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            parser.setErrorHandler(new DefaultErrorStrategy());
+        }
+
+        return parser.start();
+    }
+}
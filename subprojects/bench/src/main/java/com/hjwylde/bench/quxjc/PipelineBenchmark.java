@@ -0,0 +1,94 @@
+package com.hjwylde.bench.quxjc;
+
+import com.hjwylde.qbs.builder.QuxContext;
+import com.hjwylde.qux.pipelines.Pipeline;
+import com.hjwylde.qux.tree.QuxNode;
+
+import com.google.common.collect.ImmutableList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for each of the {@link com.hjwylde.qux.pipelines.Pipeline#DEFAULT_PIPELINES}. The
+ * pipeline parameter selects the pipeline under benchmark, the pipelines before it are applied
+ * beforehand as they would be in a build.
+ * <p>
+ * Pipelines add attributes to the node they are applied to, so the node is read and prepared again
+ * before each invocation. The pipelines take long enough that the overhead of doing so doesn't skew
+ * the results.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class PipelineBenchmark {
+
+    @Param({"8", "64"})
+    public int statements;
+
+    @Param({"1", "4"})
+    public int depth;
+
+    @Param({"int", "list", "record"})
+    public String types;
+
+    @Param({"NameChecker", "ControlFlowGraphPropagator", "DeadCodeChecker", "TypePropagator",
+            "TypeChecker", "ConstantFolder", "ReadOnlyPropagator"})
+    public String pipeline;
+
+    private String source;
+    private ImmutableList<Class<? extends Pipeline>> before;
+
+    private Pipeline instance;
+    private QuxNode node;
+
+    @Setup
+    public void setup() {
+        source = SyntheticSource.generate(statements, depth, types);
+
+        for (int i = 0; i < Pipeline.DEFAULT_PIPELINES.size(); i++) {
+            if (Pipeline.DEFAULT_PIPELINES.get(i).getSimpleName().equals(pipeline)) {
+                before = Pipeline.DEFAULT_PIPELINES.subList(0, i);
+                return;
+            }
+        }
+
+        throw new IllegalArgumentException("unknown pipeline: " + pipeline);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepare() throws NoSuchMethodException, IllegalAccessException,
+            InvocationTargetException, InstantiationException {
+        node = SyntheticSource.read(source);
+
+        QuxContext context = SyntheticSource.createContext(node);
+        node = SyntheticSource.apply(node, context, before);
+
+        instance = Pipeline.DEFAULT_PIPELINES.get(before.size()).getConstructor(QuxContext.class)
+                .newInstance(context);
+    }
+
+    @Benchmark
+    public QuxNode apply() {
+        return instance.apply(node);
+    }
+}
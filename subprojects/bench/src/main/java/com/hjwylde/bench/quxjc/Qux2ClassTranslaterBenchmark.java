@@ -0,0 +1,79 @@
+package com.hjwylde.bench.quxjc;
+
+import com.hjwylde.qux.api.CheckQuxAdapter;
+import com.hjwylde.qux.pipelines.Pipeline;
+import com.hjwylde.qux.tree.QuxNode;
+import com.hjwylde.quxjc.compiler.MainFunctionInjector;
+import com.hjwylde.quxjc.compiler.Qux2ClassTranslater;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.util.CheckClassAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for translating a {@link com.hjwylde.qux.tree.QuxNode} to Java bytecode. The node has
+ * all of the default pipelines applied to it up front, so only the translation and the writing of
+ * the class file are measured. The checked variant adds the check adapters used by a build job.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class Qux2ClassTranslaterBenchmark {
+
+    @Param({"8", "64"})
+    public int statements;
+
+    @Param({"1", "4"})
+    public int depth;
+
+    @Param({"int", "list", "record"})
+    public String types;
+
+    private QuxNode node;
+
+    @Setup
+    public void setup() {
+        node = SyntheticSource.read(SyntheticSource.generate(statements, depth, types));
+        node = SyntheticSource.apply(node, SyntheticSource.createContext(node),
+                Pipeline.DEFAULT_PIPELINES);
+    }
+
+    @Benchmark
+    public byte[] translate() {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        MainFunctionInjector mfi = new MainFunctionInjector(cw, SyntheticSource.NAME);
+
+        node.accept(new Qux2ClassTranslater(SyntheticSource.NAME, mfi));
+
+        return cw.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] translateChecked() {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        MainFunctionInjector mfi = new MainFunctionInjector(cw, SyntheticSource.NAME);
+        CheckClassAdapter cca = new CheckClassAdapter(mfi, false);
+
+        node.accept(new CheckQuxAdapter(new Qux2ClassTranslater(SyntheticSource.NAME, cca)));
+
+        return cw.toByteArray();
+    }
+}
@@ -0,0 +1,214 @@
+package com.hjwylde.bench.quxjc;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.hjwylde.qbs.builder.QuxContext;
+import com.hjwylde.qbs.builder.QuxProject;
+import com.hjwylde.qux.builder.resources.QuxResource;
+import com.hjwylde.qux.internal.antlr.QuxParser;
+import com.hjwylde.qux.internal.compiler.Antlr2QuxTranslater;
+import com.hjwylde.qux.internal.util.QuxParserUtils;
+import com.hjwylde.qux.pipelines.Pipeline;
+import com.hjwylde.qux.tree.QuxNode;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+
+import java.util.List;
+
+/**
+ * Generates synthetic Qux source files for the compiler benchmarks. Each generated file holds a
+ * number of functions of the same shape: a body of simple statements nested inside alternating
+ * {@code while} and {@code if} blocks, operating on a value of the chosen type.
+ * <p>
+ * The types are one of {@code int}, {@code list} (a {@code [int]}) or {@code record} (a {@code {int
+ * x, [int] ys}}), so that the type complexity may be varied independently of the function size and
+ * nesting depth.
+ * <p>
+ * This class also runs the sources through the compiler stages leading up to the stage under
+ * benchmark, in the same way as a build job.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+final class SyntheticSource {
+
+    /**
+     * The name of the generated source file, which the class name is derived from.
+     */
+    static final String NAME = "Synthetic.qux";
+
+    private static final int FUNCTIONS = 16;
+
+    /**
+     * This class cannot be instantiated.
+     */
+    private SyntheticSource() {}
+
+    /**
+     * Applies the given pipelines to the node in order, as a build job would. Each pipeline is
+     * created with the given context.
+     *
+     * @param node the node.
+     * @param context the context.
+     * @param pipelines the pipelines.
+     * @return the node after applying the pipelines.
+     */
+    static QuxNode apply(QuxNode node, QuxContext context,
+            List<Class<? extends Pipeline>> pipelines) {
+        for (Class<? extends Pipeline> clazz : pipelines) {
+            try {
+                node = clazz.getConstructor(QuxContext.class).newInstance(context).apply(node);
+            } catch (ReflectiveOperationException e) {
+                throw new InternalError(e.getMessage());
+            }
+        }
+
+        return node;
+    }
+
+    /**
+     * Creates a new context holding the given node as its only resource.
+     *
+     * @param node the node.
+     * @return the context.
+     */
+    static QuxContext createContext(QuxNode node) {
+        QuxContext context = new QuxContext(QuxProject.builder().build());
+        context.addResources(new QuxResource(node));
+
+        return context;
+    }
+
+    /**
+     * Creates a new parser over the given source, named {@link #NAME}.
+     *
+     * @param source the source.
+     * @return the parser.
+     */
+    static QuxParser createParser(String source) {
+        ANTLRInputStream stream = new ANTLRInputStream(source);
+        stream.name = NAME;
+
+        return QuxParserUtils.createParser(stream);
+    }
+
+    /**
+     * Generates a source file with functions of the given size, depth and type.
+     *
+     * @param statements the number of statements in the innermost block of each function.
+     * @param depth the number of nested blocks in each function, at least 1.
+     * @param types the type that each function operates on.
+     * @return the source.
+     */
+    static String generate(int statements, int depth, String types) {
+        checkArgument(statements > 0, "statements must be positive");
+        checkArgument(depth > 0, "depth must be positive");
+
+        String type = type(types);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("package bench\n\n");
+
+        for (int f = 0; f < FUNCTIONS; f++) {
+            sb.append(type).append(" f").append(f).append("(").append(type).append(" a, int n):\n");
+            sb.append("    r = a\n");
+
+            // Odd levels are loops over their own counter, even levels branch on the last counter
+            String counter = "n";
+            for (int level = 1; level <= depth; level++) {
+                String indent = indent(level);
+
+                if (level % 2 == 1) {
+                    counter = "i" + level;
+                    sb.append(indent).append(counter).append(" = 0\n");
+                    sb.append(indent).append("while ").append(counter).append(" < n:\n");
+                } else {
+                    sb.append(indent).append("if ").append(counter).append(" % 2 == 0:\n");
+                }
+            }
+
+            String indent = indent(depth + 1);
+            for (int s = 0; s < statements; s++) {
+                sb.append(indent).append(statement(types, counter, s + 1)).append("\n");
+            }
+
+            // Close the loops by incrementing their counters
+            for (int level = depth; level >= 1; level--) {
+                if (level % 2 == 1) {
+                    sb.append(indent(level + 1)).append("i").append(level).append(" = i").append(
+                            level).append(" + 1\n");
+                }
+            }
+
+            sb.append("\n    return r\n\n");
+        }
+
+        sb.append("void main([str] args):\n");
+        for (int f = 0; f < FUNCTIONS; f++) {
+            sb.append("    print f").append(f).append("(").append(value(types)).append(", 3)\n");
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Parses the given source and translates it to a new node.
+     *
+     * @param source the source.
+     * @return the node.
+     */
+    static QuxNode read(String source) {
+        QuxNode node = new QuxNode();
+        createParser(source).start().accept(new Antlr2QuxTranslater(NAME, node));
+
+        return node;
+    }
+
+    private static String indent(int level) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < level; i++) {
+            sb.append("    ");
+        }
+
+        return sb.toString();
+    }
+
+    private static String statement(String types, String counter, int s) {
+        switch (types) {
+            case "int":
+                return "r = r * " + s + " + " + counter + " - " + (s % 7);
+            case "list":
+                return "r = r + [" + counter + " * " + s + "]";
+            case "record":
+                return "r = {x: r.x + " + counter + ", ys: r.ys + [r.x * " + s + "]}";
+            default:
+                throw new IllegalArgumentException("unknown types: " + types);
+        }
+    }
+
+    private static String type(String types) {
+        switch (types) {
+            case "int":
+                return "int";
+            case "list":
+                return "[int]";
+            case "record":
+                return "{int x, [int] ys}";
+            default:
+                throw new IllegalArgumentException("unknown types: " + types);
+        }
+    }
+
+    private static String value(String types) {
+        switch (types) {
+            case "int":
+                return "1";
+            case "list":
+                return "[1, 2, 3]";
+            case "record":
+                return "{x: 1, ys: [2, 3]}";
+            default:
+                throw new IllegalArgumentException("unknown types: " + types);
+        }
+    }
+}
@@ -24,6 +24,7 @@ public class QuxCompileOptions extends CompileOptions {
     private static final long serialVersionUID = 1L;
 
     private final boolean verbose;
+    private final boolean optimise;
 
     private final Charset charset;
 
@@ -34,6 +35,7 @@ public class QuxCompileOptions extends CompileOptions {
         checkArgument(builder.timeout >= 0, "timeout cannot be negative");
 
         this.verbose = builder.verbose;
+        this.optimise = builder.optimise;
 
         this.charset = checkNotNull(builder.charset, "charset cannot be null");
 
@@ -87,6 +89,16 @@ public class QuxCompileOptions extends CompileOptions {
         return timeoutUnit;
     }
 
+    /**
+     * Gets the optimise option. If set, the compiler generates faster code at the cost of larger
+     * class files, e.g., by holding {@code int} locals in primitive {@code long} slots.
+     *
+     * @return the optimise option.
+     */
+    public final boolean isOptimise() {
+        return optimise;
+    }
+
     /**
      * Gets the verbose option.
      *
@@ -104,6 +116,7 @@ public class QuxCompileOptions extends CompileOptions {
     public static class Builder {
 
         private boolean verbose;
+        private boolean optimise;
 
         private Charset charset;
 
@@ -111,14 +124,16 @@ public class QuxCompileOptions extends CompileOptions {
         private TimeUnit timeoutUnit;
 
         /**
-         * Creates a new {@code Builder} and initialises the verbose, character set, timeout and
-         * timeout unit fields to the defaults as found in the {@link com.hjwylde.qbs.util.QuxProperties}.
+         * Creates a new {@code Builder} and initialises the verbose, optimise, character set,
+         * timeout and timeout unit fields to the defaults as found in the {@link
+         * com.hjwylde.qbs.util.QuxProperties}.
          */
         protected Builder() {
             // Get the default properties
             QuxProperties properties = QuxProperties.loadDefaultProperties();
 
             setVerbose(properties.getVerbose());
+            setOptimise(properties.getOptimise());
 
             setCharset(properties.getCharset());
 
@@ -127,13 +142,15 @@ public class QuxCompileOptions extends CompileOptions {
         }
 
         /**
-         * Creates a new {@code Builder} and initialises the verbose, character set, timeout and
-         * timeout unit fields to the options found in the given {@link QuxCompileOptions}.
+         * Creates a new {@code Builder} and initialises the verbose, optimise, character set,
+         * timeout and timeout unit fields to the options found in the given {@link
+         * QuxCompileOptions}.
          *
          * @param options the options to load the defaults from.
          */
         protected Builder(QuxCompileOptions options) {
             this.verbose = options.verbose;
+            this.optimise = options.optimise;
 
             this.charset = options.charset;
 
@@ -179,6 +196,27 @@ public class QuxCompileOptions extends CompileOptions {
             return this;
         }
 
+        /**
+         * Sets the optimise field.
+         *
+         * @param optimise the optimise field.
+         * @return this for method chaining.
+         */
+        public final Builder setOptimise(String optimise) {
+            return setOptimise(Boolean.valueOf(optimise));
+        }
+
+        /**
+         * Sets the optimise field.
+         *
+         * @param optimise the optimise field.
+         * @return this for method chaining.
+         */
+        public final Builder setOptimise(boolean optimise) {
+            this.optimise = optimise;
+            return this;
+        }
+
         /**
          * Sets the timeout field.
          *
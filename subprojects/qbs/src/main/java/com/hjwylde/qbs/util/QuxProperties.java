@@ -22,8 +22,8 @@ import java.util.Set;
  * The properties may then be loaded in and used instantly.
  * <p/>
  * The default properties are set as follows: <dl> <dt> charset </dt> <dd> utf-8 </dd> <dt>
- * classpath </dt> <dd> <i>&lt;empty&gt;</i> </dd> <dt>outdir</dt> <dd>.</dd> <dt>verbose</dt>
- * <dd>false</dd> </dl>
+ * classpath </dt> <dd> <i>&lt;empty&gt;</i> </dd> <dt>optimise</dt> <dd>false</dd> <dt>outdir</dt>
+ * <dd>.</dd> <dt>verbose</dt> <dd>false</dd> </dl>
  *
  * @author Henry J. Wylde
  */
@@ -31,13 +31,15 @@ public class QuxProperties extends AbstractProperties {
 
     public static final String PROP_CHARSET = "charset";
     public static final String PROP_CLASSPATH = "classpath";
+    public static final String PROP_OPTIMISE = "optimise";
     public static final String PROP_OUTDIR = "outdir";
     public static final String PROP_TIMEOUT = "timeout";
     public static final String PROP_TIMEOUT_UNIT = "timeout-unit";
     public static final String PROP_VERBOSE = "verbose";
 
     private static final ImmutableSet<String> PROP_KEYS = ImmutableSet.of(PROP_CHARSET,
-            PROP_CLASSPATH, PROP_OUTDIR, PROP_TIMEOUT, PROP_TIMEOUT_UNIT, PROP_VERBOSE);
+            PROP_CLASSPATH, PROP_OPTIMISE, PROP_OUTDIR, PROP_TIMEOUT, PROP_TIMEOUT_UNIT,
+            PROP_VERBOSE);
 
     private static final Logger logger = LoggerFactory.getLogger(QuxProperties.class);
 
@@ -69,6 +71,15 @@ public class QuxProperties extends AbstractProperties {
         return getProperty(PROP_CLASSPATH);
     }
 
+    /**
+     * Gets the optimise property.
+     *
+     * @return the optimise property.
+     */
+    public final String getOptimise() {
+        return getProperty(PROP_OPTIMISE);
+    }
+
     /**
      * Gets the output directory property.
      *
@@ -161,6 +172,15 @@ public class QuxProperties extends AbstractProperties {
         setProperty(PROP_CLASSPATH, checkNotNull(classpath, "classpath cannot be null"));
     }
 
+    /**
+     * Sets the optimise property. The value should be a {@code boolean}.
+     *
+     * @param optimise the optimise property.
+     */
+    public final void setOptimise(String optimise) {
+        setProperty(PROP_OPTIMISE, checkNotNull(optimise, "optimise cannot be null"));
+    }
+
     /**
      * Sets the output directory property. The value should be a valid single path.
      *
@@ -208,6 +228,7 @@ public class QuxProperties extends AbstractProperties {
 
         properties.put(PROP_CLASSPATH, "");
         properties.put(PROP_CHARSET, StandardCharsets.UTF_8.name());
+        properties.put(PROP_OPTIMISE, "false");
         properties.put(PROP_OUTDIR, ".");
         properties.put(PROP_TIMEOUT, "20");
         properties.put(PROP_TIMEOUT_UNIT, "seconds");
@@ -0,0 +1,180 @@
+package qux.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+import qux.lang.AbstractObj;
+import qux.lang.Bool;
+import qux.lang.Handle;
+import qux.lang.Str;
+import qux.util.Iterable;
+import qux.util.Iterator;
+
+/**
+ * A reader over the records of a file, such as its lines. The file is memory mapped a window at a
+ * time and each record is only decoded (as UTF-8) when it is read, so files of any size may be
+ * streamed through without holding more than one record in memory.
+ * <p>
+ * Readers are opened through {@link qux.io.files}. Java code may also iterate over the remaining
+ * records through {@link #_iter_()}.
+ * <p>
+ * A record, including its delimiter, may not be larger than a window, which is 1 GiB. Any errors
+ * reading the file are thrown as an {@link java.io.UncheckedIOException}.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class Reader extends Handle implements Iterable {
+
+    private static final int WINDOW = 1 << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final byte delimiter;
+
+    /**
+     * The size of the windows to map, which is also the size of the largest record.
+     */
+    private final int windowSize;
+
+    /**
+     * The mapped window of the file, starting at {@link #start}.
+     */
+    private MappedByteBuffer window;
+    private long start;
+
+    /**
+     * The position in the file of the next record.
+     */
+    private long position;
+
+    Reader(Path path, byte delimiter) throws IOException {
+        this(path, delimiter, WINDOW);
+    }
+
+    Reader(Path path, byte delimiter, int windowSize) throws IOException {
+        super("reader(" + path + ")");
+
+        checkArgument(windowSize > 0, "windowSize must be positive");
+
+        this.channel = FileChannel.open(path);
+        this.size = channel.size();
+        this.delimiter = delimiter;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator _iter_() {
+        return new Iterator() {
+
+            @Override
+            public Bool hasNext() {
+                return Bool.valueOf(Reader.this.hasNext());
+            }
+
+            @Override
+            public AbstractObj next() {
+                return Reader.this.next();
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        window = null;
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks whether there is another record to read.
+     *
+     * @return true if there is another record.
+     */
+    public boolean hasNext() {
+        return position < size;
+    }
+
+    /**
+     * Reads the next record. The delimiter following the record is skipped, and if the records are
+     * lines then so is any carriage return preceding it.
+     *
+     * @return the next record.
+     * @throws java.util.NoSuchElementException if there are no more records.
+     */
+    public Str next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        checkState(channel.isOpen(), "reader is closed");
+
+        if (window == null) {
+            map(position);
+        }
+
+        int from = (int) (position - start);
+        int to = from;
+        while (true) {
+            if (to == window.limit()) {
+                if (start + to == size) {
+                    break;
+                }
+
+                // The record crosses the end of the window, so map a new window starting at it
+                checkState(from > 0, "records larger than %s bytes are unsupported", windowSize);
+
+                map(position);
+                to -= from;
+                from = 0;
+
+                continue;
+            }
+
+            if (window.get(to) == delimiter) {
+                break;
+            }
+
+            to++;
+        }
+
+        position = start + to + 1;
+
+        if (delimiter == '\n' && to > from && window.get(to - 1) == '\r') {
+            to--;
+        }
+
+        ByteBuffer record = window.duplicate();
+        record.limit(to).position(from);
+
+        return Str.valueOf(UTF_8.decode(record).toString());
+    }
+
+    private void map(long position) {
+        try {
+            start = position;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize,
+                    size - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
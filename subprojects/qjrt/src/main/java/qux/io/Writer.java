@@ -0,0 +1,94 @@
+package qux.io;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import qux.lang.Handle;
+import qux.lang.Str;
+
+/**
+ * A buffered writer to a file, encoding as UTF-8. The file is created if it doesn't exist and
+ * truncated if it does.
+ * <p>
+ * Writers are opened through {@link qux.io.files}. Nothing is guaranteed to be written until the
+ * writer is flushed or closed. Any errors writing the file are thrown as an {@link
+ * java.io.UncheckedIOException}.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class Writer extends Handle implements Flushable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BufferedWriter writer;
+
+    Writer(Path path) throws IOException {
+        super("writer(" + path + ")");
+
+        writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path), UTF_8),
+                BUFFER_SIZE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the given string.
+     *
+     * @param str the string.
+     */
+    public void write(Str str) {
+        checkNotNull(str, "str cannot be null");
+
+        try {
+            writer.write(str.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the given string followed by a new line.
+     *
+     * @param str the string.
+     */
+    public void writeLine(Str str) {
+        write(str);
+
+        try {
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package qux.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import qux.lang.AbstractObj;
+import qux.lang.Bool;
+import qux.lang.Handle;
+import qux.lang.Str;
+
+/**
+ * The {@code qux.io.files} module, for reading and writing files. Its functions are called from Qux
+ * code like the functions of any other module, for example {@code qux.io.files$openReader(path)}.
+ * The class is named in lower case as Qux requires all of the identifiers of a module reference to
+ * be.
+ * <p>
+ * Readers and writers are {@link qux.lang.Handle}s. Qux code sees them as {@code any}, so they are
+ * passed to and returned from these functions as {@link qux.lang.AbstractObj}s.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class files {
+
+    /**
+     * This class cannot be instantiated.
+     */
+    private files() {}
+
+    /**
+     * Closes the given reader or writer.
+     *
+     * @param handle the reader or writer.
+     */
+    public static void close(AbstractObj handle) {
+        checkArgument(handle instanceof Reader || handle instanceof Writer,
+                "handle must be a reader or writer");
+
+        try {
+            ((Handle) handle).close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a new empty file in the temporary directory, {@code java.io.tmpdir}. The file is
+     * deleted when the JVM exits.
+     *
+     * @param prefix the prefix of the file's name.
+     * @return the path of the file.
+     */
+    public static Str createTempFile(Str prefix) {
+        checkNotNull(prefix, "prefix cannot be null");
+
+        try {
+            Path path = Files.createTempFile(prefix.toString(), null);
+            path.toFile().deleteOnExit();
+
+            return Str.valueOf(path.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void flush(AbstractObj writer) {
+        toWriter(writer).flush();
+    }
+
+    public static Bool hasNext(AbstractObj reader) {
+        return Bool.valueOf(toReader(reader).hasNext());
+    }
+
+    public static Str next(AbstractObj reader) {
+        return toReader(reader).next();
+    }
+
+    /**
+     * Opens a reader over the lines of the file at the given path.
+     *
+     * @param path the path.
+     * @return the reader.
+     */
+    public static AbstractObj openReader(Str path) {
+        return openReader(path, '\n');
+    }
+
+    /**
+     * Opens a reader over the records of the file at the given path.
+     *
+     * @param path the path.
+     * @param delimiter the character that separates the records, which must be a single ASCII
+     * character.
+     * @return the reader.
+     */
+    public static AbstractObj openRecordReader(Str path, Str delimiter) {
+        String value = checkNotNull(delimiter, "delimiter cannot be null").toString();
+        checkArgument(value.length() == 1 && value.charAt(0) < 0x80,
+                "delimiter must be a single ASCII character");
+
+        return openReader(path, value.charAt(0));
+    }
+
+    /**
+     * Opens a writer to the file at the given path.
+     *
+     * @param path the path.
+     * @return the writer.
+     */
+    public static AbstractObj openWriter(Str path) {
+        checkNotNull(path, "path cannot be null");
+
+        try {
+            return new Writer(Paths.get(path.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void write(AbstractObj writer, Str str) {
+        toWriter(writer).write(str);
+    }
+
+    public static void writeLine(AbstractObj writer, Str str) {
+        toWriter(writer).writeLine(str);
+    }
+
+    private static Reader openReader(Str path, char delimiter) {
+        checkNotNull(path, "path cannot be null");
+
+        try {
+            return new Reader(Paths.get(path.toString()), (byte) delimiter);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Reader toReader(AbstractObj reader) {
+        checkArgument(reader instanceof Reader, "reader must be a reader");
+
+        return (Reader) reader;
+    }
+
+    private static Writer toWriter(AbstractObj writer) {
+        checkArgument(writer instanceof Writer, "writer must be a writer");
+
+        return (Writer) writer;
+    }
+}
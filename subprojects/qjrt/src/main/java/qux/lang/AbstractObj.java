@@ -3,10 +3,19 @@ package qux.lang;
 import static qux.lang.Bool.FALSE;
 import static qux.lang.Bool.TRUE;
 
-import java.math.BigInteger;
-
 /**
  * TODO: Documentation
+ * <p>
+ * Comparison, equality and hashing are implemented through the primitive {@link
+ * #compareTo(AbstractObj)}, {@link #equalTo(AbstractObj)} and {@link #hash()} methods. The qux
+ * operator methods, such as {@link #_comp_(AbstractObj)} and {@link #_lt_(AbstractObj)}, are
+ * layered on top of them, so the runtime can compare objects without allocating.
+ * <p>
+ * Immutable objects cache their hash code, while the collections keep a running hash up to date as
+ * they are written to. The running hash is the sum of the hash codes of the immutable elements and
+ * a count of the mutable elements, computed on the first call to {@link #hash()}. The hash codes of
+ * mutable elements may change without the collection knowing, so they are summed on each call.
+ * Hashing a collection is then {@code O(1)}, other than for any mutable elements that it contains.
  *
  * @author Henry J. Wylde
  */
@@ -17,42 +26,65 @@ public abstract class AbstractObj {
      */
     AbstractObj() {}
 
-    public abstract Int _comp_(AbstractObj obj);
+    public Int _comp_(AbstractObj obj) {
+        return Int.valueOf(compareTo(obj));
+    }
 
     public abstract Str _desc_();
 
     public abstract AbstractObj _dup_();
 
     public Bool _eq_(AbstractObj obj) {
-        if (this == obj) {
-            return TRUE;
-        }
-
-        return (obj != null && getClass() == obj.getClass()) ? TRUE : FALSE;
+        return equalTo(obj) ? TRUE : FALSE;
     }
 
     public Bool _gt_(AbstractObj obj) {
-        return _comp_(obj)._gt_(Int.ZERO);
+        return compareTo(obj) > 0 ? TRUE : FALSE;
     }
 
     public Bool _gte_(AbstractObj obj) {
-        return _comp_(obj)._gte_(Int.ZERO);
+        return compareTo(obj) >= 0 ? TRUE : FALSE;
     }
 
     public Int _hash_() {
-        return Int.valueOf(hashCode());
+        return Int.valueOf(hash());
     }
 
     public Bool _lt_(AbstractObj obj) {
-        return _comp_(obj)._lt_(Int.ZERO);
+        return compareTo(obj) < 0 ? TRUE : FALSE;
     }
 
     public Bool _lte_(AbstractObj obj) {
-        return _comp_(obj)._lte_(Int.ZERO);
+        return compareTo(obj) <= 0 ? TRUE : FALSE;
     }
 
     public Bool _neq_(AbstractObj obj) {
-        return _eq_(obj)._not_();
+        return equalTo(obj) ? FALSE : TRUE;
+    }
+
+    /**
+     * Compares this object with the given object. Objects of different types are ordered by their
+     * metas.
+     *
+     * @param obj the object to compare to.
+     * @return a negative integer, zero or a positive integer as this object is less than, equal to
+     * or greater than the given object.
+     */
+    public abstract int compareTo(AbstractObj obj);
+
+    /**
+     * Checks whether this object is equal to the given object. Subclasses should first check that
+     * the objects are of the same class through this implementation.
+     *
+     * @param obj the object to check.
+     * @return true if the objects are equal.
+     */
+    public boolean equalTo(AbstractObj obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        return obj != null && getClass() == obj.getClass();
     }
 
     /**
@@ -60,7 +92,16 @@ public abstract class AbstractObj {
      */
     @Override
     public boolean equals(Object obj) {
-        return _eq_((AbstractObj) obj) == TRUE;
+        return obj instanceof AbstractObj && equalTo((AbstractObj) obj);
+    }
+
+    /**
+     * Computes the hash code of this object, consistent with {@link #equalTo(AbstractObj)}.
+     *
+     * @return the hash code.
+     */
+    public int hash() {
+        return System.identityHashCode(this);
     }
 
     /**
@@ -68,7 +109,7 @@ public abstract class AbstractObj {
      */
     @Override
     public int hashCode() {
-        return _hash_()._value_().mod(BigInteger.valueOf(Integer.MAX_VALUE)).intValue();
+        return hash();
     }
 
     public abstract Meta meta();
@@ -80,5 +121,24 @@ public abstract class AbstractObj {
     public String toString() {
         return _desc_().toString();
     }
-}
 
+    /**
+     * Checks whether this object can never be modified in place. The hash of an immutable object
+     * never changes, so containers may cache it rather than asking for it again.
+     *
+     * @return true if this object is immutable.
+     */
+    boolean isImmutable() {
+        return false;
+    }
+
+    /**
+     * Prints the description of this object to the given console. Objects that can be encoded
+     * without creating their description override this.
+     *
+     * @param console the console.
+     */
+    void printTo(Console console) {
+        console.write(toString());
+    }
+}
@@ -1,6 +1,7 @@
 package qux.lang;
 
 import static qux.lang.Meta.META_BOOL;
+import static qux.lang.Metrics.Event.DUP;
 
 /**
  * TODO: Documentation
@@ -22,24 +23,6 @@ public final class Bool extends AbstractObj {
         return (this == TRUE && t == TRUE) ? TRUE : FALSE;
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Int _comp_(AbstractObj obj) {
-        if (!(obj instanceof Bool)) {
-            return meta()._comp_(obj.meta());
-        }
-
-        Bool that = (Bool) obj;
-
-        if (this == that) {
-            return Int.ZERO;
-        }
-
-        return this == TRUE ? Int.ONE : Int.M_ONE;
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -53,19 +36,9 @@ public final class Bool extends AbstractObj {
      */
     @Override
     public Bool _dup_() {
-        return this;
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Bool _eq_(AbstractObj obj) {
-        if (super._eq_(obj) == FALSE) {
-            return FALSE;
-        }
+        Metrics.count(DUP);
 
-        return this == obj ? TRUE : FALSE;
+        return this;
     }
 
     public Bool _iff_(Bool t) {
@@ -88,6 +61,35 @@ public final class Bool extends AbstractObj {
         return (this == TRUE ^ t == TRUE) ? TRUE : FALSE;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(AbstractObj obj) {
+        if (!(obj instanceof Bool)) {
+            return meta().compareTo(obj.meta());
+        }
+
+        return Boolean.compare(value, ((Bool) obj).value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equalTo(AbstractObj obj) {
+        // There are only the two instances
+        return this == obj;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hash() {
+        return Boolean.hashCode(value);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -99,4 +101,12 @@ public final class Bool extends AbstractObj {
     public static Bool valueOf(boolean value) {
         return value ? TRUE : FALSE;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean isImmutable() {
+        return true;
+    }
 }
@@ -0,0 +1,232 @@
+package qux.lang;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * The sink for the output of the {@code print} statement. Output is encoded straight into a large
+ * buffer, which is written to {@link java.lang.System#out} when it fills up and when the JVM exits.
+ * The stream is looked up each time the buffer is written, so output follows any call to {@link
+ * java.lang.System#setOut(java.io.PrintStream)}. {@link
+ * qux.lang.Str}s and small {@link qux.lang.Int}s are encoded without creating an intermediate
+ * {@link java.lang.String}.
+ * <p>
+ * If the {@value #PROPERTY_FLUSH} system property is set to {@code line}, the buffer is also
+ * written out after every line, as is needed for interactive use. If it is set to {@code buffer}
+ * it is not. If it is not set, the output is flushed after every line only when the JVM is attached
+ * to a console.
+ * <p>
+ * Output written to {@link java.lang.System#out} by other code is only ordered with respect to the
+ * output of this sink at the points where this sink is flushed, see {@link #flush()}. Output is
+ * lost if the JVM is halted.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class Console {
+
+    public static final String PROPERTY_FLUSH = "qux.print.flush";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The most bytes that a single character may be encoded to in UTF-8.
+     */
+    private static final int MAX_CHAR_SIZE = 4;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private static final Console STDOUT = new Console(new OutputStream() {
+        @Override
+        public void flush() {
+            System.out.flush();
+        }
+
+        @Override
+        public void write(int b) {
+            System.out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            System.out.write(b, off, len);
+        }
+    }, Charset.defaultCharset(), isLineFlushed());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                flush();
+            }
+        });
+    }
+
+    private final OutputStream out;
+    private final Charset charset;
+    private final boolean utf8;
+    private final boolean lineFlushed;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int count;
+
+    private Console(OutputStream out, Charset charset, boolean lineFlushed) {
+        this.out = checkNotNull(out, "out cannot be null");
+        this.charset = checkNotNull(charset, "charset cannot be null");
+        this.utf8 = charset.equals(UTF_8);
+        this.lineFlushed = lineFlushed;
+    }
+
+    /**
+     * Writes any buffered output to {@link java.lang.System#out} and flushes it. Code that writes
+     * to {@link java.lang.System#out} directly should call this first to keep its output in order.
+     */
+    public static void flush() {
+        synchronized (STDOUT) {
+            STDOUT.flushBuffer();
+        }
+    }
+
+    /**
+     * Prints the description of the given object followed by a line separator to standard output.
+     * This is the implementation of the {@code print} statement.
+     *
+     * @param obj the object to print.
+     */
+    public static void println(AbstractObj obj) {
+        checkNotNull(obj, "obj cannot be null");
+
+        synchronized (STDOUT) {
+            obj.printTo(STDOUT);
+            STDOUT.write(LINE_SEPARATOR);
+
+            if (STDOUT.lineFlushed) {
+                STDOUT.flushBuffer();
+            }
+        }
+    }
+
+    /**
+     * Writes the decimal representation of the given value.
+     *
+     * @param value the value.
+     */
+    void write(long value) {
+        if (value == Long.MIN_VALUE) {
+            write(Long.toString(value));
+            return;
+        }
+
+        ensureCapacity(20);
+
+        if (value < 0) {
+            buffer[count++] = '-';
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long i = value; i >= 10; i /= 10) {
+            digits++;
+        }
+
+        for (int i = count + digits - 1; i >= count; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+
+        count += digits;
+    }
+
+    /**
+     * Writes the given string, encoding it directly into the buffer if the charset is UTF-8.
+     *
+     * @param str the string.
+     */
+    void write(String str) {
+        if (!utf8) {
+            write(str.getBytes(charset));
+            return;
+        }
+
+        int length = str.length();
+        for (int i = 0; i < length; i++) {
+            ensureCapacity(MAX_CHAR_SIZE);
+
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                buffer[count++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[count++] = (byte) (0xc0 | c >> 6);
+                buffer[count++] = (byte) (0x80 | c & 0x3f);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(
+                    str.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, str.charAt(++i));
+
+                buffer[count++] = (byte) (0xf0 | cp >> 18);
+                buffer[count++] = (byte) (0x80 | cp >> 12 & 0x3f);
+                buffer[count++] = (byte) (0x80 | cp >> 6 & 0x3f);
+                buffer[count++] = (byte) (0x80 | cp & 0x3f);
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates are replaced, as when encoding a string
+                buffer[count++] = '?';
+            } else {
+                buffer[count++] = (byte) (0xe0 | c >> 12);
+                buffer[count++] = (byte) (0x80 | c >> 6 & 0x3f);
+                buffer[count++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (count + size > buffer.length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() {
+        if (count == 0) {
+            return;
+        }
+
+        try {
+            out.write(buffer, 0, count);
+            out.flush();
+        } catch (IOException e) {
+            // Consistent with System.out, which swallows errors
+        }
+
+        count = 0;
+    }
+
+    private static boolean isLineFlushed() {
+        String flush = System.getProperty(PROPERTY_FLUSH);
+        if (flush == null) {
+            return System.console() != null;
+        }
+
+        return flush.equals("line");
+    }
+
+    private void write(byte[] bytes) {
+        if (bytes.length > buffer.length) {
+            flushBuffer();
+
+            try {
+                out.write(bytes);
+            } catch (IOException e) {
+                // Consistent with System.out, which swallows errors
+            }
+
+            return;
+        }
+
+        ensureCapacity(bytes.length);
+
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+}
@@ -0,0 +1,105 @@
+package qux.lang;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static qux.lang.Meta.META_OBJ;
+import static qux.lang.Metrics.Event.DUP;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A handle to a resource outside of the program, such as an open file. Handles are opaque to Qux
+ * code, which may only pass them back to the functions of the module that created them.
+ * <p>
+ * Handles are not values: duplicating a handle returns the same handle, so that passing it to a
+ * function (which duplicates its arguments) doesn't lose the state of the resource. Two handles are
+ * only equal if they are the same handle.
+ * <p>
+ * This is the only runtime type that may be extended outside of this package, by the modules of the
+ * runtime library that need handles, such as {@link qux.io.Reader}.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public abstract class Handle extends AbstractObj implements Closeable {
+
+    private static final AtomicLong ids = new AtomicLong();
+
+    /**
+     * A unique identifier, giving handles of the same class a total order.
+     */
+    private final long id = ids.getAndIncrement();
+
+    private final String name;
+
+    /**
+     * Creates a new {@code Handle} with the given name, used as its description.
+     *
+     * @param name the name.
+     */
+    protected Handle(String name) {
+        this.name = checkNotNull(name, "name cannot be null");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final Str _desc_() {
+        return Str.valueOf(name);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final Handle _dup_() {
+        Metrics.count(DUP);
+
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final int compareTo(AbstractObj obj) {
+        if (!(obj instanceof Handle)) {
+            return meta().compareTo(obj.meta());
+        }
+
+        Handle that = (Handle) obj;
+
+        int comp = getClass().getName().compareTo(that.getClass().getName());
+        if (comp != 0) {
+            return comp;
+        }
+
+        return Long.compare(id, that.id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean equalTo(AbstractObj obj) {
+        return this == obj;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final int hash() {
+        return Long.hashCode(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final Meta meta() {
+        // Handles are opaque to Qux code, so they share the meta of obj
+        return META_OBJ;
+    }
+}
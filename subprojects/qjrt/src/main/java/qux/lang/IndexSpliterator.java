@@ -0,0 +1,110 @@
+package qux.lang;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over a range of indices of an indexed collection. Splitting halves the range, so
+ * the spliterator is always {@link #SIZED} and {@link #SUBSIZED}.
+ * <p>
+ * The collection must not be written to while any of its spliterators are in use. As the
+ * collections are not thread safe, the spliterators should be created over a duplicate that is
+ * never written to, which is then safe to read from many threads at once.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+abstract class IndexSpliterator implements Spliterator<AbstractObj> {
+
+    private int index;
+    private final int to;
+
+    private final int characteristics;
+
+    IndexSpliterator(int from, int to, int characteristics) {
+        this.index = from;
+        this.to = to;
+
+        this.characteristics = characteristics | SIZED | SUBSIZED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final int characteristics() {
+        return characteristics;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final long estimateSize() {
+        return to - index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void forEachRemaining(Consumer<? super AbstractObj> action) {
+        checkNotNull(action, "action cannot be null");
+
+        for (; index < to; index++) {
+            action.accept(get(index));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean tryAdvance(Consumer<? super AbstractObj> action) {
+        checkNotNull(action, "action cannot be null");
+
+        if (index >= to) {
+            return false;
+        }
+
+        action.accept(get(index++));
+
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final Spliterator<AbstractObj> trySplit() {
+        int from = index;
+        int mid = (from + to) >>> 1;
+
+        if (mid <= from) {
+            return null;
+        }
+
+        index = mid;
+
+        return split(from, mid);
+    }
+
+    /**
+     * Gets the element at the given index of the collection.
+     *
+     * @param index the index.
+     * @return the element.
+     */
+    abstract AbstractObj get(int index);
+
+    /**
+     * Creates a new spliterator over the given range of the same collection.
+     *
+     * @param from the inclusive start index.
+     * @param to the exclusive end index.
+     * @return the new spliterator.
+     */
+    abstract IndexSpliterator split(int from, int to);
+}
@@ -0,0 +1,248 @@
+package qux.lang;
+
+import static qux.lang.Metrics.Event.INLINE_CACHE_MISS;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An {@code invokedynamic} call site for an operator whose operands are statically typed as {@code
+ * any} or a union, so the method to call can't be picked when compiling. The operator is named by
+ * its method, for example {@code _add_} or {@code compareTo}, and is called on the first operand
+ * with the rest as arguments.
+ * <p>
+ * The site starts out unlinked. Each time it is called with operands of classes it hasn't seen
+ * before, the most specific method for them is looked up and put in front of the current target,
+ * guarded by a check on the classes of the operands. The guarded calls are direct, so the JIT can
+ * inline them even though the operator as a whole is polymorphic. Once {@value #MAX_DEPTH}
+ * combinations have been seen the site is considered megamorphic and instead looks the method up on
+ * every call.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class InlineCache extends MutableCallSite {
+
+    /**
+     * The maximum number of guarded calls in a site before it is considered megamorphic.
+     */
+    static final int MAX_DEPTH = 4;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodHandle CHECK_CLASS;
+    private static final MethodHandle DISPATCH;
+    private static final MethodHandle FALLBACK;
+
+    /**
+     * The methods found for each operator and combination of operand classes, shared between all
+     * of the sites.
+     */
+    private static final ConcurrentMap<java.util.List<Object>, MethodHandle> methods =
+            new ConcurrentHashMap<>();
+
+    private final String name;
+
+    /**
+     * The number of guarded calls in the target. Updates to this may race, but at worst the site
+     * holds a few more or less guarded calls.
+     */
+    private int depth;
+
+    static {
+        try {
+            CHECK_CLASS = LOOKUP.findStatic(InlineCache.class, "checkClass", MethodType.methodType(
+                    boolean.class, Class.class, Object.class));
+            DISPATCH = LOOKUP.findStatic(InlineCache.class, "dispatch", MethodType.methodType(
+                    Object.class, String.class, Object[].class));
+            FALLBACK = LOOKUP.findVirtual(InlineCache.class, "fallback", MethodType.methodType(
+                    Object.class, Object[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    private InlineCache(String name, MethodType type) {
+        super(type);
+
+        this.name = name;
+
+        setTarget(FALLBACK.bindTo(this).asCollector(Object[].class, type.parameterCount()).asType(
+                type));
+    }
+
+    /**
+     * The bootstrap method of the operator call sites.
+     *
+     * @param lookup the lookup of the calling class.
+     * @param name the name of the operator method.
+     * @param type the type of the call site, where the first parameter is the receiver.
+     * @return the call site.
+     */
+    public static CallSite bootstrap(MethodHandles.Lookup lookup, String name, MethodType type) {
+        return new InlineCache(name, type);
+    }
+
+    private static boolean checkClass(Class<?> clazz, Object obj) {
+        return obj.getClass() == clazz;
+    }
+
+    private static Object dispatch(String name, Object[] args) throws Throwable {
+        return getMethod(name, getClasses(args)).invokeWithArguments(args);
+    }
+
+    /**
+     * Finds the most specific method of the given name that is applicable to the given operand
+     * classes. The first operand is the receiver, so only its class and superclasses are searched.
+     */
+    private static MethodHandle findMethod(String name, Class<?>[] classes) {
+        Method best = null;
+        for (Class<?> clazz = classes[0]; clazz != null; clazz = clazz.getSuperclass()) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (isApplicable(method, name, classes) && (best == null || isMoreSpecific(method,
+                        best))) {
+                    best = method;
+                }
+            }
+        }
+
+        if (best == null) {
+            throw new InternalError(
+                    "no method " + name + " applicable to " + Arrays.toString(classes));
+        }
+
+        try {
+            return LOOKUP.unreflect(best);
+        } catch (IllegalAccessException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    private static Class<?>[] getClasses(Object[] args) {
+        Class<?>[] classes = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++) {
+            classes[i] = args[i].getClass();
+        }
+
+        return classes;
+    }
+
+    private static MethodHandle getMethod(String name, Class<?>[] classes) {
+        java.util.List<Object> key = new java.util.ArrayList<>();
+        key.add(name);
+        key.addAll(Arrays.asList(classes));
+
+        MethodHandle method = methods.get(key);
+        if (method == null) {
+            method = findMethod(name, classes);
+            methods.putIfAbsent(key, method);
+        }
+
+        return method;
+    }
+
+    /**
+     * Checks whether the given method may be called with the given operand classes. Private
+     * methods and package-private methods outside of this package aren't accessible to the lookup
+     * and so never apply.
+     */
+    private static boolean isApplicable(Method method, String name, Class<?>[] classes) {
+        int modifiers = method.getModifiers();
+
+        if (!method.getName().equals(name) || Modifier.isStatic(modifiers) || Modifier.isPrivate(
+                modifiers) || method.isBridge() || method.isSynthetic()) {
+            return false;
+        } else if (!Modifier.isPublic(modifiers)
+                && method.getDeclaringClass().getPackage() != InlineCache.class.getPackage()) {
+            return false;
+        }
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length != classes.length - 1) {
+            return false;
+        }
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (!parameterTypes[i].isAssignableFrom(classes[i + 1])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether the first method is strictly more specific than the second, i.e., whether each
+     * of its parameter types is a subtype of the corresponding parameter type of the second and
+     * they aren't all the same. Overridden methods are found before the methods they override, so
+     * they are kept.
+     */
+    private static boolean isMoreSpecific(Method method, Method than) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Class<?>[] thanParameterTypes = than.getParameterTypes();
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (!thanParameterTypes[i].isAssignableFrom(parameterTypes[i])) {
+                return false;
+            }
+        }
+
+        return !Arrays.equals(parameterTypes, thanParameterTypes);
+    }
+
+    /**
+     * Links the call site for the classes of the given operands and then calls the method found.
+     * If the site isn't yet megamorphic, then a guarded call to the method is put in front of the
+     * current target.
+     */
+    private Object fallback(Object[] args) throws Throwable {
+        Metrics.count(INLINE_CACHE_MISS);
+
+        Class<?>[] classes = getClasses(args);
+        MethodHandle method = getMethod(name, classes);
+
+        if (depth < MAX_DEPTH) {
+            depth++;
+
+            setTarget(MethodHandles.guardWithTest(getGuard(classes), method.asType(type()),
+                    getTarget()));
+        } else {
+            setTarget(MethodHandles.insertArguments(DISPATCH, 0, name).asCollector(Object[].class,
+                    args.length).asType(type()));
+        }
+
+        return method.invokeWithArguments(args);
+    }
+
+    /**
+     * Gets a method handle of the site's parameter types that checks whether the operands are of
+     * the given classes.
+     */
+    private MethodHandle getGuard(Class<?>[] classes) {
+        java.util.List<Class<?>> parameterTypes = type().parameterList();
+
+        MethodHandle guard = MethodHandles.dropArguments(MethodHandles.constant(boolean.class,
+                true), 0, parameterTypes);
+        MethodHandle fail = MethodHandles.dropArguments(MethodHandles.constant(boolean.class,
+                false), 0, parameterTypes);
+
+        for (int i = classes.length - 1; i >= 0; i--) {
+            MethodHandle check = MethodHandles.insertArguments(CHECK_CLASS, 0, classes[i]);
+            check = MethodHandles.dropArguments(check, 0, parameterTypes.subList(0, i));
+            check = MethodHandles.dropArguments(check, i + 1, parameterTypes.subList(i + 1,
+                    parameterTypes.size()));
+
+            guard = MethodHandles.guardWithTest(check.asType(guard.type()), guard, fail);
+        }
+
+        return guard;
+    }
+}
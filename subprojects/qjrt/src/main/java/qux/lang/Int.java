@@ -2,18 +2,22 @@ package qux.lang;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static qux.lang.Bool.FALSE;
 import static qux.lang.Bool.TRUE;
 import static qux.lang.Meta.META_INT;
-
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import static qux.lang.Metrics.Event.DUP;
+import static qux.lang.Metrics.Event.INT_CACHE_HIT;
+import static qux.lang.Metrics.Event.INT_CACHE_MISS;
 
 import java.math.BigInteger;
 
 /**
  * TODO: Documentation
+ * <p>
+ * An {@code Int} has two representations: values that fit in a {@code long} are stored directly
+ * in {@link #small}, while values outside of that range are stored in {@link #big}. The
+ * representation is canonical, i.e., {@link #big} is only ever non-null when the value does not fit
+ * in a {@code long}. Arithmetic is performed on the {@code long} representation where possible and
+ * only promoted to a {@link java.math.BigInteger} on overflow.
  *
  * @author Henry J. Wylde
  */
@@ -24,46 +28,66 @@ public final class Int extends AbstractObj {
     public static final Int ONE;
     public static final Int TWO;
 
-    private static final LoadingCache<BigInteger, Int> cache =
-            CacheBuilder.<BigInteger, Int>newBuilder().weakKeys().build(
-                    new CacheLoader<BigInteger, Int>() {
-                        @Override
-                        public Int load(BigInteger key) throws Exception {
-                            return new Int(key);
-                        }
-                    });
-    private final BigInteger value;
+    /**
+     * The range of preallocated values, inclusive.
+     */
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1024;
+
+    private static final Int[] cache = new Int[CACHE_HIGH - CACHE_LOW + 1];
+
+    private final long small;
+    private final BigInteger big;
+
+    /**
+     * The cached hash code of a big value, or {@code 0} if it has not been computed yet. Small
+     * values are cheap enough to hash each time.
+     */
+    private int hash;
 
     static {
+        for (int i = 0; i < cache.length; i++) {
+            cache[i] = new Int(CACHE_LOW + i);
+        }
+
         M_ONE = valueOf(-1);
         ZERO = valueOf(0);
         ONE = valueOf(1);
         TWO = valueOf(2);
     }
 
+    private Int(long value) {
+        this.small = value;
+        this.big = null;
+    }
+
     private Int(BigInteger value) {
-        this.value = checkNotNull(value, "value cannot be null");
+        checkNotNull(value, "value cannot be null");
+        checkArgument(value.bitLength() >= 64, "value must not fit in a long (value=%s)", value);
+
+        this.small = 0;
+        this.big = value;
     }
 
     public Int _add_(Int t) {
-        return valueOf(value.add(t.value));
-    }
+        if (big == null && t.big == null) {
+            long result = small + t.small;
 
-    public Int _and_(Int t) {
+            // Overflow iff both arguments have the opposite sign of the result
+            if (((small ^ result) & (t.small ^ result)) >= 0) {
+                return valueOf(result);
+            }
+        }
 
-        return valueOf(value.and(t.value));
+        return valueOf(_value_().add(t._value_()));
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Int _comp_(AbstractObj obj) {
-        if (!(obj instanceof Int)) {
-            return meta()._comp_(obj.meta());
+    public Int _and_(Int t) {
+        if (big == null && t.big == null) {
+            return valueOf(small & t.small);
         }
 
-        return valueOf(value.compareTo(((Int) obj).value));
+        return valueOf(_value_().and(t._value_()));
     }
 
     /**
@@ -71,15 +95,15 @@ public final class Int extends AbstractObj {
      */
     @Override
     public Str _desc_() {
-        return Str.valueOf(value.toString());
+        return Str.valueOf(big == null ? Long.toString(small) : big.toString());
     }
 
     public Rat _div_(Int t) {
-        if (t.equals(Int.ZERO)) {
+        if (t.isZero()) {
             throw new InternalError("attempted division by zero");
         }
 
-        return Rat.valueOf(value)._div_(Rat.valueOf(t.value));
+        return Rat.valueOf(this, t);
     }
 
     /**
@@ -87,112 +111,105 @@ public final class Int extends AbstractObj {
      */
     @Override
     public Int _dup_() {
-        return this;
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Bool _eq_(AbstractObj obj) {
-        if (super._eq_(obj) == FALSE) {
-            return FALSE;
-        }
+        Metrics.count(DUP);
 
-        return value.equals(((Int) obj).value) ? TRUE : FALSE;
+        return this;
     }
 
     public Int _exp_(Int t) {
-        checkArgument(t.value.bitLength() < 32,
-                "exponents of size larger than 32 bits is unsupported");
-
-        return valueOf(value.pow(t.value.intValue()));
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Bool _gt_(AbstractObj t) {
-        if (!(t instanceof Int)) {
-            return super._gt_(t);
+        checkArgument(t.bitLength() < 32, "exponents of size larger than 32 bits is unsupported");
+
+        int exponent = t.intValue();
+
+        if (big == null && exponent >= 0) {
+            // Exponentiation by squaring, bailing out to the big representation on overflow
+            try {
+                long result = 1;
+                long base = small;
+
+                for (int e = exponent; e > 0; e >>= 1) {
+                    if ((e & 1) == 1) {
+                        result = Math.multiplyExact(result, base);
+                    }
+                    if (e > 1) {
+                        base = Math.multiplyExact(base, base);
+                    }
+                }
+
+                return valueOf(result);
+            } catch (ArithmeticException e) {
+                // Fall through to the big representation
+            }
         }
 
-        return value.compareTo(((Int) t).value) > 0 ? TRUE : FALSE;
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Bool _gte_(AbstractObj t) {
-        if (!(t instanceof Int)) {
-            return super._gte_(t);
-        }
-
-        return value.compareTo(((Int) t).value) >= 0 ? TRUE : FALSE;
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Int _hash_() {
-        return valueOf(value.hashCode());
+        return valueOf(_value_().pow(exponent));
     }
 
     public Int _idiv_(Int t) {
-        if (t.equals(Int.ZERO)) {
+        if (t.isZero()) {
             throw new InternalError("attempted division by zero");
         }
 
-        return valueOf(value.divide(t.value));
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Bool _lt_(AbstractObj t) {
-        if (!(t instanceof Int)) {
-            return super._lt_(t);
+        // Long.MIN_VALUE / -1 is the only quotient that overflows
+        if (big == null && t.big == null && !(small == Long.MIN_VALUE && t.small == -1)) {
+            return valueOf(small / t.small);
         }
 
-        return value.compareTo(((Int) t).value) < 0 ? TRUE : FALSE;
+        return valueOf(_value_().divide(t._value_()));
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Bool _lte_(AbstractObj t) {
-        if (!(t instanceof Int)) {
-            return super._lte_(t);
+    public Int _mul_(Int t) {
+        if (big == null && t.big == null) {
+            long high = Math.abs(small) | Math.abs(t.small);
+
+            // If both arguments fit in 31 bits then the product can't overflow
+            if ((high >>> 31) == 0) {
+                return valueOf(small * t.small);
+            }
+
+            try {
+                return valueOf(Math.multiplyExact(small, t.small));
+            } catch (ArithmeticException e) {
+                // Fall through to the big representation
+            }
         }
 
-        return value.compareTo(((Int) t).value) <= 0 ? TRUE : FALSE;
-    }
-
-    public Int _mul_(Int t) {
-        return valueOf(value.multiply(t.value));
+        return valueOf(_value_().multiply(t._value_()));
     }
 
     public Int _neg_() {
-        return valueOf(value.negate());
+        if (big == null && small != Long.MIN_VALUE) {
+            return valueOf(-small);
+        }
+
+        return valueOf(_value_().negate());
     }
 
     public Int _or_(Int t) {
-        return valueOf(value.or(t.value));
+        if (big == null && t.big == null) {
+            return valueOf(small | t.small);
+        }
+
+        return valueOf(_value_().or(t._value_()));
     }
 
     public Int _rem_(Int t) {
-        return valueOf(value.remainder(t.value));
+        if (big == null && t.big == null) {
+            return valueOf(small % t.small);
+        }
+
+        return valueOf(_value_().remainder(t._value_()));
     }
 
     public List _rng_(Int to) {
         checkArgument(_lte_(to) == TRUE,
                 "this must be less than or equal to high (this=%s, high=%s)", this, to);
 
+        if (big == null && to.big == null && to.small - small >= 0
+                && to.small - small <= Integer.MAX_VALUE) {
+            return List.valueOf(new Range(small, to.small));
+        }
+
         Int from = this;
 
         List range = List.valueOf();
@@ -205,26 +222,114 @@ public final class Int extends AbstractObj {
     }
 
     public Int _sub_(Int t) {
-        return valueOf(value.subtract(t.value));
+        if (big == null && t.big == null) {
+            long result = small - t.small;
+
+            // Overflow iff the arguments have different signs and the sign of the result differs
+            // from the sign of this
+            if (((small ^ t.small) & (small ^ result)) >= 0) {
+                return valueOf(result);
+            }
+        }
+
+        return valueOf(_value_().subtract(t._value_()));
     }
 
     public BigInteger _value_() {
-        return value;
+        return big == null ? BigInteger.valueOf(small) : big;
     }
 
     public Int _xor_(Int t) {
-        return valueOf(value.xor(t.value));
+        if (big == null && t.big == null) {
+            return valueOf(small ^ t.small);
+        }
+
+        return valueOf(_value_().xor(t._value_()));
     }
 
     public Int gcd(Int t) {
         // TODO: Add in tests for this
-        if (t.equals(ZERO)) {
+        if (big == null && t.big == null) {
+            long a = small;
+            long b = t.small;
+
+            while (b != 0) {
+                long rem = a % b;
+
+                a = b;
+                b = rem;
+            }
+
+            return valueOf(a);
+        }
+
+        if (t.isZero()) {
             return this;
         }
 
         return t.gcd(this._rem_(t));
     }
 
+    /**
+     * Checks whether this value fits in a {@code long}. Used by compiled code to unbox a value into
+     * a primitive local.
+     *
+     * @return true if this value fits in a {@code long}.
+     */
+    public boolean isSmall() {
+        return big == null;
+    }
+
+    /**
+     * Gets this value as a {@code long}. If this value does not fit in a {@code long}, then only
+     * the low-order 64 bits are returned.
+     *
+     * @return the value as a {@code long}.
+     */
+    public long longValue() {
+        return big == null ? small : big.longValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(AbstractObj obj) {
+        if (!(obj instanceof Int)) {
+            return meta().compareTo(obj.meta());
+        }
+
+        return compareTo((Int) obj);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equalTo(AbstractObj obj) {
+        if (!super.equalTo(obj)) {
+            return false;
+        }
+
+        return compareTo((Int) obj) == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hash() {
+        if (big == null) {
+            return Long.hashCode(small);
+        }
+
+        if (hash == 0) {
+            hash = big.hashCode();
+        }
+
+        return hash;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -234,19 +339,27 @@ public final class Int extends AbstractObj {
     }
 
     public static Int valueOf(short value) {
-        return valueOf(BigInteger.valueOf(value));
+        return valueOf((long) value);
     }
 
     public static Int valueOf(byte value) {
-        return valueOf(BigInteger.valueOf(value));
+        return valueOf((long) value);
     }
 
     public static Int valueOf(int value) {
-        return valueOf(BigInteger.valueOf(value));
+        return valueOf((long) value);
     }
 
     public static Int valueOf(long value) {
-        return valueOf(BigInteger.valueOf(value));
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            Metrics.count(INT_CACHE_HIT);
+
+            return cache[(int) value - CACHE_LOW];
+        }
+
+        Metrics.count(INT_CACHE_MISS);
+
+        return new Int(value);
     }
 
     public static Int valueOf(byte[] bytes) {
@@ -254,6 +367,67 @@ public final class Int extends AbstractObj {
     }
 
     public static Int valueOf(BigInteger value) {
-        return cache.getUnchecked(value);
+        if (value.bitLength() < 64) {
+            return valueOf(value.longValue());
+        }
+
+        return new Int(value);
+    }
+
+    /**
+     * Gets the number of bits in the minimal two's-complement representation of this value,
+     * excluding the sign bit. Equivalent to {@link java.math.BigInteger#bitLength()}.
+     *
+     * @return the bit length of this value.
+     */
+    int bitLength() {
+        if (big == null) {
+            return 64 - Long.numberOfLeadingZeros(small < 0 ? ~small : small);
+        }
+
+        return big.bitLength();
+    }
+
+    int compareTo(Int t) {
+        if (big == null && t.big == null) {
+            return Long.compare(small, t.small);
+        }
+
+        // As the representation is canonical, any big value lies outside of the long range
+        if (big == null) {
+            return -t.big.signum();
+        } else if (t.big == null) {
+            return big.signum();
+        }
+
+        return big.compareTo(t.big);
+    }
+
+    int intValue() {
+        return big == null ? (int) small : big.intValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean isImmutable() {
+        return true;
+    }
+
+    boolean isZero() {
+        return big == null && small == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void printTo(Console console) {
+        if (big == null) {
+            console.write(small);
+        } else {
+            console.write(big.toString());
+        }
     }
 }
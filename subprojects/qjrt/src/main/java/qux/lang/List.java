@@ -5,52 +5,129 @@ import static com.google.common.base.Preconditions.checkElementIndex;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkPositionIndex;
 import static java.util.Arrays.asList;
-import static java.util.Arrays.copyOf;
-import static java.util.Arrays.copyOfRange;
 import static qux.lang.Bool.FALSE;
 import static qux.lang.Bool.TRUE;
+import static qux.lang.Metrics.Event.ARRAY_COPY;
+import static qux.lang.Metrics.Event.DUP;
 
 import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.Spliterator;
 
 import qux.util.Iterable;
 import qux.util.Iterator;
 
 /**
  * TODO: Documentation
+ * <p>
+ * The elements are held in a {@link qux.lang.PersistentVector}, so duplicating a list is {@code
+ * O(1)} and the first write to a shared list only copies the path to the element being written.
+ * Lists are not thread safe, the ownership of the vector's nodes is tracked per list rather than
+ * under a lock.
+ * <p>
+ * While every element of a list is an {@link qux.lang.Int} that fits in a {@code long}, the list is
+ * held in a primitive vector. The list is widened to hold objects the first time any other element
+ * is written to it.
+ * <p>
+ * A list may be a view of a range of a vector, in which case slicing is {@code O(1)}. Writing to an
+ * element of a view copies on write as usual. Adding or removing elements compacts the view into
+ * its own vector first, unless the view extends to the end of the vector. A slice that would only
+ * cover a small part of a large vector is copied straight away, so that it doesn't keep the whole
+ * vector reachable.
+ * <p>
+ * A list created by the {@code ..} operator is held as a {@link qux.lang.Range} rather than a
+ * vector, so it takes constant space until it is first written to. Reading, slicing and checking
+ * whether it contains an element don't need the vector, adding to or writing to it copies the
+ * elements into one first.
  *
  * @author Henry J. Wylde
  */
 public final class List extends AbstractObj implements Iterable {
 
-    private AbstractObj[] data;
+    /**
+     * The minimum size of a vector before slices that only cover a small part of it are copied
+     * rather than shared.
+     */
+    private static final int MIN_PINNED_SIZE = 4096;
+    /**
+     * The maximum ratio of the size of a vector to the size of a slice of it before the slice is
+     * copied rather than shared.
+     */
+    private static final int MAX_PINNED_RATIO = 8;
+
+    private PersistentVector data;
+    /**
+     * The integers held by this list in place of {@link #data}, until it is first written to. Only
+     * one of {@code data} and {@code range} is ever non-null.
+     */
+    private Range range;
+
+    /**
+     * The part of {@link #data} or {@link #range} that this list is a view of.
+     */
+    private int offset;
     private int count;
 
-    private int refs;
+    /**
+     * The running hash of the elements in this view, see {@link qux.lang.AbstractObj}. Only valid
+     * once {@link #hashed} is set by the first call to {@link #hash()}.
+     */
+    private int hash;
+    private int mutable;
+    private boolean hashed;
 
     private List() {
-        data = new AbstractObj[10];
-        count = 0;
+        data = new PersistentVector(true);
     }
 
     private List(List list) {
-        data = list.data;
+        // Share the structure, the first write to either list will copy the affected path
+        data = list.data != null ? new PersistentVector(list.data) : null;
+        range = list.range;
+        offset = list.offset;
         count = list.count;
 
-        // Lazily clone the data only when the first write is performed
-        refs = 1;
-        // Can't forget the fact that this list also references the prior list!
-        list.refs++;
+        hash = list.hash;
+        mutable = list.mutable;
+        hashed = list.hashed;
     }
 
     private List(AbstractObj[] data) {
         checkArgument(!asList(data).contains(null), "data cannot contain null");
 
-        this.data = data.clone();
+        boolean primitive = true;
+        for (AbstractObj datum : data) {
+            primitive &= isSmallInt(datum);
+        }
+
+        this.data = new PersistentVector(primitive);
+
+        for (AbstractObj datum : data) {
+            if (primitive) {
+                this.data.addLong(((Int) datum).longValue());
+            } else {
+                this.data.add(datum);
+            }
+        }
+
         count = data.length;
+    }
+
+    private List(Range range) {
+        this.range = range;
 
-        if (count == 0) {
-            this.data = new AbstractObj[10];
+        count = range.size();
+    }
+
+    private List(long[] data) {
+        this.data = new PersistentVector(true);
+
+        for (long datum : data) {
+            this.data.addLong(datum);
         }
+
+        count = data.length;
     }
 
     public AbstractObj _access_(Int index) {
@@ -60,8 +137,6 @@ public final class List extends AbstractObj implements Iterable {
     public List _add_(List list) {
         List union = new List(this);
 
-        union.ensureCapacity(list._len_());
-
         for (Iterator it = list._iter_(); it.hasNext() == TRUE; ) {
             union.add(it.next());
         }
@@ -73,35 +148,6 @@ public final class List extends AbstractObj implements Iterable {
         set(index, value);
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Int _comp_(AbstractObj obj) {
-        if (!(obj instanceof List)) {
-            return meta()._comp_(obj.meta());
-        }
-
-        List that = (List) obj;
-
-        Int comp = _len_()._comp_(that._len_());
-        if (!comp.equals(Int.ZERO)) {
-            return comp;
-        }
-
-        Iterator thisIt = _iter_();
-        Iterator thatIt = that._iter_();
-
-        while (thisIt.hasNext() == TRUE) {
-            comp = thisIt.next()._comp_(thatIt.next());
-            if (!comp.equals(Int.ZERO)) {
-                return comp;
-            }
-        }
-
-        return Int.ZERO;
-    }
-
     public Bool _contains_(AbstractObj obj) {
         return indexOf(obj) >= 0 ? TRUE : FALSE;
     }
@@ -131,6 +177,8 @@ public final class List extends AbstractObj implements Iterable {
      */
     @Override
     public List _dup_() {
+        Metrics.count(DUP);
+
         return new List(this);
     }
 
@@ -138,93 +186,148 @@ public final class List extends AbstractObj implements Iterable {
      * {@inheritDoc}
      */
     @Override
-    public Bool _eq_(AbstractObj obj) {
-        if (super._eq_(obj) == FALSE) {
-            return FALSE;
+    public Iterator _iter_() {
+        if (range != null) {
+            return iterRange();
         }
 
-        List that = (List) obj;
+        // The cursor iterates over a snapshot, so any writes to this list won't be seen
+        final PersistentVector.Cursor cursor = new PersistentVector.Cursor(data, offset,
+                offset + count);
+        final boolean primitive = data.isPrimitive();
 
-        if (!_len_().equals(that._len_())) {
-            return FALSE;
-        }
+        return new Iterator() {
 
-        Iterator thisIt = _iter_();
-        Iterator thatIt = that._iter_();
+            @Override
+            public Bool hasNext() {
+                return cursor.hasNext() ? TRUE : FALSE;
+            }
+
+            @Override
+            public AbstractObj next() {
+                if (primitive) {
+                    return Int.valueOf(cursor.nextLong());
+                }
 
-        while (thisIt.hasNext() == TRUE) {
-            if (!thisIt.next().equals(thatIt.next())) {
-                return FALSE;
+                return (AbstractObj) cursor.next();
             }
+        };
+    }
+
+    public Int _len_() {
+        return Int.valueOf(count);
+    }
+
+    public List _slice_(Int from, Int to) {
+        return sublist(from, to);
+    }
+
+    public List _sub_(List list) {
+        List difference = new List(this);
+
+        for (Iterator it = list._iter_(); it.hasNext() == TRUE; ) {
+            difference.remove(it.next());
         }
 
-        return TRUE;
+        return difference;
+    }
+
+    /**
+     * Gets a read only {@link java.util.List} view of this list. The view reflects any later writes
+     * to this list, the elements are not copied.
+     *
+     * @return the view.
+     */
+    public java.util.List<AbstractObj> asJavaList() {
+        return new JavaList();
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Int _hash_() {
-        Int hash = Int.ZERO;
+    public int compareTo(AbstractObj obj) {
+        if (!(obj instanceof List)) {
+            return meta().compareTo(obj.meta());
+        }
 
-        for (Iterator it = _iter_(); it.hasNext() == TRUE; ) {
-            hash = hash._add_(it.next()._hash_());
+        List that = (List) obj;
+
+        if (count != that.count) {
+            return count < that.count ? -1 : 1;
         }
 
-        return hash;
+        boolean primitive = isPrimitive() && that.isPrimitive();
+
+        for (int i = 0; i < count; i++) {
+            int comp;
+            if (primitive) {
+                comp = Long.compare(getLong(i), that.getLong(i));
+            } else {
+                comp = get(i).compareTo(that.get(i));
+            }
+
+            if (comp != 0) {
+                return comp;
+            }
+        }
+
+        return 0;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized Iterator _iter_() {
-        refs++;
+    public boolean equalTo(AbstractObj obj) {
+        if (!super.equalTo(obj)) {
+            return false;
+        }
 
-        return new Iterator() {
+        List that = (List) obj;
 
-            private AbstractObj[] data = List.this.data;
-            private int count = List.this.count;
-            private int index = 0;
+        if (count != that.count) {
+            return false;
+        }
 
-            @Override
-            public Bool hasNext() {
-                if (index < count) {
-                    return TRUE;
-                }
+        boolean primitive = isPrimitive() && that.isPrimitive();
 
-                // Check if the list is still the same, if it is we can decrement the refs count
-                if (List.this.data == data) {
-                    refs--;
+        for (int i = 0; i < count; i++) {
+            if (primitive) {
+                if (getLong(i) != that.getLong(i)) {
+                    return false;
                 }
-
-                return FALSE;
+            } else if (!get(i).equalTo(that.get(i))) {
+                return false;
             }
+        }
 
-            @Override
-            public AbstractObj next() {
-                return data[index++];
-            }
-        };
+        return true;
     }
 
-    public Int _len_() {
-        return Int.valueOf(count);
-    }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hash() {
+        if (!hashed) {
+            rehash();
+        }
 
-    public List _slice_(Int from, Int to) {
-        return sublist(from, to);
-    }
+        if (mutable == 0) {
+            return hash;
+        }
 
-    public List _sub_(List list) {
-        List difference = new List(this);
+        int hash = this.hash;
+        for (int i = 0; i < count; i++) {
+            AbstractObj element = (AbstractObj) data.get(offset + i);
 
-        for (Iterator it = list._iter_(); it.hasNext() == TRUE; ) {
-            difference.remove(it.next());
+            if (!element.isImmutable()) {
+                hash += element.hash();
+            }
         }
 
-        return difference;
+        return hash;
     }
 
     /**
@@ -249,26 +352,65 @@ public final class List extends AbstractObj implements Iterable {
         return Meta.forSet(Meta.forUnion(types));
     }
 
+    /**
+     * Creates a spliterator over a snapshot of this list, so any writes to this list won't be seen.
+     * The spliterator may be split and traversed from many threads at once, for example by a
+     * parallel {@link java.util.stream.Stream}.
+     *
+     * @return the spliterator.
+     */
+    public Spliterator<AbstractObj> spliterator() {
+        return new ListSpliterator(new List(this), 0, count);
+    }
+
+    public static List valueOf() {
+        return new List();
+    }
+
     public static List valueOf(AbstractObj... data) {
         return new List(data);
     }
 
-    synchronized void add(AbstractObj obj) {
-        checkRefs();
+    public static List valueOf(long... data) {
+        return new List(data);
+    }
+
+    void add(AbstractObj obj) {
+        checkNotNull(obj, "obj cannot be null");
+
+        checkView();
+
+        if (data.isPrimitive() && !isSmallInt(obj)) {
+            widen();
+        }
+
+        if (data.isPrimitive()) {
+            data.addLong(((Int) obj).longValue());
+        } else {
+            data.add(obj);
+        }
 
-        ensureCapacity();
+        count++;
 
-        data[count++] = checkNotNull(obj, "obj cannot be null");
+        if (hashed) {
+            include(obj);
+        }
     }
 
     AbstractObj get(Int index) {
-        return get(index._value_());
+        checkArgument(index.bitLength() < 32, "lists of size larger than 32 bits is unsupported");
+
+        return get(index.intValue());
     }
 
-    synchronized AbstractObj get(int index) {
+    AbstractObj get(int index) {
         checkElementIndex(index, count);
 
-        return data[index];
+        if (isPrimitive()) {
+            return Int.valueOf(getLong(index));
+        }
+
+        return (AbstractObj) data.get(offset + index);
     }
 
     AbstractObj get(BigInteger index) {
@@ -278,46 +420,95 @@ public final class List extends AbstractObj implements Iterable {
     }
 
     int indexOf(AbstractObj obj) {
-        int index = 0;
-        for (Iterator it = _iter_(); it.hasNext() == TRUE; ) {
-            if (it.next().equals(obj)) {
-                return index;
+        if (isPrimitive()) {
+            // A primitive list can only contain small ints
+            if (isSmallInt(obj)) {
+                long value = ((Int) obj).longValue();
+
+                if (range != null) {
+                    int index = range.indexOf(value) - offset;
+
+                    return index >= 0 && index < count ? index : -count - 1;
+                }
+
+                for (int i = 0; i < count; i++) {
+                    if (data.getLong(offset + i) == value) {
+                        return i;
+                    }
+                }
             }
 
-            index++;
+            return -count - 1;
         }
 
-        return -index - 1;
+        for (int i = 0; i < count; i++) {
+            if (((AbstractObj) data.get(offset + i)).equalTo(obj)) {
+                return i;
+            }
+        }
+
+        return -count - 1;
     }
 
     Bool isEmpty() {
         return count == 0 ? TRUE : FALSE;
     }
 
-    synchronized void remove(AbstractObj obj) {
-        checkRefs();
-
+    void remove(AbstractObj obj) {
         int index = indexOf(obj);
 
         if (index < 0) {
             return;
         }
 
-        System.arraycopy(data, index + 1, data, index, count - (index + 1));
+        checkView();
 
+        if (hashed) {
+            exclude(index);
+        }
+
+        // Shift the remaining elements down and drop the last one
+        for (int i = offset + index; i < offset + count - 1; i++) {
+            if (data.isPrimitive()) {
+                data.setLong(i, data.getLong(i + 1));
+            } else {
+                data.set(i, data.get(i + 1));
+            }
+        }
+
+        data.removeLast();
         count--;
     }
 
     void set(Int index, AbstractObj value) {
-        set(index._value_(), value);
+        checkArgument(index.bitLength() < 32, "lists of size larger than 32 bits is unsupported");
+
+        set(index.intValue(), value);
     }
 
-    synchronized void set(int index, AbstractObj value) {
+    void set(int index, AbstractObj value) {
         checkElementIndex(index, count);
+        checkNotNull(value, "value cannot be null");
 
-        checkRefs();
+        if (range != null) {
+            compact();
+        }
+
+        if (hashed) {
+            exclude(index);
+            include(value);
+        }
+
+        if (data.isPrimitive()) {
+            if (isSmallInt(value)) {
+                data.setLong(offset + index, ((Int) value).longValue());
+                return;
+            }
+
+            widen();
+        }
 
-        data[index] = checkNotNull(value, "value cannot be null");
+        data.set(offset + index, value);
     }
 
     void set(BigInteger index, AbstractObj value) {
@@ -327,16 +518,34 @@ public final class List extends AbstractObj implements Iterable {
     }
 
     List sublist(Int from, Int to) {
-        return sublist(from._value_(), to._value_());
+        checkArgument(from.bitLength() < 32, "lists of size larger than 32 bits is unsupported");
+        checkArgument(to.bitLength() < 32, "lists of size larger than 32 bits is unsupported");
+
+        return sublist(from.intValue(), to.intValue());
     }
 
-    synchronized List sublist(int from, int to) {
+    List sublist(int from, int to) {
         checkPositionIndex(from, count, "from");
         checkPositionIndex(to, count, "to");
         checkArgument(from <= to, "from must be less than or equal to to (from=%s, to=%s)", from,
                 to);
 
-        return valueOf(copyOfRange(data, from, to));
+        if (data != null && data.size() >= MIN_PINNED_SIZE
+                && (to - from) * MAX_PINNED_RATIO < data.size()) {
+            // Don't pin a large vector for the sake of a small slice
+            List sublist = new List();
+            sublist.data = copyOfRange(offset + from, offset + to);
+            sublist.count = to - from;
+
+            return sublist;
+        }
+
+        List sublist = new List(this);
+        sublist.offset = offset + from;
+        sublist.count = to - from;
+        sublist.hashed = false;
+
+        return sublist;
     }
 
     List sublist(BigInteger from, BigInteger to) {
@@ -346,33 +555,227 @@ public final class List extends AbstractObj implements Iterable {
         return sublist(from.intValue(), to.intValue());
     }
 
-    private synchronized void checkRefs() {
-        if (refs > 0) {
-            data = data.clone();
-            refs = 0;
+    static List valueOf(Range range) {
+        return new List(range);
+    }
+
+    private static boolean isSmallInt(AbstractObj obj) {
+        return obj instanceof Int && ((Int) obj).isSmall();
+    }
+
+    /**
+     * Compacts this list into its own vector if it is a range or a view that doesn't extend to the
+     * end of its vector. Afterwards the end of this list is the end of the vector, so elements may
+     * be added and removed.
+     */
+    private void checkView() {
+        if (range != null || offset + count != data.size()) {
+            compact();
         }
     }
 
-    private synchronized void ensureCapacity() {
-        ensureCapacity(1);
+    /**
+     * Copies the elements of this list into its own vector.
+     */
+    private void compact() {
+        data = copyOfRange(offset, offset + count);
+        range = null;
+        offset = 0;
     }
 
-    private synchronized void ensureCapacity(Int capacity) {
-        ensureCapacity(capacity._value_());
+    private PersistentVector copyOfRange(int from, int to) {
+        Metrics.count(ARRAY_COPY);
+
+        PersistentVector copy = new PersistentVector(isPrimitive());
+
+        for (int i = from; i < to; i++) {
+            if (range != null) {
+                copy.addLong(range.getLong(i));
+            } else if (data.isPrimitive()) {
+                copy.addLong(data.getLong(i));
+            } else {
+                copy.add(data.get(i));
+            }
+        }
+
+        return copy;
     }
 
-    private synchronized void ensureCapacity(BigInteger capacity) {
-        checkArgument(capacity.bitLength() < 32,
-                "lists of size larger than 32 bits is unsupported");
+    /**
+     * Subtracts the hash code of the element at the given index, which is being removed or
+     * overwritten.
+     */
+    private void exclude(int index) {
+        if (data.isPrimitive()) {
+            hash -= Long.hashCode(data.getLong(offset + index));
+        } else {
+            AbstractObj element = (AbstractObj) data.get(offset + index);
+
+            if (element.isImmutable()) {
+                hash -= element.hash();
+            } else {
+                mutable--;
+            }
+        }
+    }
+
+    /**
+     * Gets the element at the given index of a primitive list.
+     */
+    private long getLong(int index) {
+        if (range != null) {
+            return range.getLong(offset + index);
+        }
+
+        return data.getLong(offset + index);
+    }
+
+    /**
+     * Adds the hash code of the given element, which is being written to this list.
+     */
+    private void include(AbstractObj obj) {
+        if (obj.isImmutable()) {
+            hash += obj.hash();
+        } else {
+            mutable++;
+        }
+    }
+
+    private boolean isPrimitive() {
+        return range != null || data.isPrimitive();
+    }
+
+    /**
+     * Creates an iterator over the range, which can't change underneath it.
+     */
+    private Iterator iterRange() {
+        final Range range = this.range;
+        final int to = offset + count;
+
+        return new Iterator() {
+
+            private int index = offset;
+
+            @Override
+            public Bool hasNext() {
+                return index < to ? TRUE : FALSE;
+            }
 
-        ensureCapacity(capacity.intValue());
+            @Override
+            public AbstractObj next() {
+                return Int.valueOf(range.getLong(index++));
+            }
+        };
     }
 
-    private synchronized void ensureCapacity(int capacity) {
-        checkArgument(capacity >= 0, "capacity must be non-negative");
+    private void rehash() {
+        hash = 0;
+        mutable = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (isPrimitive()) {
+                // Consistent with the hash of a small int
+                hash += Long.hashCode(getLong(i));
+            } else {
+                include((AbstractObj) data.get(offset + i));
+            }
+        }
+
+        hashed = true;
+    }
+
+    /**
+     * Converts the primitive vector into one that holds objects. Any open iterators keep reading
+     * the old vector.
+     */
+    private void widen() {
+        Metrics.count(ARRAY_COPY);
+
+        PersistentVector widened = new PersistentVector();
+
+        for (int i = offset; i < offset + count; i++) {
+            widened.add(Int.valueOf(data.getLong(i)));
+        }
+
+        data = widened;
+        offset = 0;
+    }
+
+    /**
+     * A read only view of a list.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private final class JavaList extends AbstractList<AbstractObj> implements RandomAccess {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public AbstractObj get(int index) {
+            return List.this.get(index);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int indexOf(Object obj) {
+            if (!(obj instanceof AbstractObj)) {
+                return -1;
+            }
+
+            return Math.max(List.this.indexOf((AbstractObj) obj), -1);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return count;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Spliterator<AbstractObj> spliterator() {
+            return List.this.spliterator();
+        }
+    }
+
+    /**
+     * A spliterator over a list that is never written to.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private static final class ListSpliterator extends IndexSpliterator {
+
+        private final List list;
+
+        ListSpliterator(List list, int from, int to) {
+            super(from, to, ORDERED | NONNULL | IMMUTABLE);
+
+            this.list = list;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        AbstractObj get(int index) {
+            return list.get(index);
+        }
 
-        while (count + capacity > data.length) {
-            data = copyOf(data, data.length * 2);
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        IndexSpliterator split(int from, int to) {
+            return new ListSpliterator(list, from, to);
         }
     }
 }
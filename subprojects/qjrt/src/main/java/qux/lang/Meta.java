@@ -2,27 +2,48 @@ package qux.lang;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static qux.lang.Bool.FALSE;
 import static qux.lang.Bool.TRUE;
+import static qux.lang.Metrics.Event.DUP;
+import static qux.lang.Metrics.Event.META_CACHE_LOOKUP;
+import static qux.lang.Metrics.Event.META_CACHE_MISS;
 
 import com.google.common.base.Joiner;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Map;
 
 import qux.util.Iterator;
 
 /**
  * TODO: Documentation
+ * <p>
+ * Metas are hash-consed: every meta is created through one of the {@code for} methods, which
+ * normalise the given types and intern the result. Equal metas are therefore the same object and
+ * may be compared by identity. Metas are ordered first by their {@link Kind} and then by their
+ * inner types, so comparisons never need to build their descriptions.
  *
  * @author Henry J. Wylde
  * @since 0.1.2
  */
 public class Meta extends AbstractObj {
 
+    /**
+     * The order of the metas by their inner types, used to sort the types of a union.
+     */
+    private static final Comparator<Meta> ORDER = new Comparator<Meta>() {
+        @Override
+        public int compare(Meta a, Meta b) {
+            return Meta.compare(a, b);
+        }
+    };
+
     static final Meta META_ANY = new Any();
     static final Meta META_BOOL = new Bool();
     static final Meta META_INT = new Int();
@@ -36,14 +57,18 @@ public class Meta extends AbstractObj {
             CacheBuilder.<Meta, Meta>newBuilder().build(new CacheLoader<Meta, Meta>() {
                 @Override
                 public Meta load(Meta key) {
+                    Metrics.count(META_CACHE_MISS);
+
                     return new List(key);
                 }
             });
-    private static final LoadingCache<Map<String, Meta>, Meta> recordMetas =
-            CacheBuilder.<Map<String, Meta>, Meta>newBuilder().build(
-                    new CacheLoader<Map<String, Meta>, Meta>() {
+    private static final LoadingCache<ImmutableSortedMap<String, Meta>, Meta> recordMetas =
+            CacheBuilder.<ImmutableSortedMap<String, Meta>, Meta>newBuilder().build(
+                    new CacheLoader<ImmutableSortedMap<String, Meta>, Meta>() {
                         @Override
-                        public Meta load(Map<String, Meta> key) {
+                        public Meta load(ImmutableSortedMap<String, Meta> key) {
+                            Metrics.count(META_CACHE_MISS);
+
                             return new Record(key);
                         }
                     });
@@ -51,41 +76,43 @@ public class Meta extends AbstractObj {
             CacheBuilder.<Meta, Meta>newBuilder().build(new CacheLoader<Meta, Meta>() {
                 @Override
                 public Meta load(Meta key) {
+                    Metrics.count(META_CACHE_MISS);
+
                     return new Set(key);
                 }
             });
-    private static final LoadingCache<qux.lang.List, Meta> tupleMetas =
-            CacheBuilder.<qux.lang.List, Meta>newBuilder().build(
-                    new CacheLoader<qux.lang.List, Meta>() {
+    private static final LoadingCache<ImmutableList<Meta>, Meta> tupleMetas =
+            CacheBuilder.<ImmutableList<Meta>, Meta>newBuilder().build(
+                    new CacheLoader<ImmutableList<Meta>, Meta>() {
                         @Override
-                        public Meta load(qux.lang.List key) {
+                        public Meta load(ImmutableList<Meta> key) {
+                            Metrics.count(META_CACHE_MISS);
+
                             return new Tuple(key);
                         }
                     });
-    private static final LoadingCache<qux.lang.Set, Meta> unionMetas =
-            CacheBuilder.<qux.lang.Set, Meta>newBuilder().build(
-                    new CacheLoader<qux.lang.Set, Meta>() {
+    private static final LoadingCache<ImmutableList<Meta>, Meta> unionMetas =
+            CacheBuilder.<ImmutableList<Meta>, Meta>newBuilder().build(
+                    new CacheLoader<ImmutableList<Meta>, Meta>() {
                         @Override
-                        public Meta load(qux.lang.Set key) {
+                        public Meta load(ImmutableList<Meta> key) {
+                            Metrics.count(META_CACHE_MISS);
+
                             return new Union(key);
                         }
                     });
 
-    /**
-     * This class can only be instantiated locally.
-     */
-    Meta() {}
+    private final Kind kind;
 
     /**
-     * {@inheritDoc}
+     * This class can only be instantiated locally.
      */
-    @Override
-    public qux.lang.Int _comp_(AbstractObj obj) {
-        if (!(obj instanceof Meta)) {
-            return meta()._comp_(obj.meta());
-        }
+    Meta() {
+        this(Kind.META);
+    }
 
-        return _desc_()._comp_(obj._desc_());
+    private Meta(Kind kind) {
+        this.kind = kind;
     }
 
     /**
@@ -101,6 +128,8 @@ public class Meta extends AbstractObj {
      */
     @Override
     public Meta _dup_() {
+        Metrics.count(DUP);
+
         return this;
     }
 
@@ -108,32 +137,57 @@ public class Meta extends AbstractObj {
      * {@inheritDoc}
      */
     @Override
-    public qux.lang.Bool _eq_(AbstractObj obj) {
-        if (super._eq_(obj) == FALSE) {
-            return FALSE;
+    public int compareTo(AbstractObj obj) {
+        if (!(obj instanceof Meta)) {
+            return meta().compareTo(obj.meta());
         }
 
-        return this == obj ? TRUE : FALSE;
+        return compare(this, (Meta) obj);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equalTo(AbstractObj obj) {
+        // Metas are interned
+        return this == obj;
     }
 
     public static Meta forList(Meta innerType) {
-        return listMetas.getUnchecked(normalise(innerType));
+        Metrics.count(META_CACHE_LOOKUP);
+
+        return listMetas.getUnchecked(checkNotNull(innerType, "innerType cannot be null"));
     }
 
     public static Meta forRecord(Map<String, Meta> fields) {
+        Metrics.count(META_CACHE_LOOKUP);
+
         return recordMetas.getUnchecked(normalise(fields));
     }
 
     public static Meta forSet(Meta innerType) {
-        return setMetas.getUnchecked(normalise(innerType));
+        Metrics.count(META_CACHE_LOOKUP);
+
+        return setMetas.getUnchecked(checkNotNull(innerType, "innerType cannot be null"));
     }
 
     public static Meta forTuple(qux.lang.List types) {
+        Metrics.count(META_CACHE_LOOKUP);
+
         return tupleMetas.getUnchecked(normalise(types));
     }
 
     public static Meta forUnion(qux.lang.Set types) {
-        return unionMetas.getUnchecked(normalise(types));
+        ImmutableList<Meta> normalised = normalise(types);
+
+        if (normalised.size() == 1) {
+            return normalised.get(0);
+        }
+
+        Metrics.count(META_CACHE_LOOKUP);
+
+        return unionMetas.getUnchecked(normalised);
     }
 
     /**
@@ -144,33 +198,109 @@ public class Meta extends AbstractObj {
         return META_META;
     }
 
-    private static qux.lang.List normalise(qux.lang.List types) {
-        // TODO: Implement normalise(List)
-        throw new InternalError("normalise(List) not implemented");
+    /**
+     * Compares the two metas by their kinds and then by their inner types. As the inner types are
+     * interned, the recursion stops as soon as it reaches a shared inner type.
+     */
+    private static int compare(Meta a, Meta b) {
+        if (a == b) {
+            return 0;
+        }
+
+        if (a.kind != b.kind) {
+            return a.kind.compareTo(b.kind);
+        }
+
+        return a.compareInner(b);
     }
 
-    private static Map<String, Meta> normalise(Map<String, Meta> fields) {
-        // TODO: Implement normalise(Map)
-        throw new InternalError("normalise(Map) not implemented");
+    private static int compare(java.util.List<Meta> a, java.util.List<Meta> b) {
+        if (a.size() != b.size()) {
+            return a.size() < b.size() ? -1 : 1;
+        }
+
+        for (int i = 0; i < a.size(); i++) {
+            int comp = compare(a.get(i), b.get(i));
+            if (comp != 0) {
+                return comp;
+            }
+        }
+
+        return 0;
     }
 
-    private static qux.lang.Set normalise(qux.lang.Set types) {
-        // TODO: Implement normalise(Set)
-        throw new InternalError("normalise(Set) not implemented");
+    private static ImmutableList<Meta> normalise(qux.lang.List types) {
+        ImmutableList.Builder<Meta> normalised = ImmutableList.builder();
+
+        for (Iterator it = types._iter_(); it.hasNext() == TRUE; ) {
+            normalised.add((Meta) it.next());
+        }
+
+        return normalised.build();
     }
 
-    private static Meta normalise(Meta meta) {
-        if (meta instanceof Meta.List) {
-            return forList(((List) meta).innerType);
-        } else if (meta instanceof Meta.Set) {
-            return forSet(((Set) meta).innerType);
-        } else if (meta instanceof Meta.Tuple) {
-            return forTuple(((Tuple) meta).types);
-        } else if (meta instanceof Meta.Union) {
-            return forUnion(((Union) meta).types);
+    private static ImmutableSortedMap<String, Meta> normalise(Map<String, Meta> fields) {
+        checkArgument(!fields.containsKey(null), "fields cannot contain null key");
+        checkArgument(!fields.containsValue(null), "fields cannot contain null value");
+
+        return ImmutableSortedMap.copyOf(fields);
+    }
+
+    /**
+     * Normalises the types of a union by flattening any inner unions and then sorting and
+     * deduplicating the types.
+     */
+    private static ImmutableList<Meta> normalise(qux.lang.Set types) {
+        java.util.List<Meta> flattened = new ArrayList<>();
+
+        for (Iterator it = types._iter_(); it.hasNext() == TRUE; ) {
+            Meta type = (Meta) it.next();
+
+            if (type instanceof Union) {
+                flattened.addAll(((Union) type).types);
+            } else {
+                flattened.add(type);
+            }
+        }
+
+        checkArgument(!flattened.isEmpty(), "types cannot be empty");
+
+        Collections.sort(flattened, ORDER);
+
+        ImmutableList.Builder<Meta> normalised = ImmutableList.builder();
+        for (int i = 0; i < flattened.size(); i++) {
+            if (i == 0 || flattened.get(i) != flattened.get(i - 1)) {
+                normalised.add(flattened.get(i));
+            }
         }
 
-        return meta;
+        return normalised.build();
+    }
+
+    /**
+     * Compares this meta against another of the same kind by their inner types.
+     */
+    int compareInner(Meta meta) {
+        // Metas without inner types are singletons
+        throw new InternalError("compareInner(Meta) not implemented for " + kind);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean isImmutable() {
+        return true;
+    }
+
+    /**
+     * The kinds of metas, in the order that metas are sorted by.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private enum Kind {
+        ANY, BOOL, INT, META, NULL, OBJ, RAT, STR, LIST, RECORD, SET, TUPLE, UNION
     }
 
     /**
@@ -181,6 +311,10 @@ public class Meta extends AbstractObj {
      */
     private static final class Any extends Meta {
 
+        Any() {
+            super(Kind.ANY);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -198,6 +332,10 @@ public class Meta extends AbstractObj {
      */
     private static final class Bool extends Meta {
 
+        Bool() {
+            super(Kind.BOOL);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -215,6 +353,10 @@ public class Meta extends AbstractObj {
      */
     private static final class Int extends Meta {
 
+        Int() {
+            super(Kind.INT);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -235,6 +377,8 @@ public class Meta extends AbstractObj {
         private final Meta innerType;
 
         public List(Meta innerType) {
+            super(Kind.LIST);
+
             this.innerType = checkNotNull(innerType, "inner cannot be null");
         }
 
@@ -246,28 +390,16 @@ public class Meta extends AbstractObj {
             return qux.lang.Str.valueOf("[" + innerType + "]");
         }
 
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public qux.lang.Bool _eq_(AbstractObj obj) {
-            if (super._eq_(obj) == FALSE) {
-                return FALSE;
-            }
-
-            return innerType._eq_(((List) obj).innerType);
+        public Meta getInnerType() {
+            return innerType;
         }
 
         /**
          * {@inheritDoc}
          */
         @Override
-        public qux.lang.Int _hash_() {
-            return innerType._hash_();
-        }
-
-        public Meta getInnerType() {
-            return innerType;
+        int compareInner(Meta meta) {
+            return compare(innerType, ((List) meta).innerType);
         }
     }
 
@@ -279,6 +411,10 @@ public class Meta extends AbstractObj {
      */
     private static final class Null extends Meta {
 
+        Null() {
+            super(Kind.NULL);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -296,6 +432,10 @@ public class Meta extends AbstractObj {
      */
     private static final class Obj extends Meta {
 
+        Obj() {
+            super(Kind.OBJ);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -313,6 +453,10 @@ public class Meta extends AbstractObj {
      */
     private static final class Rat extends Meta {
 
+        Rat() {
+            super(Kind.RAT);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -331,13 +475,14 @@ public class Meta extends AbstractObj {
     private static final class Record extends Meta {
 
         // TODO: Change this to a qux.lang.Map when it exists
-        // TODO: Make this a sorted map
-        private final ImmutableMap<String, Meta> fields;
+        private final ImmutableSortedMap<String, Meta> fields;
+
+        public Record(ImmutableSortedMap<String, Meta> fields) {
+            super(Kind.RECORD);
 
-        public Record(Map<String, Meta> fields) {
             checkArgument(!fields.isEmpty(), "fields cannot be empty");
 
-            this.fields = ImmutableMap.copyOf(fields);
+            this.fields = fields;
         }
 
         /**
@@ -364,28 +509,37 @@ public class Meta extends AbstractObj {
             return qux.lang.Str.valueOf(sb.toString());
         }
 
+        public ImmutableSortedMap<String, Meta> getFields() {
+            return fields;
+        }
+
         /**
          * {@inheritDoc}
          */
         @Override
-        public qux.lang.Bool _eq_(AbstractObj obj) {
-            if (super._eq_(obj) == FALSE) {
-                return FALSE;
+        int compareInner(Meta meta) {
+            Record that = (Record) meta;
+
+            if (fields.size() != that.fields.size()) {
+                return fields.size() < that.fields.size() ? -1 : 1;
             }
 
-            return fields.equals(((Record) obj).fields) ? TRUE : FALSE;
-        }
+            java.util.Iterator<Map.Entry<String, Meta>> thatIt = that.fields.entrySet().iterator();
+            for (Map.Entry<String, Meta> field : fields.entrySet()) {
+                Map.Entry<String, Meta> thatField = thatIt.next();
 
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public qux.lang.Int _hash_() {
-            return qux.lang.Int.valueOf(fields.hashCode());
-        }
+                int comp = field.getKey().compareTo(thatField.getKey());
+                if (comp != 0) {
+                    return comp;
+                }
 
-        public ImmutableMap<String, Meta> getFields() {
-            return fields;
+                comp = compare(field.getValue(), thatField.getValue());
+                if (comp != 0) {
+                    return comp;
+                }
+            }
+
+            return 0;
         }
     }
 
@@ -400,6 +554,8 @@ public class Meta extends AbstractObj {
         private final Meta innerType;
 
         public Set(Meta innerType) {
+            super(Kind.SET);
+
             this.innerType = checkNotNull(innerType, "inner cannot be null");
         }
 
@@ -411,28 +567,16 @@ public class Meta extends AbstractObj {
             return qux.lang.Str.valueOf("{" + innerType + "}");
         }
 
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public qux.lang.Bool _eq_(AbstractObj obj) {
-            if (super._eq_(obj) == FALSE) {
-                return FALSE;
-            }
-
-            return innerType._eq_(((Set) obj).innerType);
+        public Meta getInnerType() {
+            return innerType;
         }
 
         /**
          * {@inheritDoc}
          */
         @Override
-        public qux.lang.Int _hash_() {
-            return innerType._hash_();
-        }
-
-        public Meta getInnerType() {
-            return innerType;
+        int compareInner(Meta meta) {
+            return compare(innerType, ((Set) meta).innerType);
         }
     }
 
@@ -444,6 +588,10 @@ public class Meta extends AbstractObj {
      */
     private static final class Str extends Meta {
 
+        Str() {
+            super(Kind.STR);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -461,11 +609,12 @@ public class Meta extends AbstractObj {
      */
     private static final class Tuple extends Meta {
 
-        private final qux.lang.List types;
+        private final ImmutableList<Meta> types;
 
-        public Tuple(qux.lang.List types) {
-            checkArgument(types._len_()._gte_(qux.lang.Int.TWO) == TRUE,
-                    "types must have at least 2 elements");
+        public Tuple(ImmutableList<Meta> types) {
+            super(Kind.TUPLE);
+
+            checkArgument(types.size() >= 2, "types must have at least 2 elements");
 
             this.types = types;
         }
@@ -475,51 +624,19 @@ public class Meta extends AbstractObj {
          */
         @Override
         public qux.lang.Str _desc_() {
-            java.util.Iterator<AbstractObj> it = new java.util.Iterator<AbstractObj>() {
-
-                Iterator it = types._iter_();
-
-                @Override
-                public boolean hasNext() {
-                    return it.hasNext() == TRUE;
-                }
-
-                @Override
-                public AbstractObj next() {
-                    return it.next();
-                }
-
-                @Override
-                public void remove() {
-                    throw new UnsupportedOperationException();
-                }
-            };
-
-            return qux.lang.Str.valueOf(Joiner.on("|").join(it));
+            return qux.lang.Str.valueOf(Joiner.on("|").join(types));
         }
 
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public qux.lang.Bool _eq_(AbstractObj obj) {
-            if (super._eq_(obj) == FALSE) {
-                return FALSE;
-            }
-
-            return types.equals(((Tuple) obj).types) ? TRUE : FALSE;
+        public ImmutableList<Meta> getTypes() {
+            return types;
         }
 
         /**
          * {@inheritDoc}
          */
         @Override
-        public qux.lang.Int _hash_() {
-            return qux.lang.Int.valueOf(types.hashCode());
-        }
-
-        public qux.lang.List getTypes() {
-            return types;
+        int compareInner(Meta meta) {
+            return compare(types, ((Tuple) meta).types);
         }
     }
 
@@ -531,11 +648,12 @@ public class Meta extends AbstractObj {
      */
     private static final class Union extends Meta {
 
-        private final qux.lang.Set types;
+        private final ImmutableList<Meta> types;
 
-        public Union(qux.lang.Set types) {
-            checkArgument(types._len_()._gte_(qux.lang.Int.TWO) == TRUE,
-                    "types must have at least 2 elements");
+        public Union(ImmutableList<Meta> types) {
+            super(Kind.UNION);
+
+            checkArgument(types.size() >= 2, "types must have at least 2 elements");
 
             this.types = types;
         }
@@ -545,51 +663,19 @@ public class Meta extends AbstractObj {
          */
         @Override
         public qux.lang.Str _desc_() {
-            java.util.Iterator<AbstractObj> it = new java.util.Iterator<AbstractObj>() {
-
-                Iterator it = types._iter_();
-
-                @Override
-                public boolean hasNext() {
-                    return it.hasNext() == TRUE;
-                }
-
-                @Override
-                public AbstractObj next() {
-                    return it.next();
-                }
-
-                @Override
-                public void remove() {
-                    throw new UnsupportedOperationException();
-                }
-            };
-
-            return qux.lang.Str.valueOf(Joiner.on("|").join(it));
+            return qux.lang.Str.valueOf(Joiner.on("|").join(types));
         }
 
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public qux.lang.Bool _eq_(AbstractObj obj) {
-            if (super._eq_(obj) == FALSE) {
-                return FALSE;
-            }
-
-            return types.equals(((Union) obj).types) ? TRUE : FALSE;
+        public ImmutableList<Meta> getTypes() {
+            return types;
         }
 
         /**
          * {@inheritDoc}
          */
         @Override
-        public qux.lang.Int _hash_() {
-            return qux.lang.Int.valueOf(types.hashCode());
-        }
-
-        public qux.lang.Set getTypes() {
-            return types;
+        int compareInner(Meta meta) {
+            return compare(types, ((Union) meta).types);
         }
     }
 }
@@ -0,0 +1,197 @@
+package qux.lang;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters of the copying, duplication and caching performed by the runtime. The counters are
+ * disabled unless the {@value #PROPERTY_ENABLED} system property is set to {@code true}, in which
+ * case they are also registered with the platform MBean server. The check is against a constant,
+ * so the JIT removes the counting entirely when disabled.
+ * <p>
+ * If the {@value #PROPERTY_DUMP} system property is also set to {@code true}, the counters are
+ * printed to standard error when the JVM exits.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class Metrics implements MetricsMBean {
+
+    public static final String NAME = "qux.lang:type=Metrics";
+
+    public static final String PROPERTY_ENABLED = "qux.metrics";
+    public static final String PROPERTY_DUMP = "qux.metrics.dump";
+
+    private static final boolean ENABLED = Boolean.getBoolean(PROPERTY_ENABLED);
+
+    private static final Metrics INSTANCE = new Metrics();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(
+                        NAME));
+            } catch (JMException e) {
+                throw new InternalError(e);
+            }
+
+            if (Boolean.getBoolean(PROPERTY_DUMP)) {
+                Runtime.getRuntime().addShutdownHook(new Thread() {
+                    @Override
+                    public void run() {
+                        System.err.println(INSTANCE);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * This class can only be instantiated locally.
+     */
+    private Metrics() {}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getArrayCopies() {
+        return Event.ARRAY_COPY.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getDups() {
+        return Event.DUP.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getInlineCacheMisses() {
+        return Event.INLINE_CACHE_MISS.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getIntCacheHits() {
+        return Event.INT_CACHE_HIT.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getIntCacheMisses() {
+        return Event.INT_CACHE_MISS.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMetaCacheHits() {
+        // Misses are counted when loading a meta, so hits are only known through the lookups
+        return Event.META_CACHE_LOOKUP.sum() - Event.META_CACHE_MISS.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMetaCacheMisses() {
+        return Event.META_CACHE_MISS.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getNodeCopies() {
+        return Event.NODE_COPY.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getRatCacheHits() {
+        return Event.RAT_CACHE_HIT.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getRatCacheMisses() {
+        return Event.RAT_CACHE_MISS.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        for (Event event : Event.values()) {
+            event.counter.reset();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "qux metrics: arrayCopies=" + getArrayCopies() + ", nodeCopies=" + getNodeCopies()
+                + ", dups=" + getDups() + ", intCache=" + getIntCacheHits() + "/"
+                + getIntCacheMisses() + ", ratCache=" + getRatCacheHits() + "/"
+                + getRatCacheMisses() + ", metaCache=" + getMetaCacheHits() + "/"
+                + getMetaCacheMisses() + " (hits/misses), inlineCacheMisses="
+                + getInlineCacheMisses();
+    }
+
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Counts an occurrence of the given event, if the counters are enabled.
+     *
+     * @param event the event.
+     */
+    static void count(Event event) {
+        if (ENABLED) {
+            event.counter.increment();
+        }
+    }
+
+    /**
+     * The events counted by the runtime. Each event has its own striped counter, so counting from
+     * many threads doesn't contend on a single field.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    enum Event {
+        ARRAY_COPY, DUP, INLINE_CACHE_MISS, INT_CACHE_HIT, INT_CACHE_MISS, META_CACHE_LOOKUP,
+        META_CACHE_MISS, NODE_COPY, RAT_CACHE_HIT, RAT_CACHE_MISS;
+
+        private final LongAdder counter = new LongAdder();
+
+        long sum() {
+            return counter.sum();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package qux.lang;
+
+/**
+ * The management interface of {@link qux.lang.Metrics}, registered under the name {@value
+ * qux.lang.Metrics#NAME}.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public interface MetricsMBean {
+
+    /**
+     * Gets the number of times that a list, set or record copied all of its elements, for example
+     * because it was shared with a duplicate when written to.
+     *
+     * @return the number of whole copies.
+     */
+    long getArrayCopies();
+
+    /**
+     * Gets the number of calls to {@link qux.lang.AbstractObj#_dup_()}.
+     *
+     * @return the number of duplications.
+     */
+    long getDups();
+
+    /**
+     * Gets the number of times that an operator call site was called with operands of classes it
+     * hadn't linked, see {@link qux.lang.InlineCache}.
+     *
+     * @return the number of inline cache misses.
+     */
+    long getInlineCacheMisses();
+
+    /**
+     * Gets the number of times that {@link qux.lang.Int#valueOf(long)} returned a preallocated
+     * small int rather than creating one.
+     *
+     * @return the number of int cache hits.
+     */
+    long getIntCacheHits();
+
+    /**
+     * Gets the number of times that {@link qux.lang.Int#valueOf(long)} created an int because the
+     * value was outside of the preallocated range.
+     *
+     * @return the number of int cache misses.
+     */
+    long getIntCacheMisses();
+
+    /**
+     * Gets the number of times that a list, record, set, tuple or union meta was looked up and
+     * found already interned.
+     *
+     * @return the number of meta cache hits.
+     */
+    long getMetaCacheHits();
+
+    /**
+     * Gets the number of times that a list, record, set, tuple or union meta was looked up and had
+     * to be created and interned.
+     *
+     * @return the number of meta cache misses.
+     */
+    long getMetaCacheMisses();
+
+    /**
+     * Gets the number of nodes of a list's vector that were copied because they were shared with a
+     * duplicate when written to.
+     *
+     * @return the number of node copies.
+     */
+    long getNodeCopies();
+
+    /**
+     * Gets the number of times that a rational was zero or a small integer and so a preallocated
+     * instance was returned.
+     *
+     * @return the number of rat cache hits.
+     */
+    long getRatCacheHits();
+
+    /**
+     * Gets the number of times that a rational had to be created because no preallocated instance
+     * matched it.
+     *
+     * @return the number of rat cache misses.
+     */
+    long getRatCacheMisses();
+
+    /**
+     * Resets all of the counters to zero.
+     */
+    void reset();
+}
@@ -1,8 +1,7 @@
 package qux.lang;
 
-import static qux.lang.Bool.FALSE;
-import static qux.lang.Bool.TRUE;
 import static qux.lang.Meta.META_NULL;
+import static qux.lang.Metrics.Event.DUP;
 
 /**
  * TODO: Documentation
@@ -19,36 +18,34 @@ public final class Null extends AbstractObj {
      * {@inheritDoc}
      */
     @Override
-    public Int _comp_(AbstractObj obj) {
-        return meta()._comp_(obj.meta());
+    public Str _desc_() {
+        return Str.valueOf("null");
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Str _desc_() {
-        return Str.valueOf("null");
+    public Null _dup_() {
+        Metrics.count(DUP);
+
+        return this;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Null _dup_() {
-        return this;
+    public int compareTo(AbstractObj obj) {
+        return meta().compareTo(obj.meta());
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Bool _eq_(AbstractObj obj) {
-        if (super._eq_(obj) == FALSE) {
-            return FALSE;
-        }
-
-        return this == obj ? TRUE : FALSE;
+    public boolean equalTo(AbstractObj obj) {
+        return this == obj;
     }
 
     /**
@@ -58,5 +55,13 @@ public final class Null extends AbstractObj {
     public Meta meta() {
         return META_NULL;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean isImmutable() {
+        return true;
+    }
 }
 
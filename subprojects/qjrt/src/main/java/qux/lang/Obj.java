@@ -1,9 +1,8 @@
 package qux.lang;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static qux.lang.Bool.FALSE;
-import static qux.lang.Bool.TRUE;
 import static qux.lang.Meta.META_OBJ;
+import static qux.lang.Metrics.Event.DUP;
 
 /**
  * TODO: Documentation
@@ -28,48 +27,50 @@ public final class Obj extends AbstractObj {
      * {@inheritDoc}
      */
     @Override
-    public Int _comp_(AbstractObj obj) {
-        if (!(obj instanceof Obj)) {
-            return meta()._comp_(obj.meta());
-        }
-
-        return Int.valueOf(id.compareTo(((Obj) obj).id));
+    public Str _desc_() {
+        return Str.valueOf("obj");
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Str _desc_() {
-        return Str.valueOf("obj");
+    public Obj _dup_() {
+        Metrics.count(DUP);
+
+        return valueOf(id);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Obj _dup_() {
-        return valueOf(id);
+    public int compareTo(AbstractObj obj) {
+        if (!(obj instanceof Obj)) {
+            return meta().compareTo(obj.meta());
+        }
+
+        return id.compareTo(((Obj) obj).id);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Bool _eq_(AbstractObj obj) {
-        if (super._eq_(obj) == FALSE) {
-            return FALSE;
+    public boolean equalTo(AbstractObj obj) {
+        if (!super.equalTo(obj)) {
+            return false;
         }
 
-        return id.equals(((Obj) obj).id) ? TRUE : FALSE;
+        return id.equals(((Obj) obj).id);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Int _hash_() {
-        return Int.valueOf(id.hashCode());
+    public int hash() {
+        return id.hashCode();
     }
 
     /**
@@ -83,5 +84,13 @@ public final class Obj extends AbstractObj {
     public static Obj valueOf(String id) {
         return new Obj(id);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean isImmutable() {
+        return true;
+    }
 }
 
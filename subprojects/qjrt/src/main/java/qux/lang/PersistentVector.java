@@ -0,0 +1,487 @@
+package qux.lang;
+
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.base.Preconditions.checkState;
+import static qux.lang.Metrics.Event.NODE_COPY;
+
+import java.util.Arrays;
+
+/**
+ * A bit-partitioned vector trie with a branching factor of 32 and a tail buffer. Lookups, updates
+ * and appends are all {@code O(log32 n)}.
+ * <p>
+ * Every node is stamped with the edit token of the vector that created it. A vector may only
+ * mutate a node in place if it owns it (the tokens match), otherwise it copies the path down to
+ * the node first. Sharing a vector is therefore {@code O(1)}: both vectors are simply given new
+ * tokens so that neither owns any of the existing nodes anymore.
+ * <p>
+ * Cursors work the same way, but lazily: opening a cursor only records that the vector has an open
+ * cursor. The vector relinquishes ownership of its nodes on the next write only if a cursor is
+ * still open at the time, so a cursor that has been run to completion never forces a copy.
+ * <p>
+ * A vector may be created as primitive, in which case its leaves hold {@code long}s rather than
+ * objects. A primitive vector may only be accessed through the {@code long} methods and vice versa.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+final class PersistentVector {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final int MIN_TAIL_CAPACITY = 4;
+
+    private static final Node EMPTY_NODE = new Node(null, new Object[WIDTH]);
+    private static final Node EMPTY_TAIL = new Node(null, new Object[0]);
+    private static final Node EMPTY_PRIMITIVE_TAIL = new Node(null, new long[0]);
+
+    private final boolean primitive;
+
+    private Object edit = new Object();
+
+    /**
+     * The number of cursors opened since the last change of ownership that are yet to finish.
+     */
+    private int cursors;
+
+    private int count;
+    private int shift;
+    private Node root;
+    private Node tail;
+
+    PersistentVector() {
+        this(false);
+    }
+
+    PersistentVector(boolean primitive) {
+        this.primitive = primitive;
+
+        clear();
+    }
+
+    /**
+     * Creates a new vector that shares the structure of the given vector. Neither vector will
+     * mutate the shared structure, the first write to either will copy the affected path.
+     *
+     * @param vector the vector to share.
+     */
+    PersistentVector(PersistentVector vector) {
+        primitive = vector.primitive;
+        count = vector.count;
+        shift = vector.shift;
+        root = vector.root;
+        tail = vector.tail;
+
+        vector.freeze();
+    }
+
+    private PersistentVector(boolean primitive, int count, int shift, Node root, Node tail) {
+        this.primitive = primitive;
+        this.count = count;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    void add(Object obj) {
+        checkState(!primitive, "vector is primitive");
+
+        int index = expandTail();
+        tail.array[index] = obj;
+    }
+
+    void addLong(long value) {
+        checkState(primitive, "vector is not primitive");
+
+        int index = expandTail();
+        tail.longs[index] = value;
+    }
+
+    void clear() {
+        count = 0;
+        shift = BITS;
+        root = EMPTY_NODE;
+        tail = primitive ? EMPTY_PRIMITIVE_TAIL : EMPTY_TAIL;
+    }
+
+    /**
+     * Relinquishes ownership of all of the nodes in this vector. Any further writes will copy the
+     * affected path rather than mutate it, so any snapshots taken prior remain unchanged.
+     */
+    void freeze() {
+        edit = new Object();
+        cursors = 0;
+    }
+
+    Object get(int index) {
+        checkState(!primitive, "vector is primitive");
+
+        return nodeFor(index).array[index & MASK];
+    }
+
+    long getLong(int index) {
+        checkState(primitive, "vector is not primitive");
+
+        return nodeFor(index).longs[index & MASK];
+    }
+
+    boolean isPrimitive() {
+        return primitive;
+    }
+
+    void removeLast() {
+        checkCursors();
+
+        if (count == 1) {
+            clear();
+            return;
+        }
+
+        int tailCount = count - tailOffset();
+
+        if (tailCount > 1) {
+            if (!primitive) {
+                // Release the reference to the removed element
+                tail = editable(tail);
+                tail.array[tailCount - 1] = null;
+            }
+            count--;
+
+            return;
+        }
+
+        // The tail only has the one element, so the last leaf in the tree becomes the new tail
+        Node newTail = nodeFor(count - 2);
+
+        Node newRoot = popTail(shift, root);
+        int newShift = shift;
+
+        if (newRoot == null) {
+            newRoot = EMPTY_NODE;
+        }
+        if (shift > BITS && newRoot.array[1] == null) {
+            newRoot = (Node) newRoot.array[0];
+            newShift -= BITS;
+        }
+
+        root = newRoot;
+        shift = newShift;
+        tail = newTail;
+        count--;
+    }
+
+    void set(int index, Object obj) {
+        checkState(!primitive, "vector is primitive");
+
+        editableLeaf(index).array[index & MASK] = obj;
+    }
+
+    void setLong(int index, long value) {
+        checkState(primitive, "vector is not primitive");
+
+        editableLeaf(index).longs[index & MASK] = value;
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Relinquishes ownership of the nodes if there are any open cursors, ensuring that the next
+     * write doesn't mutate a node that a cursor may still read.
+     */
+    private void checkCursors() {
+        if (cursors > 0) {
+            freeze();
+        }
+    }
+
+    private Node editable(Node node) {
+        if (node.edit == edit) {
+            return node;
+        }
+
+        Metrics.count(NODE_COPY);
+
+        if (node.longs != null) {
+            return new Node(edit, node.longs.clone());
+        }
+
+        return new Node(edit, node.array.clone());
+    }
+
+    /**
+     * Gets the leaf holding the given index, copying the path down to it if required so that it may
+     * be written to in place.
+     */
+    private Node editableLeaf(int index) {
+        checkCursors();
+
+        if (index >= tailOffset()) {
+            tail = editable(tail);
+
+            return tail;
+        }
+
+        root = editablePath(shift, root, index);
+
+        return nodeFor(index);
+    }
+
+    private Node editablePath(int level, Node node, int index) {
+        Node ret = editable(node);
+
+        if (level > 0) {
+            int subidx = (index >>> level) & MASK;
+            ret.array[subidx] = editablePath(level - BITS, (Node) node.array[subidx], index);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Ensures that the tail is owned by this vector and has room for another element, pushing it
+     * into the tree if it is full. The count is incremented to include the new element.
+     *
+     * @return the index in the tail to write the new element to.
+     */
+    private int expandTail() {
+        checkCursors();
+
+        int tailCount = count - tailOffset();
+
+        if (tailCount < WIDTH) {
+            int capacity = tail.capacity();
+
+            if (tail.edit != edit || tailCount == capacity) {
+                if (tailCount == capacity) {
+                    capacity = Math.min(WIDTH, Math.max(MIN_TAIL_CAPACITY, capacity * 2));
+                }
+
+                tail = tail.copyOf(edit, capacity);
+            }
+        } else {
+            pushTail();
+            tailCount = 0;
+        }
+
+        count++;
+
+        return tailCount;
+    }
+
+    private Node newPath(int level, Node node) {
+        if (level == 0) {
+            return node;
+        }
+
+        Node ret = new Node(edit, new Object[WIDTH]);
+        ret.array[0] = newPath(level - BITS, node);
+
+        return ret;
+    }
+
+    private Node nodeFor(int index) {
+        if (index >= tailOffset()) {
+            return tail;
+        }
+
+        Node node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Node) node.array[(index >>> level) & MASK];
+        }
+
+        return node;
+    }
+
+    private Node popTail(int level, Node node) {
+        int subidx = ((count - 2) >>> level) & MASK;
+
+        if (level > BITS) {
+            Node newChild = popTail(level - BITS, (Node) node.array[subidx]);
+            if (newChild == null && subidx == 0) {
+                return null;
+            }
+
+            Node ret = editable(node);
+            ret.array[subidx] = newChild;
+
+            return ret;
+        } else if (subidx == 0) {
+            return null;
+        }
+
+        Node ret = editable(node);
+        ret.array[subidx] = null;
+
+        return ret;
+    }
+
+    /**
+     * Pushes the full tail into the tree and replaces it with an empty one.
+     */
+    private void pushTail() {
+        Node tailNode = tail;
+        tail = primitive ? new Node(edit, new long[MIN_TAIL_CAPACITY]) : new Node(edit,
+                new Object[MIN_TAIL_CAPACITY]);
+
+        if ((count >>> BITS) > (1 << shift)) {
+            // The root has overflowed, so grow the tree by a level
+            Node newRoot = new Node(edit, new Object[WIDTH]);
+            newRoot.array[0] = root;
+            newRoot.array[1] = newPath(shift, tailNode);
+
+            root = newRoot;
+            shift += BITS;
+        } else {
+            root = pushTail(shift, root, tailNode);
+        }
+    }
+
+    private Node pushTail(int level, Node parent, Node tailNode) {
+        Node ret = editable(parent);
+        int subidx = ((count - 1) >>> level) & MASK;
+
+        Node insert;
+        if (level == BITS) {
+            insert = tailNode;
+        } else {
+            Node child = (Node) parent.array[subidx];
+            insert = child != null ? pushTail(level - BITS, child, tailNode) : newPath(level - BITS,
+                    tailNode);
+        }
+
+        ret.array[subidx] = insert;
+
+        return ret;
+    }
+
+    private int tailOffset() {
+        if (count < WIDTH) {
+            return 0;
+        }
+
+        return ((count - 1) >>> BITS) << BITS;
+    }
+
+    /**
+     * A cursor over a snapshot of a vector. Each leaf is only looked up once.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    static final class Cursor {
+
+        private final PersistentVector snapshot;
+
+        private PersistentVector vector;
+        private final Object edit;
+
+        private Node leaf;
+        private int index;
+        private final int to;
+
+        Cursor(PersistentVector vector) {
+            this(vector, 0, vector.count);
+        }
+
+        /**
+         * Creates a cursor over the range {@code [from, to)} of a snapshot of the vector.
+         */
+        Cursor(PersistentVector vector, int from, int to) {
+            checkPositionIndexes(from, to, vector.count);
+
+            this.snapshot = new PersistentVector(vector.primitive, vector.count, vector.shift,
+                    vector.root, vector.tail);
+
+            this.vector = vector;
+            this.edit = vector.edit;
+
+            this.index = from;
+            this.to = to;
+
+            vector.cursors++;
+        }
+
+        boolean hasNext() {
+            if (index < to) {
+                return true;
+            }
+
+            release();
+
+            return false;
+        }
+
+        Object next() {
+            return nextLeaf().array[index++ & MASK];
+        }
+
+        long nextLong() {
+            return nextLeaf().longs[index++ & MASK];
+        }
+
+        private Node nextLeaf() {
+            if ((index & MASK) == 0 || leaf == null) {
+                leaf = snapshot.nodeFor(index);
+            }
+
+            return leaf;
+        }
+
+        /**
+         * Marks this cursor as finished. If the vector hasn't changed ownership since this cursor
+         * was opened then it no longer needs to protect its nodes from this cursor.
+         */
+        private void release() {
+            if (vector != null && vector.edit == edit) {
+                vector.cursors--;
+            }
+
+            vector = null;
+        }
+    }
+
+    /**
+     * A node in the trie. Internal nodes hold other nodes, leaf nodes hold the elements. The leaves
+     * of a primitive vector hold their elements in {@link #longs} rather than {@link #array}.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private static final class Node {
+
+        final Object edit;
+
+        final Object[] array;
+        final long[] longs;
+
+        Node(Object edit, Object[] array) {
+            this.edit = edit;
+            this.array = array;
+            this.longs = null;
+        }
+
+        Node(Object edit, long[] longs) {
+            this.edit = edit;
+            this.array = null;
+            this.longs = longs;
+        }
+
+        int capacity() {
+            return longs != null ? longs.length : array.length;
+        }
+
+        Node copyOf(Object edit, int capacity) {
+            if (longs != null) {
+                return new Node(edit, Arrays.copyOf(longs, capacity));
+            }
+
+            return new Node(edit, Arrays.copyOf(array, capacity));
+        }
+    }
+}
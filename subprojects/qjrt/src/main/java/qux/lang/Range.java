@@ -0,0 +1,57 @@
+package qux.lang;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+/**
+ * An immutable range of consecutive integers, from an inclusive lower bound to an exclusive upper
+ * bound. A range takes constant space regardless of its size, the elements are computed from their
+ * index when read.
+ * <p>
+ * Ranges back the lists created by the {@code ..} operator until they are first written to, see
+ * {@link qux.lang.List}.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+final class Range {
+
+    private final long from;
+    private final int size;
+
+    Range(long from, long to) {
+        checkArgument(from <= to, "from must be less than or equal to to (from=%s, to=%s)", from,
+                to);
+        checkArgument(to - from >= 0 && to - from <= Integer.MAX_VALUE,
+                "lists of size larger than 32 bits is unsupported");
+
+        this.from = from;
+        this.size = (int) (to - from);
+    }
+
+    long getLong(int index) {
+        checkElementIndex(index, size);
+
+        return from + index;
+    }
+
+    /**
+     * Finds the index of the given value in this range.
+     *
+     * @param value the value to find.
+     * @return the index of the value, or {@code -1} if it is not in this range.
+     */
+    int indexOf(long value) {
+        // The upper bound fits in a long as the range was constructed from it, while the distance
+        // from the lower bound may not
+        if (value < from || value >= from + size) {
+            return -1;
+        }
+
+        return (int) (value - from);
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -1,78 +1,96 @@
 package qux.lang;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static qux.lang.Bool.FALSE;
-import static qux.lang.Bool.TRUE;
 import static qux.lang.Meta.META_RAT;
-
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import static qux.lang.Metrics.Event.DUP;
+import static qux.lang.Metrics.Event.RAT_CACHE_HIT;
+import static qux.lang.Metrics.Event.RAT_CACHE_MISS;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
 /**
  * TODO: Documentation
+ * <p>
+ * A {@code Rat} is always stored normalised, i.e., the numerator and denominator are coprime and
+ * the denominator is positive. Like {@link qux.lang.Int}, it has two representations: rationals
+ * whose numerator and denominator both fit in a {@code long} are stored in {@link #num} and {@link
+ * #den}, all others are stored in {@link #bigNum} and {@link #bigDen}. The representation is
+ * canonical, so equality never has to cross representations.
  *
  * @author Henry J. Wylde
  */
 public final class Rat extends AbstractObj {
 
-    private static final LoadingCache<Tuple, Rat> cache =
-            CacheBuilder.<Tuple, Rat>newBuilder().weakKeys().build(new CacheLoader<Tuple, Rat>() {
-                        @Override
-                        public Rat load(Tuple key) throws Exception {
-                            return new Rat((Int) key.get(0), (Int) key.get(1));
-                        }
-                    });
+    /**
+     * The range of preallocated integral values, inclusive.
+     */
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 127;
 
-    private final Int num;
-    private final Int den;
+    private static final Rat[] cache = new Rat[CACHE_HIGH - CACHE_LOW + 1];
 
-    private Rat(Int num, Int den) {
-        if (num.equals(Int.ZERO)) {
-            den = Int.ONE;
-        }
-        checkArgument(!den.equals(Int.ZERO), "den cannot be 0");
+    private final long num;
+    private final long den;
 
-        // Normalise the values
-        Int gcd = num.gcd(den);
-        num = num._idiv_(gcd);
-        den = den._idiv_(gcd);
+    private final BigInteger bigNum;
+    private final BigInteger bigDen;
 
-        // Normalise the signs
-        if (den._lt_(Int.ZERO) == TRUE) {
-            num = num._neg_();
-            den = den._neg_();
+    /**
+     * The cached hash code of a big value, or {@code 0} if it has not been computed yet. Small
+     * values are cheap enough to hash each time.
+     */
+    private int hash;
+
+    static {
+        for (int i = 0; i < cache.length; i++) {
+            cache[i] = new Rat(CACHE_LOW + i, 1);
         }
+    }
 
+    /**
+     * Creates a new {@code Rat} in the small representation. The arguments must already be
+     * normalised.
+     *
+     * @param num the numerator.
+     * @param den the denominator.
+     */
+    private Rat(long num, long den) {
         this.num = num;
         this.den = den;
-    }
 
-    public Rat _add_(Rat t) {
-        Int a = num._mul_(t.den)._add_(den._mul_(t.num));
-        Int b = den._mul_(t.den);
-
-        return valueOf(a, b);
+        this.bigNum = null;
+        this.bigDen = null;
     }
 
     /**
-     * {@inheritDoc}
+     * Creates a new {@code Rat} in the big representation. The arguments must already be
+     * normalised and at least one of them must not fit in a {@code long}.
+     *
+     * @param num the numerator.
+     * @param den the denominator.
      */
-    @Override
-    public Int _comp_(AbstractObj obj) {
-        if (!(obj instanceof Rat)) {
-            return meta()._comp_(obj.meta());
-        }
+    private Rat(BigInteger num, BigInteger den) {
+        this.num = 0;
+        this.den = 0;
 
-        Rat that = (Rat) obj;
+        this.bigNum = num;
+        this.bigDen = den;
+    }
 
-        Int a = num._mul_(that.den);
-        Int b = den._mul_(that.num);
+    public Rat _add_(Rat t) {
+        if (isSmall() && t.isSmall()) {
+            try {
+                return add(num, den, t.num, t.den);
+            } catch (ArithmeticException e) {
+                // Fall through to the big representation
+            }
+        }
+
+        BigInteger a = bigNum().multiply(t.bigDen()).add(bigDen().multiply(t.bigNum()));
+        BigInteger b = bigDen().multiply(t.bigDen());
 
-        return a._comp_(b);
+        return normalise(a, b);
     }
 
     /**
@@ -80,18 +98,35 @@ public final class Rat extends AbstractObj {
      */
     @Override
     public Str _desc_() {
-        return Str.valueOf(num + "/" + den);
+        if (isSmall()) {
+            return Str.valueOf(num + "/" + den);
+        }
+
+        return Str.valueOf(bigNum + "/" + bigDen);
     }
 
     public Rat _div_(Rat t) {
-        if (t.den.equals(Int.ZERO)) {
+        if (t.isZero()) {
             throw new InternalError("attempted division by zero");
         }
 
-        Int a = num._mul_(t.den);
-        Int b = den._mul_(t.num);
+        if (isSmall() && t.isSmall()) {
+            try {
+                // Multiply by the reciprocal, keeping the denominator positive
+                if (t.num < 0) {
+                    return mul(num, den, Math.negateExact(t.den), Math.negateExact(t.num));
+                }
+
+                return mul(num, den, t.den, t.num);
+            } catch (ArithmeticException e) {
+                // Fall through to the big representation
+            }
+        }
+
+        BigInteger a = bigNum().multiply(t.bigDen());
+        BigInteger b = bigDen().multiply(t.bigNum());
 
-        return valueOf(a, b);
+        return normalise(a, b);
     }
 
     /**
@@ -99,51 +134,101 @@ public final class Rat extends AbstractObj {
      */
     @Override
     public Rat _dup_() {
+        Metrics.count(DUP);
+
         return this;
     }
 
+    public Rat _mul_(Rat t) {
+        if (isSmall() && t.isSmall()) {
+            try {
+                return mul(num, den, t.num, t.den);
+            } catch (ArithmeticException e) {
+                // Fall through to the big representation
+            }
+        }
+
+        BigInteger a = bigNum().multiply(t.bigNum());
+        BigInteger b = bigDen().multiply(t.bigDen());
+
+        return normalise(a, b);
+    }
+
+    public Rat _neg_() {
+        if (isSmall() && num != Long.MIN_VALUE) {
+            return create(-num, den);
+        }
+
+        return normalise(bigNum().negate(), bigDen());
+    }
+
+    public Rat _sub_(Rat t) {
+        if (isSmall() && t.isSmall() && t.num != Long.MIN_VALUE) {
+            try {
+                return add(num, den, -t.num, t.den);
+            } catch (ArithmeticException e) {
+                // Fall through to the big representation
+            }
+        }
+
+        BigInteger a = bigNum().multiply(t.bigDen()).subtract(bigDen().multiply(t.bigNum()));
+        BigInteger b = bigDen().multiply(t.bigDen());
+
+        return normalise(a, b);
+    }
+
+    public Int den() {
+        return isSmall() ? Int.valueOf(den) : Int.valueOf(bigDen);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public Bool _eq_(AbstractObj obj) {
-        if (super._eq_(obj) == FALSE) {
-            return FALSE;
+    public int compareTo(AbstractObj obj) {
+        if (!(obj instanceof Rat)) {
+            return meta().compareTo(obj.meta());
         }
 
-        Rat that = (Rat) obj;
-
-        return num.equals(that.num) && den.equals(that.den) ? TRUE : FALSE;
+        return compareTo((Rat) obj);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Int _hash_() {
-        return num._hash_()._mul_(den._hash_());
-    }
+    public boolean equalTo(AbstractObj obj) {
+        if (!super.equalTo(obj)) {
+            return false;
+        }
 
-    public Rat _mul_(Rat t) {
-        Int a = num._mul_(t.num);
-        Int b = den._mul_(t.den);
+        Rat that = (Rat) obj;
 
-        return valueOf(a, b);
-    }
+        if (isSmall() != that.isSmall()) {
+            return false;
+        }
 
-    public Rat _neg_() {
-        return valueOf(num._neg_(), den);
+        if (isSmall()) {
+            return num == that.num && den == that.den;
+        }
+
+        return bigNum.equals(that.bigNum) && bigDen.equals(that.bigDen);
     }
 
-    public Rat _sub_(Rat t) {
-        Int a = num._mul_(t.den)._sub_(den._mul_(t.num));
-        Int b = den._mul_(t.den);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hash() {
+        if (isSmall()) {
+            return Long.hashCode(num) * Long.hashCode(den);
+        }
 
-        return valueOf(a, b);
-    }
+        if (hash == 0) {
+            hash = bigNum.hashCode() * bigDen.hashCode();
+        }
 
-    public Int den() {
-        return den;
+        return hash;
     }
 
     /**
@@ -155,39 +240,43 @@ public final class Rat extends AbstractObj {
     }
 
     public Int num() {
-        return num;
+        return isSmall() ? Int.valueOf(num) : Int.valueOf(bigNum);
     }
 
     public static Rat valueOf(Int num, Int den) {
-        return cache.getUnchecked(Tuple.valueOf(num, den));
+        if (num.isSmall() && den.isSmall()) {
+            return normalise(num.longValue(), den.longValue());
+        }
+
+        return normalise(num._value_(), den._value_());
     }
 
     public static Rat valueOf(BigInteger num, BigInteger den) {
-        return valueOf(Int.valueOf(num), Int.valueOf(den));
+        return normalise(num, den);
     }
 
     public static Rat valueOf(short value) {
-        return valueOf(Int.valueOf(value), Int.ONE);
+        return create(value, 1);
     }
 
     public static Rat valueOf(byte value) {
-        return valueOf(Int.valueOf(value), Int.ONE);
+        return create(value, 1);
     }
 
     public static Rat valueOf(int value) {
-        return valueOf(Int.valueOf(value), Int.ONE);
+        return create(value, 1);
     }
 
     public static Rat valueOf(long value) {
-        return valueOf(Int.valueOf(value), Int.ONE);
+        return create(value, 1);
     }
 
     public static Rat valueOf(byte[] bytes) {
-        return valueOf(Int.valueOf(bytes), Int.ONE);
+        return valueOf(new BigInteger(bytes));
     }
 
     public static Rat valueOf(BigInteger value) {
-        return valueOf(Int.valueOf(value), Int.ONE);
+        return normalise(value, BigInteger.ONE);
     }
 
     public static Rat valueOf(String value) {
@@ -195,6 +284,210 @@ public final class Rat extends AbstractObj {
     }
 
     public static Rat valueOf(BigDecimal value) {
+        if (value.scale() <= 0) {
+            return valueOf(value.toBigIntegerExact());
+        }
+
         return valueOf(value.unscaledValue(), BigInteger.TEN.pow(value.scale()));
     }
+
+    int compareTo(Rat t) {
+        if (isSmall() && t.isSmall()) {
+            if (den == t.den) {
+                return Long.compare(num, t.num);
+            }
+
+            int signum = Long.signum(num);
+            if (signum != Long.signum(t.num)) {
+                return Integer.compare(signum, Long.signum(t.num));
+            }
+
+            try {
+                return Long.compare(Math.multiplyExact(num, t.den), Math.multiplyExact(t.num,
+                        den));
+            } catch (ArithmeticException e) {
+                // Fall through to the big representation
+            }
+        }
+
+        return bigNum().multiply(t.bigDen()).compareTo(t.bigNum().multiply(bigDen()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean isImmutable() {
+        return true;
+    }
+
+    boolean isSmall() {
+        return bigNum == null;
+    }
+
+    boolean isZero() {
+        return isSmall() && num == 0;
+    }
+
+    /**
+     * Adds {@code a/b} and {@code c/d}, where both arguments are normalised. The result is computed
+     * using as few gcd calculations as possible: if the denominators are coprime the result is
+     * already normalised. Throws an {@link java.lang.ArithmeticException} if any intermediate value
+     * overflows.
+     */
+    private static Rat add(long a, long b, long c, long d) {
+        if (b == 1 && d == 1) {
+            return create(Math.addExact(a, c), 1);
+        }
+
+        long g = gcd(b, d);
+
+        if (g == 1) {
+            long n = Math.addExact(Math.multiplyExact(a, d), Math.multiplyExact(b, c));
+
+            return create(n, Math.multiplyExact(b, d));
+        }
+
+        long s = b / g;
+        long t = Math.addExact(Math.multiplyExact(a, d / g), Math.multiplyExact(c, s));
+
+        if (t == 0) {
+            return create(0, 1);
+        }
+
+        long g2 = gcd(t, g);
+
+        return create(t / g2, Math.multiplyExact(s, d / g2));
+    }
+
+    private BigInteger bigDen() {
+        return isSmall() ? BigInteger.valueOf(den) : bigDen;
+    }
+
+    private BigInteger bigNum() {
+        return isSmall() ? BigInteger.valueOf(num) : bigNum;
+    }
+
+    /**
+     * Gets a {@code Rat} for the given normalised arguments, returning a preallocated instance
+     * where possible.
+     */
+    private static Rat create(long num, long den) {
+        if (num == 0) {
+            Metrics.count(RAT_CACHE_HIT);
+
+            return cache[-CACHE_LOW];
+        }
+
+        if (den == 1 && num >= CACHE_LOW && num <= CACHE_HIGH) {
+            Metrics.count(RAT_CACHE_HIT);
+
+            return cache[(int) num - CACHE_LOW];
+        }
+
+        Metrics.count(RAT_CACHE_MISS);
+
+        return new Rat(num, den);
+    }
+
+    /**
+     * Computes the greatest common divisor of the magnitudes of the arguments using the binary
+     * (Stein's) algorithm. The magnitudes are treated as unsigned so that {@link Long#MIN_VALUE}
+     * correctly represents 2<sup>63</sup>.
+     */
+    private static long gcd(long a, long b) {
+        a = Math.abs(a);
+        b = Math.abs(b);
+
+        if (a == 0) {
+            return b;
+        }
+        if (b == 0) {
+            return a;
+        }
+
+        int shift = Long.numberOfTrailingZeros(a | b);
+        a >>>= Long.numberOfTrailingZeros(a);
+
+        do {
+            b >>>= Long.numberOfTrailingZeros(b);
+
+            if (Long.compareUnsigned(a, b) > 0) {
+                long tmp = a;
+                a = b;
+                b = tmp;
+            }
+
+            b -= a;
+        } while (b != 0);
+
+        return a << shift;
+    }
+
+    /**
+     * Multiplies {@code a/b} and {@code c/d}, where both arguments are normalised (with the
+     * exception that {@code c} and {@code d} may share a factor when dividing). Cross cancelling
+     * before multiplying keeps the result normalised. Throws an {@link
+     * java.lang.ArithmeticException} if any intermediate value overflows.
+     */
+    private static Rat mul(long a, long b, long c, long d) {
+        if (a == 0 || c == 0) {
+            return create(0, 1);
+        }
+
+        long g1 = gcd(a, d);
+        long g2 = gcd(c, b);
+
+        return create(Math.multiplyExact(a / g1, c / g2), Math.multiplyExact(b / g2, d / g1));
+    }
+
+    private static Rat normalise(long num, long den) {
+        checkArgument(den != 0, "den cannot be 0");
+
+        if (num == 0) {
+            return create(0, 1);
+        }
+
+        // The magnitude of Long.MIN_VALUE doesn't fit in a long, so leave it to the big
+        // representation
+        if (num == Long.MIN_VALUE || den == Long.MIN_VALUE) {
+            return normalise(BigInteger.valueOf(num), BigInteger.valueOf(den));
+        }
+
+        long gcd = gcd(num, den);
+        num /= gcd;
+        den /= gcd;
+
+        // Normalise the signs
+        if (den < 0) {
+            num = -num;
+            den = -den;
+        }
+
+        return create(num, den);
+    }
+
+    private static Rat normalise(BigInteger num, BigInteger den) {
+        checkArgument(den.signum() != 0, "den cannot be 0");
+
+        if (num.signum() == 0) {
+            return create(0, 1);
+        }
+
+        BigInteger gcd = num.gcd(den);
+        num = num.divide(gcd);
+        den = den.divide(gcd);
+
+        // Normalise the signs
+        if (den.signum() < 0) {
+            num = num.negate();
+            den = den.negate();
+        }
+
+        if (num.bitLength() < 64 && den.bitLength() < 64) {
+            return create(num.longValue(), den.longValue());
+        }
+
+        return new Rat(num, den);
+    }
 }
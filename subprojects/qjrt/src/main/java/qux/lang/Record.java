@@ -2,160 +2,482 @@ package qux.lang;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static qux.lang.Bool.FALSE;
-import static qux.lang.Bool.TRUE;
-
+import static java.util.Arrays.asList;
+import static qux.lang.Metrics.Event.ARRAY_COPY;
+import static qux.lang.Metrics.Event.DUP;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.TreeMap;
 
 /**
  * TODO: Documentation
  * <p>
- * TODO: Implement reference counting
+ * The field names of a record are held in a shared, interned {@link Shape}, while the values are
+ * held in a flat array in the same order as the sorted field names. Duplicating a record is {@code
+ * O(1)}: both records share the array until either accesses a field, at which point it takes its
+ * own copy of the array and duplicates the values in it.
+ * <p>
+ * Fields may be accessed by slot, the index of the field name in the sorted field names. The slot
+ * is only a hint as the compiler only knows the static type of a record, which may have fewer
+ * fields than the record itself. If the slot doesn't match the field, it is looked up by name.
  *
  * @author Henry J. Wylde
  * @since 0.2.4
  */
 public final class Record extends AbstractObj {
 
-    private final Map<String, AbstractObj> fields;
+    private final Shape shape;
+    private AbstractObj[] values;
+
+    /**
+     * Whether this record has its own copy of {@link #values}.
+     */
+    private boolean owner;
+
+    /**
+     * The running hash of the fields, where each field hashes as its name combined with its value,
+     * see {@link qux.lang.AbstractObj}. Only valid once {@link #hashed} is set by the first call to
+     * {@link #hash()}.
+     */
+    private int hash;
+    private int mutable;
+    private boolean hashed;
 
     private Record(Record record) {
-        fields = new TreeMap<>();
-        for (Map.Entry<String, AbstractObj> field : record.fields.entrySet()) {
-            fields.put(field.getKey(), field.getValue()._dup_());
-        }
+        // Share the values, the first access to either record will copy them
+        shape = record.shape;
+        values = record.values;
+
+        hash = record.hash;
+        mutable = record.mutable;
+        hashed = record.hashed;
+
+        record.owner = false;
     }
 
-    private Record(Map<String, AbstractObj> fields) {
-        checkArgument(!fields.containsKey(null), "fields cannot contain null key");
-        checkArgument(!fields.containsValue(null), "fields cannot contain null value");
+    private Record(Shape shape, AbstractObj[] values) {
+        this.shape = shape;
+        this.values = values;
 
-        this.fields = new TreeMap<>(fields);
+        owner = true;
     }
 
     public void _assign_(String field, AbstractObj value) {
         put(field, value);
     }
 
+    public void _assign_(int slot, String field, AbstractObj value) {
+        put(slot, field, value);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public Int _comp_(AbstractObj obj) {
-        if (!(obj instanceof Record)) {
-            return meta()._comp_(obj.meta());
+    public Str _desc_() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("{");
+        for (int i = 0; i < values.length; i++) {
+            sb.append(shape.fields[i]);
+            sb.append(": ");
+            sb.append(values[i]);
+
+            if (i < values.length - 1) {
+                sb.append(", ");
+            }
         }
+        sb.append("}");
 
-        Record that = (Record) obj;
+        return Str.valueOf(sb.toString());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Record _dup_() {
+        Metrics.count(DUP);
+
+        return new Record(this);
+    }
+
+    /**
+     * Gets a read only {@link java.util.Map} view of this record, from the field names to the
+     * values. The view reflects any later writes to this record, the values are not copied. As the
+     * values may be shared with duplicates of this record, they must not be written to.
+     *
+     * @return the view.
+     */
+    public Map<String, AbstractObj> asJavaMap() {
+        return new JavaMap();
+    }
+
+    public AbstractObj get(String field) {
+        return get(slotOf(field));
+    }
 
-        Int comp = Int.valueOf(fields.size() - that.fields.size());
-        if (!comp.equals(Int.ZERO)) {
-            return comp;
+    public AbstractObj get(int slot, String field) {
+        if (!shape.isSlot(slot, field)) {
+            slot = slotOf(field);
         }
 
-        Iterator<Map.Entry<String, AbstractObj>> thisIt = fields.entrySet().iterator();
-        Iterator<Map.Entry<String, AbstractObj>> thatIt = that.fields.entrySet().iterator();
+        return get(slot);
+    }
 
-        while (thisIt.hasNext()) {
-            Map.Entry<String, AbstractObj> thisField = thisIt.next();
-            Map.Entry<String, AbstractObj> thatField = thatIt.next();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(AbstractObj obj) {
+        if (!(obj instanceof Record)) {
+            return meta().compareTo(obj.meta());
+        }
 
-            comp = Int.valueOf(thisField.getKey().compareTo(thatField.getKey()));
-            if (!comp.equals(Int.ZERO)) {
+        Record that = (Record) obj;
+
+        if (values.length != that.values.length) {
+            return values.length < that.values.length ? -1 : 1;
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            int comp = shape.fields[i].compareTo(that.shape.fields[i]);
+            if (comp != 0) {
                 return comp;
             }
 
-            comp = thisField.getValue()._comp_(thatField.getValue());
-            if (!comp.equals(Int.ZERO)) {
+            comp = values[i].compareTo(that.values[i]);
+            if (comp != 0) {
                 return comp;
             }
         }
 
-        return Int.ZERO;
+        return 0;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Str _desc_() {
-        StringBuilder sb = new StringBuilder();
+    public boolean equalTo(AbstractObj obj) {
+        if (!super.equalTo(obj)) {
+            return false;
+        }
 
-        sb.append("{");
-        for (Iterator<String> it = fields.keySet().iterator(); it.hasNext(); ) {
-            String key = it.next();
+        Record that = (Record) obj;
 
-            sb.append(key);
-            sb.append(": ");
-            sb.append(fields.get(key));
+        if (shape != that.shape) {
+            return false;
+        }
 
-            if (it.hasNext()) {
-                sb.append(", ");
+        for (int i = 0; i < values.length; i++) {
+            if (!values[i].equalTo(that.values[i])) {
+                return false;
             }
         }
-        sb.append("}");
 
-        return Str.valueOf(sb.toString());
+        return true;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Record _dup_() {
-        return new Record(this);
+    public int hash() {
+        if (!hashed) {
+            rehash();
+        }
+
+        if (mutable == 0) {
+            return hash;
+        }
+
+        int hash = this.hash;
+        for (int i = 0; i < values.length; i++) {
+            if (!values[i].isImmutable()) {
+                hash += hash(i);
+            }
+        }
+
+        return hash;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Bool _eq_(AbstractObj obj) {
-        if (super._eq_(obj) == FALSE) {
-            return FALSE;
+    public Meta meta() {
+        Map<String, Meta> fields = new HashMap<>();
+
+        for (int i = 0; i < values.length; i++) {
+            fields.put(shape.fields[i], values[i].meta());
         }
 
-        return fields.equals(((Record) obj).fields) ? TRUE : FALSE;
+        return Meta.forRecord(fields);
+    }
+
+    public static Record valueOf(Map<String, AbstractObj> fields) {
+        checkArgument(!fields.containsKey(null), "fields cannot contain null key");
+        checkArgument(!fields.containsValue(null), "fields cannot contain null value");
+
+        Map<String, AbstractObj> sorted = new TreeMap<>(fields);
+
+        return valueOf(sorted.keySet().toArray(new String[0]), sorted.values().toArray(
+                new AbstractObj[0]));
     }
 
     /**
-     * {@inheritDoc}
+     * Creates a new record with the given fields and values. The values array is taken as is and
+     * must not be modified afterwards.
+     *
+     * @param fields the field names, in sorted order.
+     * @param values the values, in the order of their field names.
+     * @return the new record.
      */
-    @Override
-    public Int _hash_() {
-        return Int.valueOf(fields.hashCode());
+    public static Record valueOf(String[] fields, AbstractObj[] values) {
+        checkArgument(fields.length == values.length,
+                "fields and values must be the same length (fields=%s, values=%s)", fields.length,
+                values.length);
+        checkArgument(!asList(values).contains(null), "values cannot contain null");
+
+        return new Record(Shape.forFields(fields), values);
     }
 
-    public synchronized AbstractObj get(String field) {
-        checkArgument(fields.containsKey(field), "record does not contain field '%s'", field);
+    void put(String field, AbstractObj value) {
+        put(slotOf(field), value);
+    }
 
-        return fields.get(field);
+    void put(int slot, String field, AbstractObj value) {
+        if (!shape.isSlot(slot, field)) {
+            slot = slotOf(field);
+        }
+
+        put(slot, value);
     }
 
     /**
-     * {@inheritDoc}
+     * Takes a copy of the values if they may be shared with another record. The values are
+     * duplicated as well, as a value obtained from this record may be modified in place.
      */
-    @Override
-    public Meta meta() {
-        Map<String, Meta> fields = new HashMap<>();
+    private void checkOwner() {
+        if (owner) {
+            return;
+        }
 
-        for (Map.Entry<String, AbstractObj> field : this.fields.entrySet()) {
-            fields.put(field.getKey(), field.getValue().meta());
+        Metrics.count(ARRAY_COPY);
+
+        AbstractObj[] copy = new AbstractObj[values.length];
+        for (int i = 0; i < values.length; i++) {
+            copy[i] = values[i]._dup_();
         }
 
-        return Meta.forRecord(fields);
+        values = copy;
+        owner = true;
     }
 
-    public static Record valueOf(Map<String, AbstractObj> fields) {
-        return new Record(fields);
+    /**
+     * Subtracts the hash code of the value in the given slot, which is being overwritten.
+     */
+    private void exclude(int slot) {
+        if (values[slot].isImmutable()) {
+            hash -= hash(slot);
+        } else {
+            mutable--;
+        }
+    }
+
+    private AbstractObj get(int slot) {
+        checkOwner();
+
+        return values[slot];
+    }
+
+    /**
+     * Computes the hash code of the field in the given slot. Consistent with the hash code of an
+     * entry in a map from the field names to the values.
+     */
+    private int hash(int slot) {
+        return shape.fields[slot].hashCode() ^ values[slot].hash();
+    }
+
+    /**
+     * Adds the hash code of the value in the given slot, which has just been written.
+     */
+    private void include(int slot) {
+        if (values[slot].isImmutable()) {
+            hash += hash(slot);
+        } else {
+            mutable++;
+        }
+    }
+
+    private void put(int slot, AbstractObj value) {
+        checkNotNull(value, "value cannot be null");
+
+        checkOwner();
+
+        if (hashed) {
+            exclude(slot);
+        }
+
+        values[slot] = value;
+
+        if (hashed) {
+            include(slot);
+        }
+    }
+
+    private void rehash() {
+        hash = 0;
+        mutable = 0;
+
+        for (int i = 0; i < values.length; i++) {
+            include(i);
+        }
+
+        hashed = true;
+    }
+
+    private int slotOf(String field) {
+        int slot = Arrays.binarySearch(shape.fields, field);
+        checkArgument(slot >= 0, "record does not contain field '%s'", field);
+
+        return slot;
+    }
+
+    /**
+     * A read only view of a record.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private final class JavaMap extends AbstractMap<String, AbstractObj> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && Arrays.binarySearch(shape.fields, key) >= 0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public java.util.Set<Entry<String, AbstractObj>> entrySet() {
+            return new AbstractSet<Entry<String, AbstractObj>>() {
+
+                @Override
+                public Iterator<Entry<String, AbstractObj>> iterator() {
+                    return new Iterator<Entry<String, AbstractObj>>() {
+
+                        private int slot = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return slot < values.length;
+                        }
+
+                        @Override
+                        public Entry<String, AbstractObj> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+
+                            Entry<String, AbstractObj> entry = new SimpleImmutableEntry<>(
+                                    shape.fields[slot], values[slot]);
+                            slot++;
+
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return values.length;
+                }
+            };
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public AbstractObj get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+
+            int slot = Arrays.binarySearch(shape.fields, key);
+
+            return slot >= 0 ? values[slot] : null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return values.length;
+        }
     }
 
-    synchronized void put(String field, AbstractObj value) {
-        checkArgument(fields.containsKey(field), "record does not contain field '%s'", field);
+    /**
+     * The sorted field names of a record. Shapes are interned, so records with the same fields
+     * share the one shape.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private static final class Shape {
+
+        private static final LoadingCache<ImmutableList<String>, Shape> shapes =
+                CacheBuilder.<ImmutableList<String>, Shape>newBuilder().build(
+                        new CacheLoader<ImmutableList<String>, Shape>() {
+                            @Override
+                            public Shape load(ImmutableList<String> key) {
+                                return new Shape(key);
+                            }
+                        });
+
+        /**
+         * The field names, interned so that they may be compared by identity against the
+         * constants in compiled code.
+         */
+        final String[] fields;
+
+        private Shape(ImmutableList<String> fields) {
+            this.fields = new String[fields.size()];
+
+            for (int i = 0; i < fields.size(); i++) {
+                this.fields[i] = fields.get(i).intern();
+            }
+        }
 
-        fields.put(field, checkNotNull(value, "value cannot be null"));
+        static Shape forFields(String[] fields) {
+            for (int i = 1; i < fields.length; i++) {
+                checkArgument(fields[i - 1].compareTo(fields[i]) < 0,
+                        "fields must be sorted and distinct");
+            }
+
+            return shapes.getUnchecked(ImmutableList.copyOf(fields));
+        }
+
+        boolean isSlot(int slot, String field) {
+            return slot >= 0 && slot < fields.length && fields[slot] == field;
+        }
     }
 }
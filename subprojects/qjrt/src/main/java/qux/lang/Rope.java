@@ -0,0 +1,254 @@
+package qux.lang;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An immutable string represented as a balanced binary tree of string chunks. Concatenation,
+ * indexing and substrings are all {@code O(log n)}, while flattening back to a {@link
+ * java.lang.String} is {@code O(n)}.
+ * <p>
+ * The tree is kept height balanced in the same manner as an AVL tree: the depths of the two
+ * children of any node differ by at most one. Leaves hold at most {@link #MAX_LEAF_LENGTH}
+ * characters so that writing to a single index never has to copy more than one small chunk.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+final class Rope {
+
+    /**
+     * The maximum length of the string held by a leaf. Ropes shorter than this are always flattened
+     * into a single leaf when concatenated.
+     */
+    private static final int MAX_LEAF_LENGTH = 256;
+
+    static final Rope EMPTY = new Rope("");
+
+    private final String leaf;
+
+    private final Rope left;
+    private final Rope right;
+
+    private final int length;
+    private final int depth;
+
+    private Rope(String leaf) {
+        this.leaf = leaf;
+
+        this.left = null;
+        this.right = null;
+
+        this.length = leaf.length();
+        this.depth = 0;
+    }
+
+    private Rope(Rope left, Rope right) {
+        this.leaf = null;
+
+        this.left = left;
+        this.right = right;
+
+        this.length = left.length + right.length;
+        this.depth = Math.max(left.depth, right.depth) + 1;
+    }
+
+    char charAt(int index) {
+        Rope rope = this;
+
+        while (rope.leaf == null) {
+            if (index < rope.left.length) {
+                rope = rope.left;
+            } else {
+                index -= rope.left.length;
+                rope = rope.right;
+            }
+        }
+
+        return rope.leaf.charAt(index);
+    }
+
+    static Rope concat(Rope a, Rope b) {
+        if (a.length == 0) {
+            return b;
+        } else if (b.length == 0) {
+            return a;
+        }
+
+        if (a.length + b.length <= MAX_LEAF_LENGTH) {
+            return new Rope(a.toString().concat(b.toString()));
+        }
+
+        // Appending or prepending a short string is common when building strings in a loop, so
+        // try to absorb it into the adjacent leaf rather than creating a new one
+        if (b.leaf != null) {
+            Rope absorbed = absorbRight(a, b.leaf);
+            if (absorbed != null) {
+                return absorbed;
+            }
+        }
+        if (a.leaf != null) {
+            Rope absorbed = absorbLeft(a.leaf, b);
+            if (absorbed != null) {
+                return absorbed;
+            }
+        }
+
+        return join(a, b);
+    }
+
+    int length() {
+        return length;
+    }
+
+    /**
+     * Prints each leaf of this rope in turn, without flattening it.
+     *
+     * @param console the console.
+     */
+    void printTo(Console console) {
+        if (leaf != null) {
+            console.write(leaf);
+        } else {
+            left.printTo(console);
+            right.printTo(console);
+        }
+    }
+
+    Rope substring(int from, int to) {
+        if (from == 0 && to == length) {
+            return this;
+        } else if (from == to) {
+            return EMPTY;
+        }
+
+        if (leaf != null) {
+            return new Rope(leaf.substring(from, to));
+        }
+
+        int split = left.length;
+
+        if (to <= split) {
+            return left.substring(from, to);
+        } else if (from >= split) {
+            return right.substring(from - split, to - split);
+        }
+
+        return concat(left.substring(from, split), right.substring(0, to - split));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        if (leaf != null) {
+            return leaf;
+        }
+
+        StringBuilder sb = new StringBuilder(length);
+        appendTo(sb);
+
+        return sb.toString();
+    }
+
+    static Rope valueOf(String value) {
+        checkNotNull(value, "value cannot be null");
+
+        if (value.length() <= MAX_LEAF_LENGTH) {
+            return new Rope(value);
+        }
+
+        // Split the string into evenly sized chunks, giving a perfectly balanced tree
+        int mid = value.length() / 2;
+
+        return new Rope(valueOf(value.substring(0, mid)), valueOf(value.substring(mid)));
+    }
+
+    /**
+     * Appends the string onto the rightmost leaf of the rope if it has room. The shape of the tree
+     * is unchanged, so it remains balanced.
+     *
+     * @return the new rope, or null if the rightmost leaf doesn't have room.
+     */
+    private static Rope absorbRight(Rope rope, String str) {
+        if (rope.leaf != null) {
+            if (rope.length + str.length() > MAX_LEAF_LENGTH) {
+                return null;
+            }
+
+            return new Rope(rope.leaf.concat(str));
+        }
+
+        Rope right = absorbRight(rope.right, str);
+
+        return right == null ? null : new Rope(rope.left, right);
+    }
+
+    /**
+     * Prepends the string onto the leftmost leaf of the rope if it has room. The shape of the tree
+     * is unchanged, so it remains balanced.
+     *
+     * @return the new rope, or null if the leftmost leaf doesn't have room.
+     */
+    private static Rope absorbLeft(String str, Rope rope) {
+        if (rope.leaf != null) {
+            if (str.length() + rope.length > MAX_LEAF_LENGTH) {
+                return null;
+            }
+
+            return new Rope(str.concat(rope.leaf));
+        }
+
+        Rope left = absorbLeft(str, rope.left);
+
+        return left == null ? null : new Rope(left, rope.right);
+    }
+
+    private void appendTo(StringBuilder sb) {
+        if (leaf != null) {
+            sb.append(leaf);
+        } else {
+            left.appendTo(sb);
+            right.appendTo(sb);
+        }
+    }
+
+    /**
+     * Creates a new node from the two children, performing a single or double rotation if the
+     * children's depths differ by more than one.
+     */
+    private static Rope balance(Rope left, Rope right) {
+        if (left.depth > right.depth + 1) {
+            if (left.left.depth >= left.right.depth) {
+                return new Rope(left.left, new Rope(left.right, right));
+            }
+
+            return new Rope(new Rope(left.left, left.right.left), new Rope(left.right.right,
+                    right));
+        } else if (right.depth > left.depth + 1) {
+            if (right.right.depth >= right.left.depth) {
+                return new Rope(new Rope(left, right.left), right.right);
+            }
+
+            return new Rope(new Rope(left, right.left.left), new Rope(right.left.right,
+                    right.right));
+        }
+
+        return new Rope(left, right);
+    }
+
+    /**
+     * Joins the two balanced ropes into a balanced rope. The shallower rope is joined onto the
+     * spine of the deeper rope at the point where their depths match, rebalancing on the way back
+     * up. Takes {@code O(|a.depth - b.depth|)} time.
+     */
+    private static Rope join(Rope a, Rope b) {
+        if (a.depth > b.depth + 1) {
+            return balance(a.left, join(a.right, b));
+        } else if (b.depth > a.depth + 1) {
+            return balance(join(a, b.left), b.right);
+        }
+
+        return new Rope(a, b);
+    }
+}
@@ -5,97 +5,169 @@ import static com.google.common.base.Preconditions.checkElementIndex;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkPositionIndex;
 import static java.util.Arrays.asList;
+import static java.util.Arrays.binarySearch;
 import static java.util.Arrays.copyOf;
 import static java.util.Arrays.copyOfRange;
+import static java.util.Arrays.fill;
+import static java.util.Arrays.sort;
 import static qux.lang.Bool.FALSE;
 import static qux.lang.Bool.TRUE;
+import static qux.lang.Metrics.Event.ARRAY_COPY;
+import static qux.lang.Metrics.Event.DUP;
 
 import java.math.BigInteger;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
 
 import qux.util.Iterable;
 import qux.util.Iterator;
 
 /**
  * TODO: Documentation
+ * <p>
+ * The backing array is copied on write. A set only writes to the array in place if it owns it and
+ * there are no open iterators over it, otherwise it copies the array first. Sets are not thread
+ * safe, the ownership is tracked per set rather than under a lock.
+ * <p>
+ * While every element of a set is an {@link qux.lang.Int} that fits in a {@code long}, the set is
+ * backed by a sorted {@code long[]} rather than an {@code AbstractObj[]}. The set is widened to the
+ * latter the first time any other element is added to it.
  *
  * @author Henry J. Wylde
  * @since 0.1.3
  */
 public final class Set extends AbstractObj implements Iterable {
 
+    /**
+     * The ordering used to keep the data sorted.
+     */
+    private static final Comparator<AbstractObj> ORDER = new Comparator<AbstractObj>() {
+        @Override
+        public int compare(AbstractObj o1, AbstractObj o2) {
+            return Set.compare(o1, o2);
+        }
+    };
+
+    /**
+     * The elements of this set, only one of {@code data} and {@code longs} is ever non-null.
+     */
     private AbstractObj[] data;
+    private long[] longs;
     private int count;
 
-    private int refs;
+    /**
+     * The running hash of the elements, see {@link qux.lang.AbstractObj}. Only valid once {@link
+     * #hashed} is set by the first call to {@link #hash()}.
+     */
+    private int hash;
+    private int mutable;
+    private boolean hashed;
+
+    /**
+     * Whether this set is the only set referencing its array.
+     */
+    private boolean owner;
+    /**
+     * The number of iterators over the array that are yet to finish.
+     */
+    private int iterators;
 
     private Set() {
-        data = new AbstractObj[10];
+        longs = new long[10];
         count = 0;
+        owner = true;
     }
 
     private Set(Set set) {
         data = set.data;
+        longs = set.longs;
         count = set.count;
 
+        hash = set.hash;
+        mutable = set.mutable;
+        hashed = set.hashed;
+
         // Lazily clone the data only when the first write is performed
-        refs = 1;
-        // Can't forget the fact that this set also references the prior set!
-        set.refs++;
+        owner = false;
+        set.owner = false;
     }
 
     private Set(AbstractObj[] data) {
-        this();
-
         checkArgument(!asList(data).contains(null), "data cannot contain null");
 
+        boolean primitive = true;
         for (AbstractObj datum : data) {
-            add(datum);
+            primitive &= isSmallInt(datum);
         }
-    }
-
-    public AbstractObj _access_(Int index) {
-        return get(index);
-    }
 
-    public Set _add_(Set set) {
-        Set union = new Set(this);
+        // Sort once and then drop the duplicates rather than inserting each element in turn
+        if (primitive) {
+            longs = new long[data.length];
+            for (int i = 0; i < data.length; i++) {
+                longs[i] = ((Int) data[i]).longValue();
+            }
 
-        union.ensureCapacity(set._len_());
+            sort(longs);
+            count = distinct(longs);
+        } else {
+            this.data = data.clone();
 
-        for (Iterator it = set._iter_(); it.hasNext() == TRUE; ) {
-            union.add(it.next());
+            sort(this.data, ORDER);
+            count = distinct(this.data);
         }
 
-        return union;
+        owner = true;
+    }
+
+    private Set(long[] longs) {
+        this.longs = longs.clone();
+
+        sort(this.longs);
+        count = distinct(this.longs);
+
+        owner = true;
     }
 
     /**
-     * {@inheritDoc}
+     * Creates a new set that takes ownership of the given data. The data must already be sorted and
+     * contain no duplicates.
+     *
+     * @param data the sorted data.
+     * @param count the number of elements in the data.
      */
-    @Override
-    public Int _comp_(AbstractObj obj) {
-        if (!(obj instanceof Set)) {
-            return meta()._comp_(obj.meta());
-        }
+    private Set(AbstractObj[] data, int count) {
+        this.data = data;
+        this.count = count;
 
-        Set that = (Set) obj;
+        owner = true;
+    }
 
-        Int comp = _len_()._comp_(that._len_());
-        if (!comp.equals(Int.ZERO)) {
-            return comp;
-        }
+    /**
+     * Creates a new set that takes ownership of the given longs. The longs must already be sorted
+     * and contain no duplicates.
+     *
+     * @param longs the sorted longs.
+     * @param count the number of elements in the longs.
+     */
+    private Set(long[] longs, int count) {
+        this.longs = longs;
+        this.count = count;
 
-        Iterator thisIt = _iter_();
-        Iterator thatIt = that._iter_();
+        owner = true;
+    }
 
-        while (thisIt.hasNext() == TRUE) {
-            comp = thisIt.next()._comp_(thatIt.next());
-            if (comp._eq_(Int.ZERO) == FALSE) {
-                return comp;
-            }
+    public AbstractObj _access_(Int index) {
+        return get(index);
+    }
+
+    public Set _add_(Set set) {
+        if (set.count == 0) {
+            return new Set(this);
         }
 
-        return Int.ZERO;
+        return merge(set, true, true, true);
     }
 
     public Bool _contains_(AbstractObj obj) {
@@ -127,79 +199,50 @@ public final class Set extends AbstractObj implements Iterable {
      */
     @Override
     public Set _dup_() {
-        return new Set(this);
-    }
+        Metrics.count(DUP);
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Bool _eq_(AbstractObj obj) {
-        if (super._eq_(obj) == FALSE) {
-            return FALSE;
-        }
-
-        Set that = (Set) obj;
-
-        if (!_len_().equals(that._len_())) {
-            return FALSE;
-        }
-
-        Iterator thisIt = _iter_();
-        Iterator thatIt = that._iter_();
-
-        while (thisIt.hasNext() == TRUE) {
-            if (thisIt.next()._eq_(thatIt.next()) == FALSE) {
-                return FALSE;
-            }
-        }
-
-        return TRUE;
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Int _hash_() {
-        Int hash = Int.ZERO;
-
-        for (Iterator it = _iter_(); it.hasNext() == TRUE; ) {
-            hash = hash._add_(it.next()._hash_());
-        }
-
-        return hash;
+        return new Set(this);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized Iterator _iter_() {
-        refs++;
+    public Iterator _iter_() {
+        iterators++;
 
         return new Iterator() {
 
             private AbstractObj[] data = Set.this.data;
+            private long[] longs = Set.this.longs;
             private int count = Set.this.count;
             private int index = 0;
 
+            private boolean finished;
+
             @Override
             public Bool hasNext() {
                 if (index < count) {
                     return TRUE;
                 }
 
-                // Check if the set is still the same, if it is we can decrement the refs count
-                if (Set.this.data == data) {
-                    refs--;
+                // Check if the set is still the same, if it is then this iterator no longer needs
+                // to protect the data from writes
+                if (!finished && Set.this.data == data && Set.this.longs == longs
+                        && iterators > 0) {
+                    iterators--;
                 }
+                finished = true;
 
                 return FALSE;
             }
 
             @Override
             public AbstractObj next() {
+                if (longs != null) {
+                    return Int.valueOf(longs[index++]);
+                }
+
                 return data[index++];
             }
         };
@@ -214,13 +257,103 @@ public final class Set extends AbstractObj implements Iterable {
     }
 
     public Set _sub_(Set set) {
-        Set difference = new Set(this);
+        if (set.count == 0) {
+            return new Set(this);
+        }
+
+        return merge(set, true, false, false);
+    }
+
+    /**
+     * Gets a read only {@link java.util.Set} view of this set. The view reflects any later writes
+     * to this set, the elements are not copied.
+     *
+     * @return the view.
+     */
+    public java.util.Set<AbstractObj> asJavaSet() {
+        return new JavaSet();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(AbstractObj obj) {
+        if (!(obj instanceof Set)) {
+            return meta().compareTo(obj.meta());
+        }
+
+        Set that = (Set) obj;
+
+        if (count != that.count) {
+            return count < that.count ? -1 : 1;
+        }
+
+        for (int i = 0; i < count; i++) {
+            int comp;
+            if (longs != null && that.longs != null) {
+                comp = Long.compare(longs[i], that.longs[i]);
+            } else {
+                comp = element(i).compareTo(that.element(i));
+            }
+
+            if (comp != 0) {
+                return comp;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equalTo(AbstractObj obj) {
+        if (!super.equalTo(obj)) {
+            return false;
+        }
+
+        Set that = (Set) obj;
+
+        if (count != that.count) {
+            return false;
+        }
 
-        for (Iterator it = set._iter_(); it.hasNext() == TRUE; ) {
-            difference.remove(it.next());
+        for (int i = 0; i < count; i++) {
+            if (longs != null && that.longs != null) {
+                if (longs[i] != that.longs[i]) {
+                    return false;
+                }
+            } else if (!element(i).equalTo(that.element(i))) {
+                return false;
+            }
         }
 
-        return difference;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hash() {
+        if (!hashed) {
+            rehash();
+        }
+
+        if (mutable == 0) {
+            return hash;
+        }
+
+        int hash = this.hash;
+        for (int i = 0; i < count; i++) {
+            if (!data[i].isImmutable()) {
+                hash += data[i].hash();
+            }
+        }
+
+        return hash;
     }
 
     /**
@@ -242,22 +375,41 @@ public final class Set extends AbstractObj implements Iterable {
         }
 
         if (types._len_().equals(Int.ONE)) {
-            return Meta.forSet((Meta) types.data[0]);
+            return Meta.forSet((Meta) types.get(0));
         }
 
         return Meta.forSet(Meta.forUnion(types));
     }
 
+    /**
+     * Creates a spliterator over a snapshot of this set, so any writes to this set won't be seen.
+     * The spliterator may be split and traversed from many threads at once, for example by a
+     * parallel {@link java.util.stream.Stream}.
+     *
+     * @return the spliterator.
+     */
+    public Spliterator<AbstractObj> spliterator() {
+        return new SetSpliterator(new Set(this), 0, count);
+    }
+
+    public static Set valueOf() {
+        return new Set();
+    }
+
     public static Set valueOf(AbstractObj... data) {
         return new Set(data);
     }
 
-    synchronized void add(AbstractObj obj) {
-        checkNotNull(obj, "obj cannot be null");
+    public static Set valueOf(long... data) {
+        return new Set(data);
+    }
 
-        checkRefs();
+    void add(AbstractObj obj) {
+        checkNotNull(obj, "obj cannot be null");
 
-        ensureCapacity();
+        if (longs != null && !isSmallInt(obj)) {
+            widen();
+        }
 
         int index = indexOf(obj);
 
@@ -267,20 +419,35 @@ public final class Set extends AbstractObj implements Iterable {
 
         index = -index - 1;
 
-        System.arraycopy(data, index, data, index + 1, count - index);
+        ensureCapacity();
+        checkOwner();
+
+        if (longs != null) {
+            System.arraycopy(longs, index, longs, index + 1, count - index);
 
-        data[index] = obj;
+            longs[index] = ((Int) obj).longValue();
+        } else {
+            System.arraycopy(data, index, data, index + 1, count - index);
+
+            data[index] = obj;
+        }
         count++;
+
+        if (hashed) {
+            include(obj);
+        }
     }
 
     AbstractObj get(Int index) {
-        return get(index._value_());
+        checkArgument(index.bitLength() < 32, "sets of size larger than 32 bits is unsupported");
+
+        return get(index.intValue());
     }
 
-    synchronized AbstractObj get(int index) {
+    AbstractObj get(int index) {
         checkElementIndex(index, count);
 
-        return data[index];
+        return element(index);
     }
 
     AbstractObj get(BigInteger index) {
@@ -289,14 +456,53 @@ public final class Set extends AbstractObj implements Iterable {
         return get(index.intValue());
     }
 
+    Set intersection(Set set) {
+        return merge(set, false, true, false);
+    }
+
     Bool isEmpty() {
         return count == 0 ? TRUE : FALSE;
     }
 
-    synchronized void remove(AbstractObj obj) {
-        checkNotNull(obj, "obj cannot be null");
+    /**
+     * Checks whether this set is a subset of the given set.
+     *
+     * @param set the potential superset.
+     * @return true if every element of this set is contained in the given set.
+     */
+    Bool isSubset(Set set) {
+        if (count > set.count) {
+            return FALSE;
+        }
 
-        checkRefs();
+        boolean primitive = longs != null && set.longs != null;
+
+        int j = 0;
+        for (int i = 0; i < count; i++) {
+            // Skip over the elements only in the superset
+            int comp;
+            do {
+                if (set.count - j < count - i) {
+                    return FALSE;
+                }
+
+                if (primitive) {
+                    comp = Long.compare(longs[i], set.longs[j++]);
+                } else {
+                    comp = compare(element(i), set.element(j++));
+                }
+            } while (comp > 0);
+
+            if (comp < 0) {
+                return FALSE;
+            }
+        }
+
+        return TRUE;
+    }
+
+    void remove(AbstractObj obj) {
+        checkNotNull(obj, "obj cannot be null");
 
         int index = indexOf(obj);
 
@@ -304,22 +510,40 @@ public final class Set extends AbstractObj implements Iterable {
             return;
         }
 
-        System.arraycopy(data, index + 1, data, index, count - (index + 1));
+        checkOwner();
+
+        if (hashed) {
+            exclude(index);
+        }
+
+        if (longs != null) {
+            System.arraycopy(longs, index + 1, longs, index, count - (index + 1));
+        } else {
+            System.arraycopy(data, index + 1, data, index, count - (index + 1));
+        }
 
         count--;
     }
 
     Set subset(Int from, Int to) {
-        return subset(from._value_(), to._value_());
+        checkArgument(from.bitLength() < 32, "sets of size larger than 32 bits is unsupported");
+        checkArgument(to.bitLength() < 32, "sets of size larger than 32 bits is unsupported");
+
+        return subset(from.intValue(), to.intValue());
     }
 
-    synchronized Set subset(int from, int to) {
+    Set subset(int from, int to) {
         checkPositionIndex(from, count, "from");
         checkPositionIndex(to, count, "to");
         checkArgument(from <= to, "from must be less than or equal to to (from=%s, to=%s)", from,
                 to);
 
-        return valueOf(copyOfRange(data, from, to));
+        // The range is already sorted and distinct
+        if (longs != null) {
+            return new Set(copyOfRange(longs, from, to), to - from);
+        }
+
+        return new Set(copyOfRange(data, from, to), to - from);
     }
 
     Set subset(BigInteger from, BigInteger to) {
@@ -329,56 +553,373 @@ public final class Set extends AbstractObj implements Iterable {
         return subset(from.intValue(), to.intValue());
     }
 
-    private synchronized void checkRefs() {
-        if (refs > 0) {
-            data = data.clone();
-            refs = 0;
+    /**
+     * Ensures this set may write to its array in place, copying it if it is shared with another set
+     * or may still be read by an iterator.
+     */
+    private void checkOwner() {
+        if (!owner || iterators > 0) {
+            Metrics.count(ARRAY_COPY);
+
+            if (longs != null) {
+                longs = longs.clone();
+            } else {
+                data = data.clone();
+            }
+            owner = true;
+            iterators = 0;
         }
     }
 
-    private synchronized void ensureCapacity() {
-        ensureCapacity(1);
+    /**
+     * Compares the two objects using the ordering of the set. Two objects are considered the same
+     * if they are equal, otherwise they are ordered by {@link AbstractObj#compareTo(AbstractObj)}.
+     */
+    private static int compare(AbstractObj a, AbstractObj b) {
+        if (a.equalTo(b)) {
+            return 0;
+        }
+
+        return a.compareTo(b) < 0 ? -1 : 1;
     }
 
-    private synchronized void ensureCapacity(Int capacity) {
-        ensureCapacity(capacity._value_());
+    /**
+     * Removes any adjacent duplicates from the sorted array, returning the new count.
+     */
+    private static int distinct(AbstractObj[] data) {
+        int count = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (count == 0 || compare(data[count - 1], data[i]) != 0) {
+                data[count++] = data[i];
+            }
+        }
+        fill(data, count, data.length, null);
+
+        return count;
     }
 
-    private synchronized void ensureCapacity(BigInteger capacity) {
-        checkArgument(capacity.bitLength() < 32, "sets of size larger than 32 bits is unsupported");
+    /**
+     * Removes any adjacent duplicates from the sorted array, returning the new count.
+     */
+    private static int distinct(long[] longs) {
+        int count = 0;
+        for (int i = 0; i < longs.length; i++) {
+            if (count == 0 || longs[count - 1] != longs[i]) {
+                longs[count++] = longs[i];
+            }
+        }
 
-        ensureCapacity(capacity.intValue());
+        return count;
     }
 
-    private synchronized void ensureCapacity(int capacity) {
-        checkArgument(capacity >= 0, "capacity must be non-negative");
+    private AbstractObj element(int index) {
+        if (longs != null) {
+            return Int.valueOf(longs[index]);
+        }
 
-        while (count + capacity > data.length) {
-            data = copyOf(data, data.length * 2);
+        return data[index];
+    }
+
+    /**
+     * Subtracts the hash code of the element at the given index, which is being removed.
+     */
+    private void exclude(int index) {
+        if (longs != null) {
+            hash -= Long.hashCode(longs[index]);
+        } else if (data[index].isImmutable()) {
+            hash -= data[index].hash();
+        } else {
+            mutable--;
         }
     }
 
-    private synchronized int indexOf(AbstractObj obj) {
-        return indexOf(obj, 0, count);
+    private void ensureCapacity() {
+        ensureCapacity(1);
     }
 
-    private synchronized int indexOf(AbstractObj obj, int low, int high) {
-        if (low == high) {
-            return -low - 1;
+    private void ensureCapacity(int capacity) {
+        checkArgument(capacity >= 0, "capacity must be non-negative");
+
+        int length = Math.max(longs != null ? longs.length : data.length, 10);
+        while (count + capacity > length) {
+            length *= 2;
         }
 
-        // Javas integer division rounds up, so let's force the truncation of the division
-        // (emulates floor)
-        int mid = (int) ((double) (low + high) / 2);
+        if (longs != null && length > longs.length) {
+            // The copy is exclusively owned by this set
+            longs = copyOf(longs, length);
+            owner = true;
+            iterators = 0;
+        } else if (data != null && length > data.length) {
+            // The copy is exclusively owned by this set
+            data = copyOf(data, length);
+            owner = true;
+            iterators = 0;
+        }
+    }
 
-        if (obj.equals(data[mid])) {
-            return mid;
-        } else if (obj._comp_(data[mid])._lt_(Int.ZERO) == TRUE) {
-            high = mid;
+    /**
+     * Adds the hash code of the given element, which is being written to this set.
+     */
+    private void include(AbstractObj obj) {
+        if (obj.isImmutable()) {
+            hash += obj.hash();
         } else {
-            low = mid + 1;
+            mutable++;
+        }
+    }
+
+    private int indexOf(AbstractObj obj) {
+        if (longs != null) {
+            // A primitive set can only contain small ints
+            if (!isSmallInt(obj)) {
+                return -1;
+            }
+
+            return binarySearch(longs, 0, count, ((Int) obj).longValue());
+        }
+
+        int low = 0;
+        int high = count;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int comp = compare(obj, data[mid]);
+
+            if (comp == 0) {
+                return mid;
+            } else if (comp < 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        return -low - 1;
+    }
+
+    private static boolean isSmallInt(AbstractObj obj) {
+        return obj instanceof Int && ((Int) obj).isSmall();
+    }
+
+    /**
+     * Merges this set with the given set by walking both sorted arrays once.
+     *
+     * @param set the set to merge with.
+     * @param left whether to keep the elements only in this set.
+     * @param both whether to keep the elements in both sets.
+     * @param right whether to keep the elements only in the given set.
+     * @return the merged set.
+     */
+    private Set merge(Set set, boolean left, boolean both, boolean right) {
+        int capacity = (left ? count : 0) + (right ? set.count : 0);
+        if (both && !left && !right) {
+            capacity = Math.min(count, set.count);
+        }
+
+        if (longs != null && set.longs != null) {
+            long[] merged = new long[capacity];
+            int n = 0;
+
+            int i = 0;
+            int j = 0;
+            while (i < count && j < set.count) {
+                long a = longs[i];
+                long b = set.longs[j];
+
+                if (a < b) {
+                    if (left) {
+                        merged[n++] = a;
+                    }
+                    i++;
+                } else if (a > b) {
+                    if (right) {
+                        merged[n++] = b;
+                    }
+                    j++;
+                } else {
+                    if (both) {
+                        merged[n++] = a;
+                    }
+                    i++;
+                    j++;
+                }
+            }
+
+            if (left) {
+                System.arraycopy(longs, i, merged, n, count - i);
+                n += count - i;
+            }
+            if (right) {
+                System.arraycopy(set.longs, j, merged, n, set.count - j);
+                n += set.count - j;
+            }
+
+            return new Set(merged, n);
+        }
+
+        AbstractObj[] merged = new AbstractObj[capacity];
+        int n = 0;
+
+        int i = 0;
+        int j = 0;
+        while (i < count && j < set.count) {
+            AbstractObj a = element(i);
+            AbstractObj b = set.element(j);
+            int comp = compare(a, b);
+
+            if (comp < 0) {
+                if (left) {
+                    merged[n++] = a;
+                }
+                i++;
+            } else if (comp > 0) {
+                if (right) {
+                    merged[n++] = b;
+                }
+                j++;
+            } else {
+                if (both) {
+                    merged[n++] = a;
+                }
+                i++;
+                j++;
+            }
+        }
+
+        for (; left && i < count; i++) {
+            merged[n++] = element(i);
+        }
+        for (; right && j < set.count; j++) {
+            merged[n++] = set.element(j);
+        }
+
+        return new Set(merged, n);
+    }
+
+    private void rehash() {
+        hash = 0;
+        mutable = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (longs != null) {
+                // Consistent with the hash of a small int
+                hash += Long.hashCode(longs[i]);
+            } else {
+                include(data[i]);
+            }
         }
 
-        return indexOf(obj, low, high);
+        hashed = true;
+    }
+
+    /**
+     * Converts the primitive array into an object array. Any open iterators keep reading the old
+     * array.
+     */
+    private void widen() {
+        Metrics.count(ARRAY_COPY);
+
+        data = new AbstractObj[Math.max(longs.length, 10)];
+        for (int i = 0; i < count; i++) {
+            data[i] = Int.valueOf(longs[i]);
+        }
+
+        longs = null;
+        owner = true;
+        iterators = 0;
+    }
+
+    /**
+     * A read only view of a set.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private final class JavaSet extends AbstractSet<AbstractObj> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean contains(Object obj) {
+            return obj instanceof AbstractObj && indexOf((AbstractObj) obj) >= 0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public java.util.Iterator<AbstractObj> iterator() {
+            final Set snapshot = new Set(Set.this);
+
+            return new java.util.Iterator<AbstractObj>() {
+
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return index < snapshot.count;
+                }
+
+                @Override
+                public AbstractObj next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    return snapshot.element(index++);
+                }
+            };
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return count;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Spliterator<AbstractObj> spliterator() {
+            return Set.this.spliterator();
+        }
+    }
+
+    /**
+     * A spliterator over a set that is never written to.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private static final class SetSpliterator extends IndexSpliterator {
+
+        private final Set set;
+
+        SetSpliterator(Set set, int from, int to) {
+            super(from, to, ORDERED | DISTINCT | NONNULL | IMMUTABLE);
+
+            this.set = set;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        AbstractObj get(int index) {
+            return set.element(index);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        IndexSpliterator split(int from, int to) {
+            return new SetSpliterator(set, from, to);
+        }
     }
 }
@@ -7,20 +7,40 @@ import static com.google.common.base.Preconditions.checkPositionIndex;
 import static qux.lang.Bool.FALSE;
 import static qux.lang.Bool.TRUE;
 import static qux.lang.Meta.META_STR;
-
-import com.google.common.base.Strings;
+import static qux.lang.Metrics.Event.DUP;
 
 import java.math.BigInteger;
 
 /**
  * TODO: Documentation
+ * <p>
+ * A {@code Str} holds its value as a {@link qux.lang.Rope}, a flattened {@link java.lang.String} or
+ * both. Concatenation, repetition and index assignment work on the rope, while comparisons and
+ * hashing work on the string. Each form is created lazily from the other when first required and
+ * then kept until the next write.
+ * <p>
+ * Substrings of a rope share all but the chunks at either end with it, so slicing a long string
+ * doesn't copy its characters. As only the chunks in the range are shared, a short substring never
+ * keeps the rest of a long string reachable.
  *
  * @author Henry J. Wylde
  */
 public final class Str extends AbstractObj {
 
+    /**
+     * The minimum length of a substring of a flattened string before it is taken from the rope
+     * rather than copied.
+     */
+    private static final int MIN_SHARED_LENGTH = 1024;
+
+    private Rope rope;
     private String value;
 
+    /**
+     * The cached hash code, or {@code 0} if it has not been computed since the last write.
+     */
+    private int hash;
+
     /**
      * Creates a new {@code Str} with the given value.
      *
@@ -30,36 +50,28 @@ public final class Str extends AbstractObj {
         this.value = checkNotNull(value, "value cannot be null");
     }
 
+    private Str(Rope rope) {
+        this.rope = checkNotNull(rope, "rope cannot be null");
+    }
+
     public Str _access_(Int index) {
         return get(index);
     }
 
     public Str _add_(Str str) {
-        return valueOf(value.concat(str.value));
+        return new Str(Rope.concat(rope(), str.rope()));
     }
 
     public void _assign_(Int index, AbstractObj value) {
         set(index, value);
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Int _comp_(AbstractObj obj) {
-        if (!(obj instanceof Str)) {
-            return meta()._comp_(obj.meta());
-        }
-
-        return Int.valueOf(value.compareTo(((Str) obj).value));
-    }
-
     public Bool _contains_(AbstractObj obj) {
         if (!(obj instanceof Str)) {
             return FALSE;
         }
 
-        return value.contains(((Str) obj).value) ? TRUE : FALSE;
+        return toString().contains(obj.toString()) ? TRUE : FALSE;
     }
 
     /**
@@ -75,52 +87,48 @@ public final class Str extends AbstractObj {
      */
     @Override
     public Str _dup_() {
-        return valueOf(value);
-    }
+        Metrics.count(DUP);
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Bool _eq_(AbstractObj obj) {
-        if (super._eq_(obj) == FALSE) {
-            return FALSE;
-        }
+        // Both forms are immutable, so they can be shared
+        Str dup = value != null ? new Str(value) : new Str(rope);
+        dup.rope = rope;
+        dup.hash = hash;
 
-        return value.equals(((Str) obj).value) ? TRUE : FALSE;
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Int _hash_() {
-        return Int.valueOf(value.hashCode());
+        return dup;
     }
 
     public Int _len_() {
-        return Int.valueOf(value.length());
+        return Int.valueOf(length());
     }
 
     public synchronized Str _mul_(Int value) {
         checkArgument(value._gte_(Int.ZERO) == TRUE, "cannot multiply a str by negative value");
 
-        if (value.equals(Int.ZERO)) {
+        if (value.equals(Int.ZERO) || length() == 0) {
             return valueOf("");
         }
 
-        if (value._value_().bitLength() <= 31) {
-            return valueOf(Strings.repeat(this.value, value._value_().intValue()));
-        }
+        checkArgument(value._mul_(Int.valueOf(length())).bitLength() < 32,
+                "strings of size larger than 32 bits is unsupported");
 
-        Str ret = this;
-        while (value._gt_(Int.ONE) == TRUE) {
-            ret = ret._add_(this);
+        // Repeated doubling, the doubled ropes share their structure so this only takes
+        // O(log n) concatenations
+        int count = value.intValue();
 
-            value = value._sub_(Int.ONE);
+        Rope ret = Rope.EMPTY;
+        Rope base = rope();
+        while (count > 0) {
+            if ((count & 1) == 1) {
+                ret = Rope.concat(ret, base);
+            }
+
+            count >>>= 1;
+            if (count > 0) {
+                base = Rope.concat(base, base);
+            }
         }
 
-        return ret;
+        return new Str(ret);
     }
 
     public Str _slice_(Int from, Int to) {
@@ -128,21 +136,27 @@ public final class Str extends AbstractObj {
     }
 
     public Str _sub_(Str str) {
-        if (value.endsWith(str.value)) {
-            return valueOf(value.substring(0, value.length() - str.value.length()));
+        if (toString().endsWith(str.toString())) {
+            return new Str(rope().substring(0, length() - str.length()));
         }
 
         return this;
     }
 
     public Str get(Int index) {
-        return get(index._value_());
+        checkArgument(index.bitLength() < 32, "strings of size larger than 32 bits is unsupported");
+
+        return get(index.intValue());
     }
 
     public Str get(int index) {
-        checkElementIndex(index, value.length());
+        checkElementIndex(index, length());
+
+        if (value != null) {
+            return valueOf(value.charAt(index));
+        }
 
-        return valueOf(value.charAt(index));
+        return valueOf(rope.charAt(index));
     }
 
     public Str get(BigInteger index) {
@@ -151,6 +165,42 @@ public final class Str extends AbstractObj {
         return get(index.intValue());
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(AbstractObj obj) {
+        if (!(obj instanceof Str)) {
+            return meta().compareTo(obj.meta());
+        }
+
+        return toString().compareTo(obj.toString());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equalTo(AbstractObj obj) {
+        if (!super.equalTo(obj)) {
+            return false;
+        }
+
+        return toString().equals(obj.toString());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hash() {
+        if (hash == 0) {
+            hash = toString().hashCode();
+        }
+
+        return hash;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -160,14 +210,21 @@ public final class Str extends AbstractObj {
     }
 
     public void set(Int index, AbstractObj value) {
-        set(index._value_(), value);
+        checkArgument(index.bitLength() < 32, "strings of size larger than 32 bits is unsupported");
+
+        set(index.intValue(), value);
     }
 
     public synchronized void set(int index, AbstractObj value) {
-        checkElementIndex(index, this.value.length());
+        checkElementIndex(index, length());
+
+        Rope rope = rope();
+        rope = Rope.concat(Rope.concat(rope.substring(0, index), Rope.valueOf(value.toString())),
+                rope.substring(index + 1, rope.length()));
 
-        this.value = this.value.substring(0, index) + value.toString() + this.value.substring(
-                index + 1);
+        this.rope = rope;
+        this.value = null;
+        this.hash = 0;
     }
 
     public void set(BigInteger index, AbstractObj value) {
@@ -177,16 +234,25 @@ public final class Str extends AbstractObj {
     }
 
     public Str substring(Int from, Int to) {
-        return substring(from._value_(), to._value_());
+        checkArgument(from.bitLength() < 32, "strings of size larger than 32 bits is unsupported");
+        checkArgument(to.bitLength() < 32, "strings of size larger than 32 bits is unsupported");
+
+        return substring(from.intValue(), to.intValue());
     }
 
     public Str substring(int from, int to) {
-        checkPositionIndex(from, value.length(), "from");
-        checkPositionIndex(to, value.length(), "to");
+        checkPositionIndex(from, length(), "from");
+        checkPositionIndex(to, length(), "to");
         checkArgument(from <= to, "from must be less than or equal to to (from=%s, to=%s)", from,
                 to);
 
-        return valueOf(value.substring(from, to));
+        // Long substrings share the chunks of the rope rather than copying the characters, while
+        // short ones are cheaper to copy than to look up in the rope
+        if (rope == null && to - from < MIN_SHARED_LENGTH) {
+            return valueOf(value.substring(from, to));
+        }
+
+        return new Str(rope().substring(from, to));
     }
 
     public Str substring(BigInteger from, BigInteger to) {
@@ -201,6 +267,10 @@ public final class Str extends AbstractObj {
      */
     @Override
     public String toString() {
+        if (value == null) {
+            value = rope.toString();
+        }
+
         return value;
     }
 
@@ -211,5 +281,28 @@ public final class Str extends AbstractObj {
     public static Str valueOf(char value) {
         return valueOf(String.valueOf(value));
     }
-}
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void printTo(Console console) {
+        if (value != null) {
+            console.write(value);
+        } else {
+            rope.printTo(console);
+        }
+    }
+
+    private int length() {
+        return value != null ? value.length() : rope.length();
+    }
+
+    private Rope rope() {
+        if (rope == null) {
+            rope = Rope.valueOf(value);
+        }
+
+        return rope;
+    }
+}
@@ -4,6 +4,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkElementIndex;
 import static qux.lang.Bool.FALSE;
 import static qux.lang.Bool.TRUE;
+import static qux.lang.Metrics.Event.DUP;
 
 import java.math.BigInteger;
 
@@ -20,45 +21,31 @@ public final class Tuple extends AbstractObj implements Iterable {
 
     private final AbstractObj[] data;
 
+    /**
+     * Whether all of the elements are immutable, in which case so is this tuple.
+     */
+    private final boolean immutable;
+    /**
+     * The cached hash code of an immutable tuple, or {@code 0} if it has not been computed yet.
+     */
+    private int hash;
+
     private Tuple(AbstractObj... data) {
         checkArgument(data.length > 1, "data must have at least 2 elements");
 
         this.data = data.clone();
+
+        boolean immutable = true;
+        for (AbstractObj datum : this.data) {
+            immutable &= datum.isImmutable();
+        }
+        this.immutable = immutable;
     }
 
     public AbstractObj _access_(Int index) {
         return get(index);
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Int _comp_(AbstractObj obj) {
-        if (!(obj instanceof Tuple)) {
-            return meta()._comp_(obj.meta());
-        }
-
-        Tuple that = (Tuple) obj;
-
-        Int comp = _len_()._comp_(that._len_());
-        if (!comp.equals(Int.ZERO)) {
-            return comp;
-        }
-
-        Iterator thisIt = _iter_();
-        Iterator thatIt = that._iter_();
-
-        while (thisIt.hasNext() == TRUE) {
-            comp = thisIt.next()._comp_(thatIt.next());
-            if (!comp.equals(Int.ZERO)) {
-                return comp;
-            }
-        }
-
-        return Int.ZERO;
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -84,6 +71,8 @@ public final class Tuple extends AbstractObj implements Iterable {
      */
     @Override
     public Tuple _dup_() {
+        Metrics.count(DUP);
+
         return this;
     }
 
@@ -91,66 +80,96 @@ public final class Tuple extends AbstractObj implements Iterable {
      * {@inheritDoc}
      */
     @Override
-    public Bool _eq_(AbstractObj obj) {
-        if (super._eq_(obj) == FALSE) {
-            return FALSE;
+    public synchronized Iterator _iter_() {
+        return new Iterator() {
+
+            private int index = 0;
+
+            @Override
+            public Bool hasNext() {
+                return index < data.length ? TRUE : FALSE;
+            }
+
+            @Override
+            public AbstractObj next() {
+                return data[index++];
+            }
+        };
+    }
+
+    public Int _len_() {
+        return Int.valueOf(data.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(AbstractObj obj) {
+        if (!(obj instanceof Tuple)) {
+            return meta().compareTo(obj.meta());
         }
 
         Tuple that = (Tuple) obj;
 
-        if (!_len_().equals(that._len_())) {
-            return FALSE;
+        if (data.length != that.data.length) {
+            return data.length < that.data.length ? -1 : 1;
         }
 
-        Iterator thisIt = _iter_();
-        Iterator thatIt = that._iter_();
-
-        while (thisIt.hasNext() == TRUE) {
-            if (!thisIt.next().equals(thatIt.next())) {
-                return FALSE;
+        for (int i = 0; i < data.length; i++) {
+            int comp = data[i].compareTo(that.data[i]);
+            if (comp != 0) {
+                return comp;
             }
         }
 
-        return TRUE;
+        return 0;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Int _hash_() {
-        Int hash = Int.ZERO;
+    public boolean equalTo(AbstractObj obj) {
+        if (!super.equalTo(obj)) {
+            return false;
+        }
 
-        for (Iterator it = _iter_(); it.hasNext() == TRUE; ) {
-            hash = hash._add_(it.next()._hash_());
+        Tuple that = (Tuple) obj;
+
+        if (data.length != that.data.length) {
+            return false;
         }
 
-        return hash;
+        for (int i = 0; i < data.length; i++) {
+            if (!data[i].equalTo(that.data[i])) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized Iterator _iter_() {
-        return new Iterator() {
+    public int hash() {
+        if (immutable && this.hash != 0) {
+            return this.hash;
+        }
 
-            private int index = 0;
+        int hash = 0;
 
-            @Override
-            public Bool hasNext() {
-                return index < data.length ? TRUE : FALSE;
-            }
+        for (AbstractObj datum : data) {
+            hash += datum.hash();
+        }
 
-            @Override
-            public AbstractObj next() {
-                return data[index++];
-            }
-        };
-    }
+        if (immutable) {
+            this.hash = hash;
+        }
 
-    public Int _len_() {
-        return Int.valueOf(data.length);
+        return hash;
     }
 
     /**
@@ -172,7 +191,9 @@ public final class Tuple extends AbstractObj implements Iterable {
     }
 
     AbstractObj get(Int index) {
-        return get(index._value_());
+        checkArgument(index.bitLength() < 32, "tuples of size larger than 32 bits is unsupported");
+
+        return get(index.intValue());
     }
 
     synchronized AbstractObj get(int index) {
@@ -186,4 +207,12 @@ public final class Tuple extends AbstractObj implements Iterable {
 
         return get(index.intValue());
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean isImmutable() {
+        return immutable;
+    }
 }
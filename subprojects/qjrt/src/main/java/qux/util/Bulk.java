@@ -0,0 +1,323 @@
+package qux.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static qux.lang.Bool.TRUE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import qux.lang.AbstractObj;
+import qux.lang.Int;
+import qux.lang.List;
+import qux.lang.Set;
+
+/**
+ * Bulk operations over lists, sets and any other {@link qux.util.Iterable}. Inputs larger than
+ * {@link #THRESHOLD} are split in half recursively and processed on the common fork/join pool,
+ * smaller inputs are processed sequentially on the calling thread.
+ * <p>
+ * The elements are first copied out of the iterable on the calling thread, so the iterable itself
+ * is never read concurrently. The elements and any functions are shared between the threads of
+ * the pool though, so functions must be pure and must not write to their arguments.
+ * <p>
+ * The operations that don't take a function are available to Qux code through the {@code
+ * qux.util.parallel} module, see {@link qux.util.parallel}.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class Bulk {
+
+    /**
+     * The maximum number of elements processed sequentially by a single task.
+     */
+    static final int THRESHOLD = 4096;
+
+    /**
+     * The order of objects as defined by {@link qux.lang.AbstractObj#compareTo(AbstractObj)}.
+     */
+    static final Comparator<AbstractObj> ORDER = new Comparator<AbstractObj>() {
+        @Override
+        public int compare(AbstractObj o1, AbstractObj o2) {
+            return o1.compareTo(o2);
+        }
+    };
+
+    private static final BinaryFunction ADD = new BinaryFunction() {
+        @Override
+        public AbstractObj apply(AbstractObj a, AbstractObj b) {
+            return ((Int) a)._add_((Int) b);
+        }
+    };
+    private static final BinaryFunction MAX = new BinaryFunction() {
+        @Override
+        public AbstractObj apply(AbstractObj a, AbstractObj b) {
+            return a.compareTo(b) >= 0 ? a : b;
+        }
+    };
+    private static final BinaryFunction MIN = new BinaryFunction() {
+        @Override
+        public AbstractObj apply(AbstractObj a, AbstractObj b) {
+            return a.compareTo(b) <= 0 ? a : b;
+        }
+    };
+
+    /**
+     * This class cannot be instantiated.
+     */
+    private Bulk() {}
+
+    /**
+     * Creates a list of the elements of the iterable that satisfy the predicate, in iteration
+     * order.
+     *
+     * @param iterable the iterable to filter.
+     * @param predicate the predicate, which must return a {@link qux.lang.Bool}.
+     * @return the filtered list.
+     */
+    public static List filter(Iterable iterable, Function predicate) {
+        checkNotNull(predicate, "predicate cannot be null");
+
+        AbstractObj[] data = toArray(iterable);
+        AbstractObj[] tests = new AbstractObj[data.length];
+
+        invoke(new Map(data, tests, 0, data.length, predicate), data.length);
+
+        int count = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (tests[i] == TRUE) {
+                data[count++] = data[i];
+            }
+        }
+
+        return List.valueOf(Arrays.copyOf(data, count));
+    }
+
+    /**
+     * Creates a list of the results of applying the function to each element of the iterable, in
+     * iteration order.
+     *
+     * @param iterable the iterable to map.
+     * @param function the function.
+     * @return the mapped list.
+     */
+    public static List map(Iterable iterable, Function function) {
+        checkNotNull(function, "function cannot be null");
+
+        AbstractObj[] data = toArray(iterable);
+        AbstractObj[] mapped = new AbstractObj[data.length];
+
+        invoke(new Map(data, mapped, 0, data.length, function), data.length);
+
+        return List.valueOf(mapped);
+    }
+
+    /**
+     * Finds the greatest element of the iterable.
+     *
+     * @param iterable the iterable, which must not be empty.
+     * @return the greatest element.
+     */
+    public static AbstractObj max(Iterable iterable) {
+        AbstractObj[] data = toArray(iterable);
+        checkArgument(data.length > 0, "iterable cannot be empty");
+
+        return invoke(new Reduce(data, 0, data.length, null, MAX), data.length);
+    }
+
+    /**
+     * Finds the least element of the iterable.
+     *
+     * @param iterable the iterable, which must not be empty.
+     * @return the least element.
+     */
+    public static AbstractObj min(Iterable iterable) {
+        AbstractObj[] data = toArray(iterable);
+        checkArgument(data.length > 0, "iterable cannot be empty");
+
+        return invoke(new Reduce(data, 0, data.length, null, MIN), data.length);
+    }
+
+    /**
+     * Reduces the elements of the iterable with the function. The elements are grouped in an
+     * unspecified way, so the function must be associative and the identity must be an identity of
+     * it.
+     *
+     * @param iterable the iterable to reduce.
+     * @param identity the identity of the function, returned if the iterable is empty.
+     * @param function the associative function.
+     * @return the reduction.
+     */
+    public static AbstractObj reduce(Iterable iterable, AbstractObj identity,
+            BinaryFunction function) {
+        checkNotNull(identity, "identity cannot be null");
+        checkNotNull(function, "function cannot be null");
+
+        AbstractObj[] data = toArray(iterable);
+
+        return invoke(new Reduce(data, 0, data.length, identity, function), data.length);
+    }
+
+    /**
+     * Creates a list of the elements of the iterable in ascending order.
+     *
+     * @param iterable the iterable to sort.
+     * @return the sorted list.
+     */
+    public static List sort(Iterable iterable) {
+        AbstractObj[] data = toArray(iterable);
+
+        // Parallel sorting already splits the work over the common pool
+        Arrays.parallelSort(data, ORDER);
+
+        return List.valueOf(data);
+    }
+
+    /**
+     * Sums the elements of the iterable, which must all be {@link qux.lang.Int}s.
+     *
+     * @param iterable the iterable to sum.
+     * @return the sum, or zero if the iterable is empty.
+     */
+    public static Int sum(Iterable iterable) {
+        return (Int) reduce(iterable, Int.ZERO, ADD);
+    }
+
+    /**
+     * Creates a set of the elements of the iterable.
+     *
+     * @param iterable the iterable.
+     * @return the set.
+     */
+    public static Set toSet(Iterable iterable) {
+        AbstractObj[] data = toArray(iterable);
+
+        // Sorting up front leaves the set with only the duplicates to remove
+        Arrays.parallelSort(data, ORDER);
+
+        return Set.valueOf(data);
+    }
+
+    private static <T> T invoke(ForkJoinTask<T> task, int size) {
+        // Small inputs aren't worth handing over to the pool
+        if (size <= THRESHOLD) {
+            return task.invoke();
+        }
+
+        return ForkJoinPool.commonPool().invoke(task);
+    }
+
+    private static AbstractObj[] toArray(Iterable iterable) {
+        checkNotNull(iterable, "iterable cannot be null");
+
+        java.util.List<AbstractObj> data = new ArrayList<>();
+        for (Iterator it = iterable._iter_(); it.hasNext() == TRUE; ) {
+            data.add(it.next());
+        }
+
+        return data.toArray(new AbstractObj[data.size()]);
+    }
+
+    /**
+     * Applies a function to each element of a range of an array, storing the results at the same
+     * indices of another array.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private static final class Map extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final AbstractObj[] data;
+        private final AbstractObj[] results;
+        private final int from;
+        private final int to;
+        private final Function function;
+
+        Map(AbstractObj[] data, AbstractObj[] results, int from, int to, Function function) {
+            this.data = data;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.function = function;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = checkNotNull(function.apply(data[i]),
+                            "function cannot return null");
+                }
+
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+
+            invokeAll(new Map(data, results, from, mid, function), new Map(data, results, mid, to,
+                    function));
+        }
+    }
+
+    /**
+     * Reduces a range of an array with an associative function. If there is no identity, the
+     * range must not be empty.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private static final class Reduce extends RecursiveTask<AbstractObj> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final AbstractObj[] data;
+        private final int from;
+        private final int to;
+        private final AbstractObj identity;
+        private final BinaryFunction function;
+
+        Reduce(AbstractObj[] data, int from, int to, AbstractObj identity,
+                BinaryFunction function) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.identity = identity;
+            this.function = function;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected AbstractObj compute() {
+            if (to - from <= THRESHOLD) {
+                AbstractObj result = identity != null ? identity : data[from];
+                for (int i = identity != null ? from : from + 1; i < to; i++) {
+                    result = checkNotNull(function.apply(result, data[i]),
+                            "function cannot return null");
+                }
+
+                return result;
+            }
+
+            int mid = (from + to) >>> 1;
+
+            Reduce left = new Reduce(data, from, mid, identity, function);
+            left.fork();
+            AbstractObj right = new Reduce(data, mid, to, identity, function).compute();
+
+            return checkNotNull(function.apply(left.join(), right), "function cannot return null");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package qux.util;
+
+import qux.lang.AbstractObj;
+
+/**
+ * A function of one argument, as used by the bulk operations in {@link qux.util.Bulk}. Functions
+ * passed to the bulk operations may be applied concurrently, so they must be pure.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public interface Function {
+
+    AbstractObj apply(AbstractObj obj);
+}
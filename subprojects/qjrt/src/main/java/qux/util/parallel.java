@@ -0,0 +1,45 @@
+package qux.util;
+
+import qux.lang.AbstractObj;
+import qux.lang.Int;
+import qux.lang.List;
+import qux.lang.Set;
+
+/**
+ * The {@code qux.util.parallel} module, exposing the operations of {@link qux.util.Bulk} that don't
+ * take a function to Qux code, for example {@code qux.util.parallel$sort(xs)}. The class is named
+ * in lower case as Qux requires all of the identifiers of a module reference to be.
+ * <p>
+ * The functions take lists, as a call passes its arguments with their static types and a list
+ * literal or range is always statically a list.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class parallel {
+
+    /**
+     * This class cannot be instantiated.
+     */
+    private parallel() {}
+
+    public static AbstractObj max(List list) {
+        return Bulk.max(list);
+    }
+
+    public static AbstractObj min(List list) {
+        return Bulk.min(list);
+    }
+
+    public static List sort(List list) {
+        return Bulk.sort(list);
+    }
+
+    public static Int sum(List list) {
+        return Bulk.sum(list);
+    }
+
+    public static Set toSet(List list) {
+        return Bulk.toSet(list);
+    }
+}
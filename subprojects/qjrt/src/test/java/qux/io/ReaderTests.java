@@ -0,0 +1,124 @@
+package qux.io;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks that a {@link qux.io.Reader} reads records that cross the boundaries of its windows. The
+ * windows are made a few bytes wide so that the crossing paths are taken.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class ReaderTests {
+
+    private Path path;
+
+    @Before
+    public void setUp() throws IOException {
+        path = Files.createTempFile("ReaderTests", null);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void testCarriageReturnAtBoundary() throws IOException {
+        write("x\nab\r\ncd\r\n");
+
+        // The carriage return is the last byte of the first window
+        assertEquals(Arrays.asList("x", "ab", "cd"), read((byte) '\n', 5));
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        write("");
+
+        Reader reader = new Reader(path, (byte) '\n', 4);
+        try {
+            assertFalse(reader.hasNext());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testMultiByteCharacterAtBoundary() throws IOException {
+        write("x\na\u00e9\u20ac\nb\n");
+
+        // The first window ends part way through the euro sign
+        assertEquals(Arrays.asList("x", "a\u00e9\u20ac", "b"), read((byte) '\n', 7));
+    }
+
+    @Test
+    public void testRecordsAcrossWindows() throws IOException {
+        List<String> expected = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            String record = repeat('a' + i % 26, i % 7);
+
+            expected.add(record);
+            sb.append(record).append(';');
+        }
+        write(sb.toString());
+
+        for (int windowSize = 8; windowSize <= 16; windowSize++) {
+            assertEquals("window " + windowSize, expected, read((byte) ';', windowSize));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRecordLargerThanWindow() throws IOException {
+        write("ab\nabcdefgh\n");
+
+        read((byte) '\n', 4);
+    }
+
+    @Test
+    public void testWindowAlignedRecords() throws IOException {
+        write("abc\ndef\nghi\njk");
+
+        assertEquals(Arrays.asList("abc", "def", "ghi", "jk"), read((byte) '\n', 4));
+        assertEquals(Arrays.asList("abc", "def", "ghi", "jk"), read((byte) '\n', 16));
+    }
+
+    private List<String> read(byte delimiter, int windowSize) throws IOException {
+        List<String> records = new ArrayList<>();
+
+        Reader reader = new Reader(path, delimiter, windowSize);
+        try {
+            while (reader.hasNext()) {
+                records.add(reader.next().toString());
+            }
+        } finally {
+            reader.close();
+        }
+
+        return records;
+    }
+
+    private static String repeat(int c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, (char) c);
+
+        return new String(chars);
+    }
+
+    private void write(String contents) throws IOException {
+        Files.write(path, contents.getBytes(UTF_8));
+    }
+}
@@ -0,0 +1,146 @@
+package qux.lang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+
+/**
+ * Checks that splitting an {@link qux.lang.IndexSpliterator} covers every index exactly once.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class IndexSpliteratorTests {
+
+    private static final int[] SIZES = {0, 1, 2, 3, 7, 8, 100, 101};
+
+    @Test
+    public void testCharacteristics() {
+        Spliterator<AbstractObj> spliterator = new IntSpliterator(0, 10);
+
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+    }
+
+    @Test
+    public void testSplitAfterAdvance() {
+        for (int size : SIZES) {
+            IntSpliterator spliterator = new IntSpliterator(0, size);
+
+            List<Integer> seen = new ArrayList<>();
+            if (spliterator.tryAdvance(obj -> seen.add(toInt(obj)))) {
+                assertEquals(size - 1, spliterator.estimateSize());
+            }
+
+            visit(spliterator, seen);
+
+            assertCovered(size, seen);
+        }
+    }
+
+    @Test
+    public void testSplitCoversEveryIndexOnce() {
+        for (int size : SIZES) {
+            List<Integer> seen = new ArrayList<>();
+            visit(new IntSpliterator(0, size), seen);
+
+            assertCovered(size, seen);
+        }
+    }
+
+    @Test
+    public void testSplitSizes() {
+        for (int size : SIZES) {
+            IntSpliterator spliterator = new IntSpliterator(0, size);
+            Spliterator<AbstractObj> prefix = spliterator.trySplit();
+
+            if (size < 2) {
+                assertNull("size " + size, prefix);
+                assertEquals(size, spliterator.estimateSize());
+            } else {
+                // The prefix is the smaller half of an odd range
+                assertEquals(size / 2, prefix.estimateSize());
+                assertEquals(size - size / 2, spliterator.estimateSize());
+            }
+        }
+    }
+
+    @Test
+    public void testTryAdvanceEmpty() {
+        IntSpliterator spliterator = new IntSpliterator(0, 0);
+
+        assertFalse(spliterator.tryAdvance(obj -> {
+            throw new AssertionError("action applied to an empty spliterator");
+        }));
+        assertNull(spliterator.trySplit());
+    }
+
+    private static void assertCovered(int size, List<Integer> seen) {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            expected.add(i);
+        }
+
+        // Prefixes are visited before their suffixes, so the order is kept too
+        assertEquals("size " + size, expected, seen);
+    }
+
+    private static int toInt(AbstractObj obj) {
+        return ((Int) obj).intValue();
+    }
+
+    /**
+     * Splits the given spliterator recursively, visiting the prefixes before the suffixes.
+     */
+    private static void visit(Spliterator<AbstractObj> spliterator, List<Integer> seen) {
+        long size = spliterator.estimateSize();
+        Spliterator<AbstractObj> prefix = spliterator.trySplit();
+
+        if (prefix == null) {
+            spliterator.forEachRemaining(obj -> seen.add(toInt(obj)));
+            return;
+        }
+
+        assertEquals(size, prefix.estimateSize() + spliterator.estimateSize());
+
+        visit(prefix, seen);
+        visit(spliterator, seen);
+    }
+
+    /**
+     * A spliterator whose elements are their indices.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private static final class IntSpliterator extends IndexSpliterator {
+
+        IntSpliterator(int from, int to) {
+            super(from, to, ORDERED);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        AbstractObj get(int index) {
+            return Int.valueOf(index);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        IndexSpliterator split(int from, int to) {
+            return new IntSpliterator(from, to);
+        }
+    }
+}
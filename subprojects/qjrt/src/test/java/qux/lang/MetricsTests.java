@@ -0,0 +1,167 @@
+package qux.lang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Checks that the runtime counts the events on its instrumented paths. The counters are only
+ * enabled if the {@value qux.lang.Metrics#PROPERTY_ENABLED} system property is set when the runtime
+ * is loaded, which the build does for these tests.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class MetricsTests {
+
+    private final Metrics metrics = Metrics.getInstance();
+
+    @Before
+    public void setUp() {
+        assumeTrue(Metrics.isEnabled());
+    }
+
+    @Test
+    public void testArrayCopy() {
+        List list = List.valueOf(1, 2, 3);
+
+        long copies = metrics.getArrayCopies();
+        // Widens the primitive vector
+        list._assign_(Int.ZERO, Str.valueOf("foo"));
+
+        assertEquals(copies + 1, metrics.getArrayCopies());
+    }
+
+    @Test
+    public void testDup() {
+        List list = List.valueOf(1, 2, 3);
+
+        long dups = metrics.getDups();
+        list._dup_();
+        list._dup_();
+
+        assertEquals(dups + 2, metrics.getDups());
+    }
+
+    @Test
+    public void testInlineCacheMiss() throws Throwable {
+        MethodHandle site = InlineCache.bootstrap(MethodHandles.lookup(), "_add_",
+                MethodType.methodType(AbstractObj.class, AbstractObj.class, AbstractObj.class))
+                .dynamicInvoker();
+
+        long misses = metrics.getInlineCacheMisses();
+        assertEquals(Int.valueOf(3), site.invoke((AbstractObj) Int.ONE, (AbstractObj) Int.TWO));
+        assertEquals(misses + 1, metrics.getInlineCacheMisses());
+
+        // Linked for ints, so only the rats miss
+        assertEquals(Int.valueOf(5), site.invoke((AbstractObj) Int.TWO, (AbstractObj) Int.valueOf(
+                3)));
+        assertEquals(Rat.valueOf(3), site.invoke((AbstractObj) Rat.valueOf(1), (AbstractObj) Rat
+                .valueOf(2)));
+        assertEquals(misses + 2, metrics.getInlineCacheMisses());
+    }
+
+    @Test
+    public void testIntCache() {
+        long hits = metrics.getIntCacheHits();
+        long misses = metrics.getIntCacheMisses();
+
+        Int.valueOf(1);
+        Int.valueOf(Long.MAX_VALUE);
+        Int.valueOf(Long.MIN_VALUE);
+
+        assertEquals(hits + 1, metrics.getIntCacheHits());
+        assertEquals(misses + 2, metrics.getIntCacheMisses());
+    }
+
+    @Test
+    public void testMetaCache() {
+        Meta inner = Meta.forSet(Meta.forList(Meta.META_STR));
+
+        long hits = metrics.getMetaCacheHits();
+        long misses = metrics.getMetaCacheMisses();
+
+        // The list meta of str was interned above, the list meta of the set wasn't
+        Meta.forList(Meta.META_STR);
+        Meta.forList(inner);
+        Meta.forList(inner);
+
+        assertEquals(hits + 2, metrics.getMetaCacheHits());
+        assertEquals(misses + 1, metrics.getMetaCacheMisses());
+    }
+
+    @Test
+    public void testNodeCopy() {
+        AbstractObj[] values = new AbstractObj[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Str.valueOf(String.valueOf(i));
+        }
+        List list = List.valueOf(values);
+        List dup = list._dup_();
+
+        long copies = metrics.getNodeCopies();
+        dup._assign_(Int.valueOf(50), Str.valueOf("foo"));
+
+        assertTrue(metrics.getNodeCopies() > copies);
+        assertEquals(Str.valueOf("50"), list._access_(Int.valueOf(50)));
+    }
+
+    @Test
+    public void testRatCache() {
+        long hits = metrics.getRatCacheHits();
+        long misses = metrics.getRatCacheMisses();
+
+        Rat.valueOf(0);
+        Rat.valueOf(7);
+        Rat.valueOf(Long.MAX_VALUE);
+
+        assertEquals(hits + 2, metrics.getRatCacheHits());
+        assertEquals(misses + 1, metrics.getRatCacheMisses());
+    }
+
+    @Test
+    public void testRegistered() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(Metrics.NAME);
+
+        assertTrue(server.isRegistered(name));
+
+        Int.valueOf(1);
+        assertEquals(metrics.getIntCacheHits(), server.getAttribute(name, "IntCacheHits"));
+    }
+
+    @Test
+    public void testReset() {
+        Int.valueOf(1);
+        Rat.valueOf(1);
+        List.valueOf(1)._dup_();
+
+        metrics.reset();
+
+        assertEquals(0, metrics.getArrayCopies());
+        assertEquals(0, metrics.getDups());
+        assertEquals(0, metrics.getInlineCacheMisses());
+        assertEquals(0, metrics.getIntCacheHits());
+        assertEquals(0, metrics.getIntCacheMisses());
+        assertEquals(0, metrics.getMetaCacheHits());
+        assertEquals(0, metrics.getMetaCacheMisses());
+        assertEquals(0, metrics.getNodeCopies());
+        assertEquals(0, metrics.getRatCacheHits());
+        assertEquals(0, metrics.getRatCacheMisses());
+
+        Int.valueOf(1);
+        assertEquals(1, metrics.getIntCacheHits());
+    }
+}
@@ -0,0 +1,174 @@
+package qux.lang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Checks that the Java views of lists, sets and records are read only and reflect the values they
+ * view.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class ViewTests {
+
+    @Test
+    public void testJavaListReadOnly() {
+        java.util.List<AbstractObj> view = List.valueOf(1, 2, 3).asJavaList();
+
+        assertUnsupported(() -> view.add(Int.ONE));
+        assertUnsupported(() -> view.set(0, Int.ONE));
+        assertUnsupported(() -> view.remove(0));
+        assertUnsupported(view::clear);
+        assertUnsupported(() -> {
+            java.util.Iterator<AbstractObj> it = view.iterator();
+            it.next();
+            it.remove();
+        });
+    }
+
+    @Test
+    public void testJavaListReflectsWrites() {
+        List list = List.valueOf(1, 2, 3);
+        java.util.List<AbstractObj> view = list.asJavaList();
+
+        list._assign_(Int.ZERO, Str.valueOf("foo"));
+        list.add(Int.valueOf(4));
+
+        assertEquals(Arrays.asList(Str.valueOf("foo"), Int.TWO, Int.valueOf(3), Int.valueOf(4)),
+                view);
+        assertEquals(3, view.indexOf(Int.valueOf(4)));
+        assertEquals(-1, view.indexOf(Int.ONE));
+        assertEquals(-1, view.indexOf("foo"));
+    }
+
+    @Test
+    public void testJavaListOfRange() {
+        java.util.List<AbstractObj> view = Int.valueOf(-2)._rng_(Int.valueOf(3)).asJavaList();
+
+        assertEquals(Arrays.asList(Int.valueOf(-2), Int.M_ONE, Int.ZERO, Int.ONE, Int.TWO), view);
+        assertEquals(4, view.indexOf(Int.TWO));
+        assertEquals(-1, view.indexOf(Int.valueOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testJavaMapReadOnly() {
+        Map<String, AbstractObj> view = record().asJavaMap();
+
+        assertUnsupported(() -> view.put("a", Int.ONE));
+        assertUnsupported(() -> view.remove("a"));
+        assertUnsupported(view::clear);
+        assertUnsupported(() -> view.entrySet().iterator().next().setValue(Int.ONE));
+    }
+
+    @Test
+    public void testJavaMapReflectsWrites() {
+        Record record = record();
+        Map<String, AbstractObj> view = record.asJavaMap();
+
+        record._assign_("b", Str.valueOf("bar"));
+
+        Map<String, AbstractObj> expected = new TreeMap<>();
+        expected.put("a", Int.ONE);
+        expected.put("b", Str.valueOf("bar"));
+
+        assertEquals(expected, view);
+        assertEquals(Str.valueOf("bar"), view.get("b"));
+        assertTrue(view.containsKey("a"));
+        assertFalse(view.containsKey("c"));
+        assertEquals(Arrays.asList("a", "b"), new ArrayList<>(view.keySet()));
+    }
+
+    @Test
+    public void testJavaSetReadOnly() {
+        java.util.Set<AbstractObj> view = Set.valueOf(1, 2, 3).asJavaSet();
+
+        assertUnsupported(() -> view.add(Int.valueOf(4)));
+        assertUnsupported(() -> view.remove(Int.ONE));
+        assertUnsupported(view::clear);
+        assertUnsupported(() -> {
+            java.util.Iterator<AbstractObj> it = view.iterator();
+            it.next();
+            it.remove();
+        });
+    }
+
+    @Test
+    public void testJavaSetReflectsWrites() {
+        Set set = Set.valueOf(1, 2, 3);
+        java.util.Set<AbstractObj> view = set.asJavaSet();
+
+        set.add(Int.valueOf(4));
+        set.remove(Int.ONE);
+
+        assertEquals(3, view.size());
+        assertTrue(view.contains(Int.valueOf(4)));
+        assertFalse(view.contains(Int.ONE));
+        assertFalse(view.contains("foo"));
+        assertEquals(new java.util.HashSet<>(Arrays.asList(Int.TWO, Int.valueOf(3), Int.valueOf(
+                4))), view);
+    }
+
+    @Test
+    public void testListSpliteratorIsSnapshot() {
+        List list = List.valueOf(1, 2, 3);
+        Spliterator<AbstractObj> spliterator = list.spliterator();
+
+        list._assign_(Int.ZERO, Int.valueOf(5));
+
+        assertEquals(Arrays.asList(Int.ONE, Int.TWO, Int.valueOf(3)), StreamSupport.stream(
+                spliterator, false).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testParallelStreams() {
+        long[] values = new long[1001];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = values.length - i;
+        }
+
+        java.util.List<AbstractObj> expected = new ArrayList<>(List.valueOf(values).asJavaList());
+
+        assertEquals(expected, List.valueOf(values).asJavaList().parallelStream().collect(
+                Collectors.toList()));
+
+        assertEquals(new java.util.HashSet<>(expected), Set.valueOf(values).asJavaSet()
+                .parallelStream().collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void testSetSpliteratorIsSnapshot() {
+        Set set = Set.valueOf(1, 2, 3);
+        Spliterator<AbstractObj> spliterator = set.spliterator();
+
+        set.add(Int.valueOf(4));
+
+        assertEquals(3, spliterator.estimateSize());
+        assertEquals(3, StreamSupport.stream(spliterator, false).count());
+    }
+
+    private static void assertUnsupported(Runnable runnable) {
+        try {
+            runnable.run();
+            fail("view was written to");
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+    }
+
+    private static Record record() {
+        return Record.valueOf(new String[] {"a", "b"}, new AbstractObj[] {Int.ONE, Int.TWO});
+    }
+}
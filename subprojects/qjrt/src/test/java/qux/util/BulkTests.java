@@ -0,0 +1,195 @@
+package qux.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static qux.lang.Bool.FALSE;
+import static qux.lang.Bool.TRUE;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.TreeSet;
+
+import qux.lang.AbstractObj;
+import qux.lang.Int;
+import qux.lang.List;
+import qux.lang.Set;
+
+/**
+ * Checks that the bulk operations give the same results as sequential code, for inputs on either
+ * side of {@link qux.util.Bulk#THRESHOLD}.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class BulkTests {
+
+    private static final int[] SIZES = {0, 1, 2, Bulk.THRESHOLD - 1, Bulk.THRESHOLD,
+            Bulk.THRESHOLD + 1, 4 * Bulk.THRESHOLD + 3};
+
+    private static final Function SQUARE = new Function() {
+        @Override
+        public AbstractObj apply(AbstractObj obj) {
+            return ((Int) obj)._mul_((Int) obj);
+        }
+    };
+
+    private static final Function EVEN = new Function() {
+        @Override
+        public AbstractObj apply(AbstractObj obj) {
+            return ((Int) obj)._rem_(Int.TWO).equalTo(Int.ZERO) ? TRUE : FALSE;
+        }
+    };
+
+    @Test
+    public void testFilter() {
+        for (int size : SIZES) {
+            java.util.List<AbstractObj> values = values(size);
+
+            java.util.List<AbstractObj> expected = new ArrayList<>();
+            for (AbstractObj value : values) {
+                if (EVEN.apply(value) == TRUE) {
+                    expected.add(value);
+                }
+            }
+
+            assertEquals("size " + size, toList(expected), Bulk.filter(toList(values), EVEN));
+        }
+    }
+
+    @Test
+    public void testMap() {
+        for (int size : SIZES) {
+            java.util.List<AbstractObj> values = values(size);
+
+            java.util.List<AbstractObj> expected = new ArrayList<>();
+            for (AbstractObj value : values) {
+                expected.add(SQUARE.apply(value));
+            }
+
+            assertEquals("size " + size, toList(expected), Bulk.map(toList(values), SQUARE));
+        }
+    }
+
+    @Test
+    public void testMax() {
+        for (int size : SIZES) {
+            if (size == 0) {
+                continue;
+            }
+
+            java.util.List<AbstractObj> values = values(size);
+
+            assertEquals("size " + size, Collections.max(values, Bulk.ORDER), Bulk.max(toList(
+                    values)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxEmpty() {
+        Bulk.max(List.valueOf());
+    }
+
+    @Test
+    public void testMin() {
+        for (int size : SIZES) {
+            if (size == 0) {
+                continue;
+            }
+
+            java.util.List<AbstractObj> values = values(size);
+
+            assertEquals("size " + size, Collections.min(values, Bulk.ORDER), Bulk.min(toList(
+                    values)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMinEmpty() {
+        Bulk.min(List.valueOf());
+    }
+
+    @Test
+    public void testReduceEmpty() {
+        assertSame(Int.ONE, Bulk.reduce(List.valueOf(), Int.ONE, new BinaryFunction() {
+            @Override
+            public AbstractObj apply(AbstractObj a, AbstractObj b) {
+                throw new AssertionError("function applied to an empty iterable");
+            }
+        }));
+    }
+
+    @Test
+    public void testSort() {
+        for (int size : SIZES) {
+            java.util.List<AbstractObj> values = values(size);
+            List list = toList(values);
+
+            java.util.List<AbstractObj> expected = new ArrayList<>(values);
+            Collections.sort(expected, Bulk.ORDER);
+
+            assertEquals("size " + size, toList(expected), Bulk.sort(list));
+            // The input is left as it was
+            assertEquals("size " + size, toList(values), list);
+        }
+    }
+
+    @Test
+    public void testSum() {
+        for (int size : SIZES) {
+            java.util.List<AbstractObj> values = values(size);
+
+            Int expected = Int.ZERO;
+            for (AbstractObj value : values) {
+                expected = expected._add_((Int) value);
+            }
+
+            assertEquals("size " + size, expected, Bulk.sum(toList(values)));
+        }
+    }
+
+    @Test
+    public void testSumOverflow() {
+        Int max = Int.valueOf(Long.MAX_VALUE);
+
+        AbstractObj[] values = new AbstractObj[2 * Bulk.THRESHOLD];
+        Arrays.fill(values, max);
+
+        assertEquals(Int.valueOf(java.math.BigInteger.valueOf(Long.MAX_VALUE).multiply(
+                java.math.BigInteger.valueOf(values.length))), Bulk.sum(List.valueOf(values)));
+    }
+
+    @Test
+    public void testToSet() {
+        for (int size : SIZES) {
+            java.util.List<AbstractObj> values = values(size);
+
+            java.util.Set<AbstractObj> expected = new TreeSet<>(Bulk.ORDER);
+            expected.addAll(values);
+
+            assertEquals("size " + size, Set.valueOf(expected.toArray(new AbstractObj[0])),
+                    Bulk.toSet(toList(values)));
+        }
+    }
+
+    private static List toList(java.util.List<AbstractObj> values) {
+        return List.valueOf(values.toArray(new AbstractObj[values.size()]));
+    }
+
+    /**
+     * Creates a reproducible list of ints of the given size with some duplicates among them.
+     */
+    private static java.util.List<AbstractObj> values(int size) {
+        Random random = new Random(size);
+
+        java.util.List<AbstractObj> values = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            values.add(Int.valueOf(random.nextInt(Math.max(size / 2, 1)) - size / 4));
+        }
+
+        return values;
+    }
+}
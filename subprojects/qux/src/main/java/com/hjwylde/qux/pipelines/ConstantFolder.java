@@ -0,0 +1,875 @@
+package com.hjwylde.qux.pipelines;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.hjwylde.common.error.MethodNotImplementedError;
+import com.hjwylde.qbs.builder.QuxContext;
+import com.hjwylde.qux.api.ExprVisitor;
+import com.hjwylde.qux.api.StmtVisitor;
+import com.hjwylde.qux.builder.AbstractControlFlowGraphListener;
+import com.hjwylde.qux.builder.ControlFlowGraph;
+import com.hjwylde.qux.builder.ControlFlowGraphEdge;
+import com.hjwylde.qux.builder.ControlFlowGraphIterator;
+import com.hjwylde.qux.tree.ConstantNode;
+import com.hjwylde.qux.tree.ExprNode;
+import com.hjwylde.qux.tree.FunctionNode;
+import com.hjwylde.qux.tree.QuxNode;
+import com.hjwylde.qux.tree.StmtNode;
+import com.hjwylde.qux.tree.TypeNode;
+import com.hjwylde.qux.util.Attribute;
+import com.hjwylde.qux.util.Attributes;
+import com.hjwylde.qux.util.Identifier;
+import com.hjwylde.qux.util.Op;
+
+import org.jgrapht.event.VertexTraversalEvent;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * TODO: Documentation
+ * <p>
+ * Evaluates the pure operators over literal values at compile time and replaces them with the
+ * resulting value, e.g., {@code 2 ** 10} becomes {@code 1024}. The semantics of the runtime types
+ * are respected: an operator that would fail at runtime, such as a division by zero, is left as
+ * is.
+ * <p>
+ * Constants in the same file, and locals, that hold an immutable literal value are propagated into
+ * the expressions that use them. Locals are propagated along the control flow graph, a local
+ * only holds a literal value at a statement if it holds the same value on every path to the
+ * statement. Strings are only folded and not propagated as they may be updated in place.
+ * <p>
+ * The statements are immutable, so this pipeline returns a new node with new functions, and a new
+ * control flow graph for each function.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class ConstantFolder extends Pipeline {
+
+    /**
+     * The maximum number of bits of a folded exponentiation, larger results are left to be
+     * computed at runtime rather than bloating the class file.
+     */
+    private static final long MAX_EXP_BITS = 1024;
+
+    public ConstantFolder(QuxContext context) {
+        super(context);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QuxNode apply(QuxNode node) {
+        Map<Identifier, ExprNode> exprs = new LinkedHashMap<>();
+        Map<Identifier, ExprNode.Value> values = new HashMap<>();
+
+        for (ConstantNode constant : node.getConstants()) {
+            exprs.put(constant.getName(), constant.getExpr());
+        }
+
+        // Constants may refer to constants defined after them, so fold until nothing changes
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (Map.Entry<Identifier, ExprNode> entry : exprs.entrySet()) {
+                if (values.containsKey(entry.getKey())) {
+                    continue;
+                }
+
+                ExprFolder folder = new ExprFolder(node, values, new HashMap<>());
+                entry.getValue().accept(folder);
+                entry.setValue(folder.getResult());
+
+                if (isPropagatable(folder.getResult())) {
+                    values.put(entry.getKey(), (ExprNode.Value) folder.getResult());
+                    changed = true;
+                }
+            }
+        }
+
+        QuxNode folded = new QuxNode(node.getAttributes());
+        folded.visit(node.getName());
+        folded.visitPackage(node.getPackage());
+
+        for (ConstantNode constant : node.getConstants()) {
+            ConstantNode cn = (ConstantNode) folded.visitConstant(constant.getFlags(),
+                    constant.getName(), constant.getType());
+            cn.addAttributes(constant.getAttributes());
+
+            cn.visitExpr(exprs.get(constant.getName()));
+            cn.visitEnd();
+        }
+
+        for (FunctionNode function : node.getFunctions()) {
+            apply(node, values, function, (FunctionNode) folded.visitFunction(
+                    function.getFlags(), function.getName(), function.getType()));
+        }
+
+        for (TypeNode type : node.getTypes()) {
+            TypeNode tn = (TypeNode) folded.visitType(type.getFlags(), type.getName());
+            tn.addAttributes(type.getAttributes());
+
+            type.accept(tn);
+            tn.visitEnd();
+        }
+
+        folded.visitEnd();
+
+        return folded;
+    }
+
+    private static void apply(QuxNode node, Map<Identifier, ExprNode.Value> constants,
+            FunctionNode function, FunctionNode folded) {
+        ControlFlowGraph cfg = Attributes.getAttributeUnchecked(function,
+                Attribute.ControlFlowGraph.class).getControlFlowGraph();
+
+        FunctionConstantPropagator listener = new FunctionConstantPropagator(function, cfg, node,
+                constants);
+
+        while (!listener.isFinished()) {
+            ControlFlowGraphIterator it = new ControlFlowGraphIterator(cfg);
+            it.addTraversalListener(listener);
+
+            listener.notifyTraversalStarted();
+            while (it.hasNext()) {
+                it.next();
+            }
+            listener.notifyTraversalFinished();
+        }
+
+        function.getParameters().forEach(folded::visitParameter);
+
+        folded.visitCode();
+
+        listener.fold(function.getStmts()).forEach(stmt -> stmt.accept(folded));
+
+        for (Attribute attribute : function.getAttributes()) {
+            if (!(attribute instanceof Attribute.ControlFlowGraph)) {
+                folded.addAttributes(attribute);
+            }
+        }
+        folded.addAttributes(new Attribute.ControlFlowGraph(ControlFlowGraph.of(folded)));
+
+        folded.visitEnd();
+    }
+
+    private static Optional<Object> evaluate(Op.Binary op, BigInteger lhs, BigInteger rhs) {
+        switch (op) {
+            case ADD:
+                return Optional.of(lhs.add(rhs));
+            case AND:
+                return Optional.of(lhs.and(rhs));
+            case DIV:
+                if (rhs.signum() == 0) {
+                    return Optional.empty();
+                }
+
+                return evaluate(op, new BigDecimal(lhs), new BigDecimal(rhs));
+            case EQ:
+                return Optional.of(lhs.equals(rhs));
+            case EXP:
+                if (rhs.signum() < 0 || rhs.bitLength() >= 32
+                        || lhs.bitLength() * rhs.longValue() > MAX_EXP_BITS) {
+                    return Optional.empty();
+                }
+
+                return Optional.of(lhs.pow(rhs.intValue()));
+            case GT:
+                return Optional.of(lhs.compareTo(rhs) > 0);
+            case GTE:
+                return Optional.of(lhs.compareTo(rhs) >= 0);
+            case IDIV:
+                if (rhs.signum() == 0) {
+                    return Optional.empty();
+                }
+
+                return Optional.of(lhs.divide(rhs));
+            case LT:
+                return Optional.of(lhs.compareTo(rhs) < 0);
+            case LTE:
+                return Optional.of(lhs.compareTo(rhs) <= 0);
+            case MUL:
+                return Optional.of(lhs.multiply(rhs));
+            case NEQ:
+                return Optional.of(!lhs.equals(rhs));
+            case OR:
+                return Optional.of(lhs.or(rhs));
+            case REM:
+                if (rhs.signum() == 0) {
+                    return Optional.empty();
+                }
+
+                return Optional.of(lhs.remainder(rhs));
+            case SUB:
+                return Optional.of(lhs.subtract(rhs));
+            case XOR:
+                return Optional.of(lhs.xor(rhs));
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private static Optional<Object> evaluate(Op.Binary op, BigDecimal lhs, BigDecimal rhs) {
+        switch (op) {
+            case ADD:
+                return Optional.of(lhs.add(rhs));
+            case DIV:
+                if (rhs.signum() == 0) {
+                    return Optional.empty();
+                }
+
+                try {
+                    return Optional.of(lhs.divide(rhs));
+                } catch (ArithmeticException e) {
+                    // The quotient doesn't have a terminating decimal expansion
+                    return Optional.empty();
+                }
+            case EQ:
+                return Optional.of(lhs.compareTo(rhs) == 0);
+            case GT:
+                return Optional.of(lhs.compareTo(rhs) > 0);
+            case GTE:
+                return Optional.of(lhs.compareTo(rhs) >= 0);
+            case LT:
+                return Optional.of(lhs.compareTo(rhs) < 0);
+            case LTE:
+                return Optional.of(lhs.compareTo(rhs) <= 0);
+            case MUL:
+                return Optional.of(lhs.multiply(rhs));
+            case NEQ:
+                return Optional.of(lhs.compareTo(rhs) != 0);
+            case SUB:
+                return Optional.of(lhs.subtract(rhs));
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private static Optional<Object> evaluate(Op.Binary op, boolean lhs, boolean rhs) {
+        switch (op) {
+            case AND:
+                return Optional.of(lhs && rhs);
+            case EQ:
+            case IFF:
+                return Optional.of(lhs == rhs);
+            case IMP:
+                return Optional.of(!lhs || rhs);
+            case NEQ:
+            case XOR:
+                return Optional.of(lhs != rhs);
+            case OR:
+                return Optional.of(lhs || rhs);
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private static Optional<Object> evaluate(Op.Binary op, String lhs, String rhs) {
+        switch (op) {
+            case ADD:
+                return Optional.of(lhs + rhs);
+            case EQ:
+                return Optional.of(lhs.equals(rhs));
+            case NEQ:
+                return Optional.of(!lhs.equals(rhs));
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private static Optional<ExprNode.Value> evaluate(ExprNode.Binary expr, ExprNode.Value lhs,
+            ExprNode.Value rhs) {
+        if (lhs.getType() != rhs.getType()) {
+            return Optional.empty();
+        }
+
+        Optional<Object> value;
+        switch (lhs.getType()) {
+            case BOOL:
+                value = evaluate(expr.getOp(), (boolean) lhs.getValue(), (boolean) rhs.getValue());
+                break;
+            case INT:
+                value = evaluate(expr.getOp(), (BigInteger) lhs.getValue(),
+                        (BigInteger) rhs.getValue());
+                break;
+            case NULL:
+                if (expr.getOp() == Op.Binary.EQ || expr.getOp() == Op.Binary.NEQ) {
+                    value = Optional.of(expr.getOp() == Op.Binary.EQ);
+                } else {
+                    value = Optional.empty();
+                }
+                break;
+            case RAT:
+                value = evaluate(expr.getOp(), (BigDecimal) lhs.getValue(),
+                        (BigDecimal) rhs.getValue());
+                break;
+            case STR:
+                value = evaluate(expr.getOp(), (String) lhs.getValue(), (String) rhs.getValue());
+                break;
+            default:
+                value = Optional.empty();
+        }
+
+        return value.map(v -> newValue(expr, v));
+    }
+
+    private static Optional<ExprNode.Value> evaluate(ExprNode.Unary expr, ExprNode.Value target) {
+        switch (expr.getOp()) {
+            case NEG:
+                if (target.getType() == ExprNode.Value.Type.INT) {
+                    return Optional.of(newValue(expr, ((BigInteger) target.getValue()).negate()));
+                } else if (target.getType() == ExprNode.Value.Type.RAT) {
+                    return Optional.of(newValue(expr, ((BigDecimal) target.getValue()).negate()));
+                }
+                break;
+            case NOT:
+                if (target.getType() == ExprNode.Value.Type.BOOL) {
+                    return Optional.of(newValue(expr, !(boolean) target.getValue()));
+                }
+                break;
+            default:
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Checks whether the given expression is a literal value that may be propagated. Only the
+     * values of the immutable types are propagated.
+     */
+    private static boolean isPropagatable(ExprNode expr) {
+        if (!(expr instanceof ExprNode.Value)) {
+            return false;
+        }
+
+        switch (((ExprNode.Value) expr).getType()) {
+            case BOOL:
+            case INT:
+            case NULL:
+            case RAT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isSameValue(ExprNode.Value lhs, ExprNode.Value rhs) {
+        return lhs.getType() == rhs.getType() && Objects.equals(lhs.getValue(), rhs.getValue());
+    }
+
+    /**
+     * Creates a new value to replace the given expression. The value takes the attributes of the
+     * expression, so it keeps its type and source.
+     */
+    private static ExprNode.Value newValue(ExprNode expr, Object value) {
+        ExprNode.Value.Type type;
+        if (value instanceof Boolean) {
+            type = ExprNode.Value.Type.BOOL;
+        } else if (value instanceof BigInteger) {
+            type = ExprNode.Value.Type.INT;
+        } else if (value instanceof BigDecimal) {
+            type = ExprNode.Value.Type.RAT;
+        } else if (value instanceof String) {
+            type = ExprNode.Value.Type.STR;
+        } else {
+            throw new MethodNotImplementedError(value.getClass().toString());
+        }
+
+        return new ExprNode.Value(type, value, expr.getAttributes());
+    }
+
+    /**
+     * Folds an expression, replacing the variables and constants that hold a literal value with
+     * the value. The given environment is updated as variables are incremented or decremented.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private static final class ExprFolder implements ExprVisitor {
+
+        private final QuxNode node;
+        private final Map<Identifier, ExprNode.Value> constants;
+        private final Map<Identifier, ExprNode.Value> env;
+
+        private ExprNode result;
+
+        public ExprFolder(QuxNode node, Map<Identifier, ExprNode.Value> constants,
+                Map<Identifier, ExprNode.Value> env) {
+            this.node = checkNotNull(node, "node cannot be null");
+            this.constants = checkNotNull(constants, "constants cannot be null");
+            this.env = checkNotNull(env, "env cannot be null");
+        }
+
+        public ExprNode getResult() {
+            return result;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprBinary(ExprNode.Binary expr) {
+            ExprNode lhs = fold(expr.getLhs());
+            ExprNode rhs = fold(expr.getRhs());
+
+            if (lhs instanceof ExprNode.Value && rhs instanceof ExprNode.Value) {
+                Optional<ExprNode.Value> value = evaluate(expr, (ExprNode.Value) lhs,
+                        (ExprNode.Value) rhs);
+
+                if (value.isPresent()) {
+                    result = value.get();
+                    return;
+                }
+            }
+
+            if (lhs == expr.getLhs() && rhs == expr.getRhs()) {
+                result = expr;
+            } else {
+                result = new ExprNode.Binary(expr.getOp(), lhs, rhs, expr.getAttributes());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprConstant(ExprNode.Constant expr) {
+            ExprNode.Value value = constants.get(expr.getName());
+
+            if (value != null && expr.getOwner().getId().equals(node.getId())) {
+                result = new ExprNode.Value(value.getType(), value.getValue(),
+                        expr.getAttributes());
+            } else {
+                result = expr;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprFunction(ExprNode.Function expr) {
+            List<ExprNode> arguments = fold(expr.getArguments());
+
+            if (arguments.equals(expr.getArguments())) {
+                result = expr;
+            } else {
+                result = new ExprNode.Function(expr.getOwner(), expr.getName(), arguments,
+                        expr.isMethodCall(), expr.getAttributes());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprList(ExprNode.List expr) {
+            List<ExprNode> values = fold(expr.getValues());
+
+            if (values.equals(expr.getValues())) {
+                result = expr;
+            } else {
+                result = new ExprNode.List(values, expr.getAttributes());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprMeta(ExprNode.Meta expr) {
+            result = expr;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprRecord(ExprNode.Record expr) {
+            Map<Identifier, ExprNode> fields = new LinkedHashMap<>();
+            for (Map.Entry<Identifier, ExprNode> field : expr.getFields().entrySet()) {
+                fields.put(field.getKey(), fold(field.getValue()));
+            }
+
+            if (fields.equals(expr.getFields())) {
+                result = expr;
+            } else {
+                result = new ExprNode.Record(fields, expr.getAttributes());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprRecordAccess(ExprNode.RecordAccess expr) {
+            ExprNode target = fold(expr.getTarget());
+
+            if (target == expr.getTarget()) {
+                result = expr;
+            } else {
+                result = new ExprNode.RecordAccess(target, expr.getField(), expr.getAttributes());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprSet(ExprNode.Set expr) {
+            List<ExprNode> values = fold(expr.getValues());
+
+            if (values.equals(expr.getValues())) {
+                result = expr;
+            } else {
+                result = new ExprNode.Set(values, expr.getAttributes());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprSlice(ExprNode.Slice expr) {
+            ExprNode target = fold(expr.getTarget());
+            ExprNode from = expr.getFrom().isPresent() ? fold(expr.getFrom().get()) : null;
+            ExprNode to = expr.getTo().isPresent() ? fold(expr.getTo().get()) : null;
+
+            if (target == expr.getTarget() && from == expr.getFrom().orElse(null)
+                    && to == expr.getTo().orElse(null)) {
+                result = expr;
+            } else {
+                result = new ExprNode.Slice(target, from, to, expr.getAttributes());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprUnary(ExprNode.Unary expr) {
+            switch (expr.getOp()) {
+                case DEC:
+                case INC:
+                    // The target is updated in place, so it must be left as is
+                    if (expr.getTarget() instanceof ExprNode.Variable) {
+                        env.remove(((ExprNode.Variable) expr.getTarget()).getName());
+                    }
+
+                    result = expr;
+                    return;
+                default:
+            }
+
+            ExprNode target = fold(expr.getTarget());
+
+            if (target instanceof ExprNode.Value) {
+                Optional<ExprNode.Value> value = evaluate(expr, (ExprNode.Value) target);
+
+                if (value.isPresent()) {
+                    result = value.get();
+                    return;
+                }
+            }
+
+            if (target == expr.getTarget()) {
+                result = expr;
+            } else {
+                result = new ExprNode.Unary(expr.getOp(), target, expr.getAttributes());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprValue(ExprNode.Value expr) {
+            result = expr;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprVariable(ExprNode.Variable expr) {
+            ExprNode.Value value = env.get(expr.getName());
+
+            if (value != null) {
+                result = new ExprNode.Value(value.getType(), value.getValue(),
+                        expr.getAttributes());
+            } else {
+                result = expr;
+            }
+        }
+
+        private ExprNode fold(ExprNode expr) {
+            expr.accept(this);
+
+            return result;
+        }
+
+        private List<ExprNode> fold(List<ExprNode> exprs) {
+            List<ExprNode> folded = new ArrayList<>();
+            for (ExprNode expr : exprs) {
+                folded.add(fold(expr));
+            }
+
+            return folded;
+        }
+    }
+
+    /**
+     * Propagates the locals that hold a literal value along the control flow graph of a function.
+     * The environment of a statement maps each local that holds a literal value before the
+     * statement to that value. Statements that haven't been reached yet are ignored when merging
+     * the environments of the incoming edges, so loops are handled optimistically.
+     * <p>
+     * Once the environments are stable, {@link #fold(java.util.List)} rebuilds the statements with
+     * their expressions folded.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private static final class FunctionConstantPropagator extends AbstractControlFlowGraphListener
+            implements StmtVisitor {
+
+        private final QuxNode node;
+        private final Map<Identifier, ExprNode.Value> constants;
+
+        private final Map<StmtNode, Map<Identifier, ExprNode.Value>> ins = new HashMap<>();
+        private final Map<StmtNode, Map<Identifier, ExprNode.Value>> outs = new HashMap<>();
+
+        private Map<Identifier, ExprNode.Value> env;
+
+        /**
+         * Whether the statements are being rebuilt, otherwise only the environments are updated.
+         */
+        private boolean rebuild;
+        private StmtNode folded;
+
+        public FunctionConstantPropagator(FunctionNode function, ControlFlowGraph cfg,
+                QuxNode node, Map<Identifier, ExprNode.Value> constants) {
+            super(function, cfg);
+
+            this.node = checkNotNull(node, "node cannot be null");
+            this.constants = checkNotNull(constants, "constants cannot be null");
+        }
+
+        public List<StmtNode> fold(List<StmtNode> stmts) {
+            Map<Identifier, ExprNode.Value> prevEnv = env;
+            boolean prevRebuild = rebuild;
+
+            rebuild = true;
+
+            List<StmtNode> folded = new ArrayList<>();
+            for (StmtNode stmt : stmts) {
+                // Statements that can't be reached have no environment
+                env = new HashMap<>(ins.getOrDefault(stmt, new HashMap<>()));
+
+                stmt.accept(this);
+                folded.add(this.folded);
+            }
+
+            env = prevEnv;
+            rebuild = prevRebuild;
+
+            return folded;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void notifyTraversalStarted() {
+            setFinished(true);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void vertexTraversed(VertexTraversalEvent<StmtNode> e) {
+            StmtNode stmt = e.getVertex();
+
+            Optional<Map<Identifier, ExprNode.Value>> in = getIncomingEnvironment(stmt);
+            if (!in.isPresent()) {
+                return;
+            }
+
+            ins.put(stmt, in.get());
+
+            env = new HashMap<>(in.get());
+            stmt.accept(this);
+
+            if (!outs.containsKey(stmt) || !isSameEnvironment(env, outs.get(stmt))) {
+                outs.put(stmt, env);
+
+                setFinished(false);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitStmtAssign(StmtNode.Assign stmt) {
+            switch (stmt.getType()) {
+                case ACCESS:
+                    ExprNode.Binary access = (ExprNode.Binary) stmt.getLhs();
+                    ExprNode index = fold(access.getRhs());
+
+                    folded = new StmtNode.Assign(stmt.getType(), new ExprNode.Binary(
+                            access.getOp(), access.getLhs(), index, access.getAttributes()), fold(
+                            stmt.getExpr()), stmt.getAttributes());
+                    break;
+                case RECORD_ACCESS:
+                    folded = new StmtNode.Assign(stmt.getType(), stmt.getLhs(), fold(
+                            stmt.getExpr()), stmt.getAttributes());
+                    break;
+                case VARIABLE:
+                    ExprNode expr = fold(stmt.getExpr());
+                    Identifier var = ((ExprNode.Variable) stmt.getLhs()).getName();
+
+                    if (isPropagatable(expr)) {
+                        env.put(var, (ExprNode.Value) expr);
+                    } else {
+                        env.remove(var);
+                    }
+
+                    folded = new StmtNode.Assign(stmt.getType(), stmt.getLhs(), expr,
+                            stmt.getAttributes());
+                    break;
+                default:
+                    throw new MethodNotImplementedError(stmt.getType().toString());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitStmtExpr(StmtNode.Expr stmt) {
+            folded = new StmtNode.Expr(fold(stmt.getExpr()), stmt.getAttributes());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitStmtFor(StmtNode.For stmt) {
+            ExprNode expr = fold(stmt.getExpr());
+
+            env.remove(stmt.getVar());
+
+            folded = new StmtNode.For(stmt.getVar(), expr, foldBlock(stmt.getBody()),
+                    stmt.getAttributes());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitStmtIf(StmtNode.If stmt) {
+            ExprNode condition = fold(stmt.getCondition());
+
+            folded = new StmtNode.If(condition, foldBlock(stmt.getTrueBlock()), foldBlock(
+                    stmt.getFalseBlock()), stmt.getAttributes());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitStmtPrint(StmtNode.Print stmt) {
+            folded = new StmtNode.Print(fold(stmt.getExpr()), stmt.getAttributes());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitStmtReturn(StmtNode.Return stmt) {
+            if (stmt.getExpr().isPresent()) {
+                folded = new StmtNode.Return(fold(stmt.getExpr().get()), stmt.getAttributes());
+            } else {
+                folded = new StmtNode.Return(stmt.getAttributes());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitStmtWhile(StmtNode.While stmt) {
+            ExprNode condition = fold(stmt.getCondition());
+
+            folded = new StmtNode.While(condition, foldBlock(stmt.getBody()),
+                    stmt.getAttributes());
+        }
+
+        private ExprNode fold(ExprNode expr) {
+            ExprFolder folder = new ExprFolder(node, constants, env);
+            expr.accept(folder);
+
+            return folder.getResult();
+        }
+
+        /**
+         * Folds the given block if rebuilding, the blocks are otherwise visited as their own
+         * vertices in the control flow graph.
+         */
+        private List<StmtNode> foldBlock(List<StmtNode> stmts) {
+            return rebuild ? fold(stmts) : stmts;
+        }
+
+        private Optional<Map<Identifier, ExprNode.Value>> getIncomingEnvironment(StmtNode stmt) {
+            Map<Identifier, ExprNode.Value> merged = null;
+
+            // Nothing holds a literal value on entry to the function
+            if (stmt == function.getStmts().get(0)) {
+                merged = new HashMap<>();
+            }
+
+            for (ControlFlowGraphEdge edge : cfg.incomingEdgesOf(stmt)) {
+                Map<Identifier, ExprNode.Value> out = outs.get(edge.getSource());
+
+                if (out == null) {
+                    continue;
+                } else if (merged == null) {
+                    merged = new HashMap<>(out);
+                } else {
+                    // Only keep the locals that hold the same value on both edges
+                    merged.entrySet().removeIf(entry -> !out.containsKey(entry.getKey())
+                            || !isSameValue(entry.getValue(), out.get(entry.getKey())));
+                }
+            }
+
+            return Optional.ofNullable(merged);
+        }
+
+        private static boolean isSameEnvironment(Map<Identifier, ExprNode.Value> lhs,
+                Map<Identifier, ExprNode.Value> rhs) {
+            if (!lhs.keySet().equals(rhs.keySet())) {
+                return false;
+            }
+
+            for (Map.Entry<Identifier, ExprNode.Value> entry : lhs.entrySet()) {
+                if (!isSameValue(entry.getValue(), rhs.get(entry.getKey()))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
@@ -17,7 +17,8 @@ public abstract class Pipeline {
 
     public static final ImmutableList<Class<? extends Pipeline>> DEFAULT_PIPELINES =
             ImmutableList.of(NameChecker.class, ControlFlowGraphPropagator.class,
-                    DeadCodeChecker.class, TypePropagator.class, TypeChecker.class);
+                    DeadCodeChecker.class, TypePropagator.class, TypeChecker.class,
+                    ConstantFolder.class, ReadOnlyPropagator.class);
 
     protected final QuxContext context;
 
@@ -0,0 +1,512 @@
+package com.hjwylde.qux.pipelines;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.hjwylde.qbs.builder.QuxContext;
+import com.hjwylde.qux.api.ExprVisitor;
+import com.hjwylde.qux.api.StmtVisitor;
+import com.hjwylde.qux.tree.ExprNode;
+import com.hjwylde.qux.tree.FunctionNode;
+import com.hjwylde.qux.tree.Node;
+import com.hjwylde.qux.tree.QuxNode;
+import com.hjwylde.qux.tree.StmtNode;
+import com.hjwylde.qux.util.Attribute;
+import com.hjwylde.qux.util.Attributes;
+import com.hjwylde.qux.util.Identifier;
+import com.hjwylde.qux.util.Type;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * TODO: Documentation
+ * <p>
+ * Finds the parameters of each function that are read only, i.e., are never mutated and never
+ * escape the function, and attaches them as an {@link com.hjwylde.qux.util.Attribute.ReadOnly}
+ * attribute to the function and to each call of it. A parameter escapes if it, or any value
+ * obtained from it, is stored, returned or passed on to a function whose parameter isn't read only.
+ * Values obtained from a parameter may be held in other variables, in which case they are tracked
+ * as well.
+ * <p>
+ * Functions in the same file may call each other recursively, so every parameter starts out as
+ * read only and is removed until a fixed point is reached. Calls to functions in other files are
+ * always assumed to mutate their arguments.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class ReadOnlyPropagator extends Pipeline {
+
+    public ReadOnlyPropagator(QuxContext context) {
+        super(context);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QuxNode apply(QuxNode node) {
+        Map<Identifier, FunctionNode> functions = new HashMap<>();
+        Map<Identifier, Set<Integer>> readOnly = new HashMap<>();
+
+        for (FunctionNode function : node.getFunctions()) {
+            if (Attributes.getAttribute(function, Attribute.ReadOnly.class).isPresent()) {
+                return node;
+            }
+
+            Set<Integer> indices = new HashSet<>();
+            for (int i = 0; i < function.getParameters().size(); i++) {
+                indices.add(i);
+            }
+
+            functions.put(function.getName(), function);
+            readOnly.put(function.getName(), indices);
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (FunctionNode function : functions.values()) {
+                Set<Integer> indices = readOnly.get(function.getName());
+                Type.Function type = (Type.Function) getType(function.getType());
+
+                for (Integer index : new ArrayList<>(indices)) {
+                    // Immutable values are never copied, so there is nothing to check
+                    if (isImmutable(type.getParameterTypes().get(index))) {
+                        continue;
+                    }
+
+                    ParameterChecker checker = new ParameterChecker(node, readOnly,
+                            function.getParameters().get(index));
+                    if (checker.isReadOnly(function.getStmts())) {
+                        continue;
+                    }
+
+                    indices.remove(index);
+                    changed = true;
+                }
+            }
+        }
+
+        for (FunctionNode function : functions.values()) {
+            function.addAttributes(new Attribute.ReadOnly(readOnly.get(function.getName())));
+
+            new ParameterChecker(node, readOnly, null).annotate(function.getStmts());
+        }
+
+        return node;
+    }
+
+    private static Type getType(Node node) {
+        return Attributes.getAttributeUnchecked(node, Attribute.Type.class).getType();
+    }
+
+    /**
+     * Checks whether values of the given type may never be mutated. Such values are never copied
+     * when passed by value.
+     */
+    private static boolean isImmutable(Type type) {
+        return type instanceof Type.Bool || type instanceof Type.Int || type instanceof Type.Meta
+                || type instanceof Type.Null || type instanceof Type.Obj
+                || type instanceof Type.Rat;
+    }
+
+    /**
+     * Checks whether a single parameter is read only. The checker walks the function body
+     * repeatedly, as a variable may only be found to hold a value obtained from the parameter after
+     * its first use.
+     * <p>
+     * If no parameter is given, then the checker only attaches the read only indices to the calls
+     * in the function body.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private static final class ParameterChecker implements ExprVisitor, StmtVisitor {
+
+        private final QuxNode node;
+        private final Map<Identifier, Set<Integer>> readOnly;
+
+        /**
+         * The parameter and the variables that may hold values obtained from it.
+         */
+        private final Set<Identifier> tracked = new HashSet<>();
+
+        private Use use = Use.READ;
+        private Identifier alias;
+
+        private boolean changed;
+        private boolean escapes;
+        private boolean annotate;
+
+        public ParameterChecker(QuxNode node, Map<Identifier, Set<Integer>> readOnly,
+                @Nullable Identifier parameter) {
+            this.node = checkNotNull(node, "node cannot be null");
+            this.readOnly = checkNotNull(readOnly, "readOnly cannot be null");
+
+            if (parameter != null) {
+                tracked.add(parameter);
+            }
+        }
+
+        public void annotate(List<StmtNode> stmts) {
+            annotate = true;
+
+            visitBlock(stmts);
+        }
+
+        public boolean isReadOnly(List<StmtNode> stmts) {
+            do {
+                changed = false;
+
+                visitBlock(stmts);
+            } while (changed && !escapes);
+
+            return !escapes;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprBinary(ExprNode.Binary expr) {
+            switch (expr.getOp()) {
+                case EQ:
+                case NEQ:
+                case LT:
+                case LTE:
+                case GT:
+                case GTE:
+                case IN:
+                    visitExpr(expr.getLhs(), Use.READ);
+                    visitExpr(expr.getRhs(), Use.READ);
+                    break;
+                case ACC:
+                    visitTarget(expr, expr.getLhs());
+                    visitExpr(expr.getRhs(), Use.READ);
+                    break;
+                default:
+                    visitOperand(expr, expr.getLhs());
+                    visitOperand(expr, expr.getRhs());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprConstant(ExprNode.Constant expr) {}
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprFunction(ExprNode.Function expr) {
+            Set<Integer> indices = getReadOnly(expr);
+
+            for (int i = 0; i < expr.getArguments().size(); i++) {
+                visitExpr(expr.getArguments().get(i), indices.contains(i) ? Use.READ : Use.ESCAPE);
+            }
+
+            if (annotate && !indices.isEmpty()) {
+                expr.addAttributes(new Attribute.ReadOnly(indices));
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprList(ExprNode.List expr) {
+            for (ExprNode value : expr.getValues()) {
+                visitOperand(expr, value);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprMeta(ExprNode.Meta expr) {}
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprRecord(ExprNode.Record expr) {
+            for (ExprNode value : expr.getFields().values()) {
+                visitOperand(expr, value);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprRecordAccess(ExprNode.RecordAccess expr) {
+            visitTarget(expr, expr.getTarget());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprSet(ExprNode.Set expr) {
+            for (ExprNode value : expr.getValues()) {
+                visitOperand(expr, value);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprSlice(ExprNode.Slice expr) {
+            visitTarget(expr, expr.getTarget());
+
+            if (expr.getFrom().isPresent()) {
+                visitExpr(expr.getFrom().get(), Use.READ);
+            }
+            if (expr.getTo().isPresent()) {
+                visitExpr(expr.getTo().get(), Use.READ);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprUnary(ExprNode.Unary expr) {
+            switch (expr.getOp()) {
+                case DEC:
+                case INC:
+                    // Incrementing a variable only rebinds it, anything else is updated in place
+                    if (expr.getTarget() instanceof ExprNode.Variable) {
+                        visitExpr(expr.getTarget(), Use.READ);
+                    } else {
+                        visitExpr(expr.getTarget(), Use.MUTATE);
+                    }
+                    break;
+                case LEN:
+                    visitExpr(expr.getTarget(), Use.READ);
+                    break;
+                default:
+                    visitOperand(expr, expr.getTarget());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprValue(ExprNode.Value expr) {}
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitExprVariable(ExprNode.Variable expr) {
+            if (!tracked.contains(expr.getName())) {
+                return;
+            }
+
+            switch (use) {
+                case ALIAS:
+                    if (tracked.add(alias)) {
+                        changed = true;
+                    }
+                    break;
+                case ESCAPE:
+                case MUTATE:
+                    escapes = true;
+                    break;
+                case READ:
+                    break;
+                default:
+                    throw new InternalError("unhandled use '" + use + "'");
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitStmtAssign(StmtNode.Assign stmt) {
+            switch (stmt.getType()) {
+                case ACCESS:
+                    ExprNode.Binary access = (ExprNode.Binary) stmt.getLhs();
+
+                    visitExpr(access.getLhs(), Use.MUTATE);
+                    visitExpr(access.getRhs(), Use.READ);
+                    visitExpr(stmt.getExpr(), Use.ESCAPE);
+                    break;
+                case RECORD_ACCESS:
+                    visitExpr(((ExprNode.RecordAccess) stmt.getLhs()).getTarget(), Use.MUTATE);
+                    visitExpr(stmt.getExpr(), Use.ESCAPE);
+                    break;
+                case VARIABLE:
+                    visitAlias(((ExprNode.Variable) stmt.getLhs()).getName(), stmt.getExpr(),
+                            getType(stmt.getExpr()));
+                    break;
+                default:
+                    throw new InternalError("unhandled assignment type '" + stmt.getType() + "'");
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitStmtExpr(StmtNode.Expr stmt) {
+            visitExpr(stmt.getExpr(), Use.READ);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitStmtFor(StmtNode.For stmt) {
+            visitAlias(stmt.getVar(), stmt.getExpr(), Type.getInnerType(getType(stmt.getExpr())));
+
+            visitBlock(stmt.getBody());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitStmtIf(StmtNode.If stmt) {
+            visitExpr(stmt.getCondition(), Use.READ);
+
+            visitBlock(stmt.getTrueBlock());
+            visitBlock(stmt.getFalseBlock());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitStmtPrint(StmtNode.Print stmt) {
+            visitExpr(stmt.getExpr(), Use.READ);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitStmtReturn(StmtNode.Return stmt) {
+            if (stmt.getExpr().isPresent()) {
+                visitExpr(stmt.getExpr().get(), Use.ESCAPE);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitStmtWhile(StmtNode.While stmt) {
+            visitExpr(stmt.getCondition(), Use.READ);
+
+            visitBlock(stmt.getBody());
+        }
+
+        private Set<Integer> getReadOnly(ExprNode.Function expr) {
+            if (!expr.getOwner().getId().equals(node.getId())) {
+                return new HashSet<>();
+            }
+
+            Set<Integer> indices = readOnly.get(expr.getName());
+
+            return indices == null ? new HashSet<>() : indices;
+        }
+
+        /**
+         * Visits an expression whose value is held by the given variable.
+         */
+        private void visitAlias(Identifier var, ExprNode expr, Type type) {
+            if (isImmutable(type)) {
+                visitExpr(expr, Use.READ);
+            } else {
+                Identifier prev = alias;
+                alias = var;
+
+                visitExpr(expr, Use.ALIAS);
+
+                alias = prev;
+            }
+        }
+
+        private void visitBlock(List<StmtNode> stmts) {
+            for (StmtNode stmt : stmts) {
+                stmt.accept(this);
+            }
+        }
+
+        private void visitExpr(ExprNode expr, Use use) {
+            Use prev = this.use;
+            this.use = use;
+
+            expr.accept(this);
+
+            this.use = prev;
+        }
+
+        /**
+         * Visits an operand of an expression whose value may hold the operand, e.g., an element of
+         * a list. The operand is used in the same way as the expression, unless the expression is
+         * immutable.
+         */
+        private void visitOperand(ExprNode expr, ExprNode operand) {
+            if (use == Use.MUTATE || isImmutable(getType(expr))) {
+                visitExpr(operand, Use.READ);
+            } else {
+                visitExpr(operand, use);
+            }
+        }
+
+        /**
+         * Visits the target of an access expression. Mutating the accessed value mutates the
+         * target.
+         */
+        private void visitTarget(ExprNode expr, ExprNode target) {
+            if (use == Use.MUTATE) {
+                visitExpr(target, Use.MUTATE);
+            } else {
+                visitOperand(expr, target);
+            }
+        }
+    }
+
+    /**
+     * How the value of an expression is used by the enclosing expression or statement.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private static enum Use {
+        /**
+         * The value is assigned to a variable, which then holds a value obtained from the
+         * parameter.
+         */
+        ALIAS,
+        /**
+         * The value may be stored, returned or mutated by another function.
+         */
+        ESCAPE,
+        /**
+         * The value is mutated in place.
+         */
+        MUTATE,
+        /**
+         * The value is only inspected.
+         */
+        READ
+    }
+}
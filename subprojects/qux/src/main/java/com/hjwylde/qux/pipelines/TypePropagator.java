@@ -242,7 +242,8 @@ public final class TypePropagator extends Pipeline {
         while (it.hasNext()) {
             Environment<Identifier, Type> next = it.next().flatten();
 
-            for (Identifier key : merged.keySet()) {
+            // Iterate over a copy as keys may be removed
+            for (Identifier key : new ArrayList<>(merged.keySet())) {
                 if (!next.contains(key)) {
                     merged.remove(key);
                 } else {
@@ -3,6 +3,10 @@ package com.hjwylde.qux.util;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Collection;
+
 /**
  * An attribute can hold any type of extra information. It may be attached to a {@link
  * com.hjwylde.qux.tree.Node}.
@@ -37,6 +41,45 @@ public interface Attribute {
         }
     }
 
+    /**
+     * A read only attribute. This attribute holds the indices of the parameters of a function that
+     * are never mutated and never escape it, i.e., are never stored, returned or passed on to a
+     * function that may do so. Such arguments don't need to be duplicated to give pass-by-value
+     * semantics.<p/>May be attached to a {@link com.hjwylde.qux.tree.FunctionNode}, where the
+     * indices refer to its parameters, or to a {@link com.hjwylde.qux.tree.ExprNode.Function},
+     * where the indices refer to its arguments.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    public static final class ReadOnly implements Attribute {
+
+        private final ImmutableSet<Integer> indices;
+
+        public ReadOnly(Collection<Integer> indices) {
+            this.indices = ImmutableSet.copyOf(indices);
+        }
+
+        /**
+         * Gets the indices of the read only parameters or arguments.
+         *
+         * @return the read only indices.
+         */
+        public ImmutableSet<Integer> getIndices() {
+            return indices;
+        }
+
+        /**
+         * Checks whether the parameter or argument at the given index is read only.
+         *
+         * @param index the index.
+         * @return true if the parameter or argument is read only.
+         */
+        public boolean isReadOnly(int index) {
+            return indices.contains(index);
+        }
+    }
+
     /**
      * A source attribute. This attribute holds information regarding the source file that this
      * {@link com.hjwylde.qux.tree.Node} originated from. It includes the following information: the
@@ -50,6 +50,7 @@ public final class Quxjc {
     public static final String OPT_CHARSET = QuxProperties.PROP_CHARSET;
     public static final String OPT_CLASSPATH = QuxProperties.PROP_CLASSPATH;
     public static final String OPT_HELP = "help";
+    public static final String OPT_OPTIMISE = QuxProperties.PROP_OPTIMISE;
     public static final String OPT_OUTDIR = QuxProperties.PROP_OUTDIR;
     public static final String OPT_PROPERTIES = "properties";
     public static final String OPT_TIMEOUT = QuxProperties.PROP_TIMEOUT;
@@ -141,6 +142,7 @@ public final class Quxjc {
         optionsBuilder.setTimeout(properties.getTimeout());
         optionsBuilder.setTimeoutUnit(properties.getTimeoutUnit());
         optionsBuilder.setVerbose(properties.getVerbose());
+        optionsBuilder.setOptimise(properties.getOptimise());
 
         spec.setOptions(optionsBuilder.build());
 
@@ -215,6 +217,9 @@ public final class Quxjc {
         if (cl.hasOption(OPT_CLASSPATH)) {
             properties.setClasspath(cl.getOptionValue(OPT_CLASSPATH));
         }
+        if (cl.hasOption(OPT_OPTIMISE)) {
+            properties.setOptimise("true");
+        }
         if (cl.hasOption(OPT_OUTDIR)) {
             properties.setOutdir(cl.getOptionValue(OPT_OUTDIR));
         }
@@ -366,6 +371,8 @@ public final class Quxjc {
                 "name").withDescription("Sets the timeout unit, defaults to 'seconds'").create(
                 "tu");
         Option verbose = new Option("v", OPT_VERBOSE, false, "Sets the compiler to be extra noisy");
+        Option optimise = new Option("O", OPT_OPTIMISE, false,
+                "Sets the compiler to generate faster, larger code");
         Option charset = OptionBuilder.withLongOpt(OPT_CHARSET).hasArg().withArgName("name")
                 .withDescription(
                         "Sets the character set to use to read the source files, defaults to 'utf8'")
@@ -389,6 +396,7 @@ public final class Quxjc {
         options.addOption(timeout);
         options.addOption(timeoutUnit);
         options.addOption(verbose);
+        options.addOption(optimise);
         options.addOption(charset);
 
         options.addOption(properties);
@@ -144,7 +144,8 @@ public final class Qux2ClassBuildJob extends BuildJob {
         CheckClassAdapter cca = new CheckClassAdapter(mfi, false);
 
         // Create the translator and let it visit the node
-        Qux2ClassTranslater q2ct = new Qux2ClassTranslater(source.toString(), cca);
+        Qux2ClassTranslater q2ct = new Qux2ClassTranslater(source.toString(), cca,
+                context.getProject().getOptions().isOptimise());
         CheckQuxAdapter cqa = new CheckQuxAdapter(q2ct);
         node.accept(cqa);
 
@@ -0,0 +1,106 @@
+package com.hjwylde.quxjc.builder.resources;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.hjwylde.qux.util.Type.TYPE_ANY;
+import static com.hjwylde.qux.util.Type.TYPE_BOOL;
+import static com.hjwylde.qux.util.Type.TYPE_INT;
+import static com.hjwylde.qux.util.Type.TYPE_LIST_ANY;
+import static com.hjwylde.qux.util.Type.TYPE_SET_ANY;
+import static com.hjwylde.qux.util.Type.TYPE_STR;
+import static com.hjwylde.qux.util.Type.TYPE_VOID;
+import static java.util.Arrays.asList;
+
+import com.hjwylde.qbs.builder.resources.AbstractResource;
+import com.hjwylde.qux.util.Type;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A resource for a module of the runtime library that is implemented in Java rather than Qux, such
+ * as {@code qux.io.files} or {@code qux.util.parallel}. The resource declares the types of the
+ * functions of the module so that calls to them may be type checked, the functions themselves are
+ * public static methods of the class with the same name as the module.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+public final class NativeResource extends AbstractResource {
+
+    public static final NativeResource QUX_IO_FILES = new NativeResource("qux.io.files",
+            ImmutableMap.<String, Type.Function>builder()
+                    .put("close", Type.forFunction(TYPE_VOID, asList(TYPE_ANY)))
+                    .put("createTempFile", Type.forFunction(TYPE_STR, asList(TYPE_STR)))
+                    .put("flush", Type.forFunction(TYPE_VOID, asList(TYPE_ANY)))
+                    .put("hasNext", Type.forFunction(TYPE_BOOL, asList(TYPE_ANY)))
+                    .put("next", Type.forFunction(TYPE_STR, asList(TYPE_ANY)))
+                    .put("openReader", Type.forFunction(TYPE_ANY, asList(TYPE_STR)))
+                    .put("openRecordReader", Type.forFunction(TYPE_ANY, asList(TYPE_STR,
+                            TYPE_STR)))
+                    .put("openWriter", Type.forFunction(TYPE_ANY, asList(TYPE_STR)))
+                    .put("write", Type.forFunction(TYPE_VOID, asList(TYPE_ANY, TYPE_STR)))
+                    .put("writeLine", Type.forFunction(TYPE_VOID, asList(TYPE_ANY, TYPE_STR)))
+                    .build());
+
+    public static final NativeResource QUX_UTIL_PARALLEL = new NativeResource(
+            "qux.util.parallel", ImmutableMap.<String, Type.Function>builder()
+                    .put("max", Type.forFunction(TYPE_ANY, asList(TYPE_LIST_ANY)))
+                    .put("min", Type.forFunction(TYPE_ANY, asList(TYPE_LIST_ANY)))
+                    .put("sort", Type.forFunction(TYPE_LIST_ANY, asList(TYPE_LIST_ANY)))
+                    .put("sum", Type.forFunction(TYPE_INT, asList(Type.forList(TYPE_INT))))
+                    .put("toSet", Type.forFunction(TYPE_SET_ANY, asList(TYPE_LIST_ANY)))
+                    .build());
+
+    /**
+     * All of the native modules of the runtime library.
+     */
+    public static final ImmutableSet<NativeResource> RUNTIME = ImmutableSet.of(QUX_IO_FILES,
+            QUX_UTIL_PARALLEL);
+
+    private final String id;
+
+    private final ImmutableMap<String, Type.Function> functions;
+
+    private NativeResource(String id, Map<String, Type.Function> functions) {
+        this.id = checkNotNull(id, "id cannot be null");
+
+        this.functions = ImmutableMap.copyOf(functions);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<String> getConstantType(String name) {
+        return Optional.empty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<String> getFunctionType(String name) {
+        Type.Function type = functions.get(name);
+
+        return Optional.ofNullable(type != null ? type.getDescriptor() : null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<String> getTypeType(String name) {
+        return Optional.empty();
+    }
+}
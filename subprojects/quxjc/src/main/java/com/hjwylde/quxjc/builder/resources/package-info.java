@@ -0,0 +1,3 @@
+@ParametersAreNonnullByDefault package com.hjwylde.quxjc.builder.resources;
+
+import javax.annotation.ParametersAreNonnullByDefault;
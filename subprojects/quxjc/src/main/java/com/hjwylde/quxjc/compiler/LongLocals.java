@@ -0,0 +1,90 @@
+package com.hjwylde.quxjc.compiler;
+
+import static com.hjwylde.quxjc.compiler.Qux2ClassTranslater.getQuxType;
+
+import com.hjwylde.qux.tree.ExprNode;
+import com.hjwylde.qux.tree.FunctionNode;
+import com.hjwylde.qux.tree.StmtNode;
+import com.hjwylde.qux.util.Identifier;
+import com.hjwylde.qux.util.Type;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds the local variables of a function that may be held in primitive {@code long} slots. A
+ * variable qualifies if every definition of it, i.e., its parameter type, every assignment and
+ * every for loop over it, is of type {@code int}.
+ * <p>
+ * A {@code long} slot can't hold every {@code int}, so the translater pairs it with the usual
+ * object slot, which holds the value whenever it doesn't fit in a {@code long} and {@code null}
+ * otherwise.
+ *
+ * @author Henry J. Wylde
+ * @since 0.2.6
+ */
+final class LongLocals {
+
+    private final Set<Identifier> defined = new HashSet<>();
+    private final Set<Identifier> excluded = new HashSet<>();
+
+    /**
+     * This class may only be instantiated locally.
+     */
+    private LongLocals() {}
+
+    /**
+     * Finds the local variables of the given function that may be held in {@code long} slots.
+     *
+     * @param function the function.
+     * @return the names of the variables.
+     */
+    static ImmutableSet<Identifier> find(FunctionNode function) {
+        LongLocals locals = new LongLocals();
+
+        Type.Function type = (Type.Function) getQuxType(function.getType());
+        for (int i = 0; i < function.getParameters().size(); i++) {
+            locals.define(function.getParameters().get(i), type.getParameterTypes().get(i));
+        }
+
+        locals.visitBlock(function.getStmts());
+
+        locals.defined.removeAll(locals.excluded);
+
+        return ImmutableSet.copyOf(locals.defined);
+    }
+
+    private void define(Identifier var, Type type) {
+        if (type instanceof Type.Int) {
+            defined.add(var);
+        } else {
+            excluded.add(var);
+        }
+    }
+
+    private void visitBlock(List<StmtNode> stmts) {
+        for (StmtNode stmt : stmts) {
+            if (stmt instanceof StmtNode.Assign) {
+                StmtNode.Assign assign = (StmtNode.Assign) stmt;
+
+                if (assign.getType() == StmtNode.Assign.Type.VARIABLE) {
+                    define(((ExprNode.Variable) assign.getLhs()).getName(), getQuxType(
+                            assign.getExpr()));
+                }
+            } else if (stmt instanceof StmtNode.For) {
+                StmtNode.For loop = (StmtNode.For) stmt;
+
+                define(loop.getVar(), Type.getInnerType(getQuxType(loop.getExpr())));
+                visitBlock(loop.getBody());
+            } else if (stmt instanceof StmtNode.If) {
+                visitBlock(((StmtNode.If) stmt).getTrueBlock());
+                visitBlock(((StmtNode.If) stmt).getFalseBlock());
+            } else if (stmt instanceof StmtNode.While) {
+                visitBlock(((StmtNode.While) stmt).getBody());
+            }
+        }
+    }
+}
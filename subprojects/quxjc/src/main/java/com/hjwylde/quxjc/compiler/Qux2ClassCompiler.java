@@ -10,6 +10,7 @@ import com.hjwylde.qbs.compiler.Compiler;
 import com.hjwylde.qbs.compiler.QuxCompileSpec;
 import com.hjwylde.qux.pipelines.Pipeline;
 import com.hjwylde.quxjc.builder.Qux2ClassBuilder;
+import com.hjwylde.quxjc.builder.resources.NativeResource;
 
 import com.google.common.collect.ImmutableList;
 
@@ -73,6 +74,9 @@ public final class Qux2ClassCompiler<T extends QuxCompileSpec> implements Compil
     private QuxContext initialiseContext(QuxProject project) {
         QuxContext context = new QuxContext(project);
 
+        // The native modules of the runtime library are always available
+        context.addResources(NativeResource.RUNTIME);
+
         for (Path path : project.getClasspath()) {
             Optional<Resource> resource = ResourceManager.loadResource(path);
 
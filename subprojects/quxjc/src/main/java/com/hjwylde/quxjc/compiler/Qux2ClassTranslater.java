@@ -5,6 +5,7 @@ import static org.objectweb.asm.Opcodes.AASTORE;
 import static org.objectweb.asm.Opcodes.ACC_FINAL;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 import static org.objectweb.asm.Opcodes.ACC_STATIC;
+import static org.objectweb.asm.Opcodes.ACONST_NULL;
 import static org.objectweb.asm.Opcodes.ALOAD;
 import static org.objectweb.asm.Opcodes.ANEWARRAY;
 import static org.objectweb.asm.Opcodes.ARETURN;
@@ -15,6 +16,8 @@ import static org.objectweb.asm.Opcodes.CHECKCAST;
 import static org.objectweb.asm.Opcodes.DUP;
 import static org.objectweb.asm.Opcodes.GETSTATIC;
 import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.H_INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.I2L;
 import static org.objectweb.asm.Opcodes.ICONST_0;
 import static org.objectweb.asm.Opcodes.ICONST_1;
 import static org.objectweb.asm.Opcodes.ICONST_2;
@@ -22,15 +25,33 @@ import static org.objectweb.asm.Opcodes.ICONST_3;
 import static org.objectweb.asm.Opcodes.ICONST_4;
 import static org.objectweb.asm.Opcodes.ICONST_5;
 import static org.objectweb.asm.Opcodes.ICONST_M1;
+import static org.objectweb.asm.Opcodes.IFEQ;
+import static org.objectweb.asm.Opcodes.IFGE;
+import static org.objectweb.asm.Opcodes.IFGT;
+import static org.objectweb.asm.Opcodes.IFLE;
+import static org.objectweb.asm.Opcodes.IFLT;
+import static org.objectweb.asm.Opcodes.IFNE;
+import static org.objectweb.asm.Opcodes.IFNONNULL;
 import static org.objectweb.asm.Opcodes.IF_ACMPEQ;
 import static org.objectweb.asm.Opcodes.IF_ACMPNE;
 import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
-import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
 import static org.objectweb.asm.Opcodes.INVOKESTATIC;
 import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.L2I;
+import static org.objectweb.asm.Opcodes.LADD;
+import static org.objectweb.asm.Opcodes.LAND;
+import static org.objectweb.asm.Opcodes.LASTORE;
+import static org.objectweb.asm.Opcodes.LCMP;
 import static org.objectweb.asm.Opcodes.LCONST_0;
 import static org.objectweb.asm.Opcodes.LCONST_1;
-import static org.objectweb.asm.Opcodes.NEW;
+import static org.objectweb.asm.Opcodes.LDIV;
+import static org.objectweb.asm.Opcodes.LLOAD;
+import static org.objectweb.asm.Opcodes.LMUL;
+import static org.objectweb.asm.Opcodes.LNEG;
+import static org.objectweb.asm.Opcodes.LREM;
+import static org.objectweb.asm.Opcodes.LSTORE;
+import static org.objectweb.asm.Opcodes.LSUB;
+import static org.objectweb.asm.Opcodes.LXOR;
 import static org.objectweb.asm.Opcodes.NEWARRAY;
 import static org.objectweb.asm.Opcodes.POP;
 import static org.objectweb.asm.Opcodes.PUTSTATIC;
@@ -38,6 +59,7 @@ import static org.objectweb.asm.Opcodes.RETURN;
 import static org.objectweb.asm.Opcodes.SIPUSH;
 import static org.objectweb.asm.Opcodes.SWAP;
 import static org.objectweb.asm.Opcodes.T_BYTE;
+import static org.objectweb.asm.Opcodes.T_LONG;
 import static org.objectweb.asm.Opcodes.V1_7;
 
 import com.hjwylde.common.error.MethodNotImplementedError;
@@ -48,6 +70,7 @@ import com.hjwylde.qux.api.FunctionAdapter;
 import com.hjwylde.qux.api.FunctionVisitor;
 import com.hjwylde.qux.api.QuxAdapter;
 import com.hjwylde.qux.tree.ExprNode;
+import com.hjwylde.qux.tree.FunctionNode;
 import com.hjwylde.qux.tree.Node;
 import com.hjwylde.qux.tree.StmtNode;
 import com.hjwylde.qux.util.Attribute;
@@ -57,24 +80,32 @@ import com.hjwylde.qux.util.Op;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Handle;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Type;
 
 import java.io.File;
-import java.io.PrintStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
 
 import qux.lang.AbstractObj;
 import qux.lang.Bool;
+import qux.lang.Console;
+import qux.lang.InlineCache;
 import qux.lang.Int;
 import qux.lang.List;
 import qux.lang.Null;
@@ -93,10 +124,24 @@ import qux.util.Iterator;
  */
 public final class Qux2ClassTranslater extends QuxAdapter {
 
+    /**
+     * The bootstrap method of the call sites for operators on values of an imprecise type, see
+     * {@link qux.lang.InlineCache}.
+     */
+    private static final Handle BOOTSTRAP = new Handle(H_INVOKESTATIC, Type.getInternalName(
+            InlineCache.class), "bootstrap", getMethodDescriptor(InlineCache.class, "bootstrap",
+            MethodHandles.Lookup.class, String.class, MethodType.class));
+
     private final String source;
 
     private final ClassVisitor cv;
 
+    /**
+     * Whether to generate faster, larger code. See {@link
+     * com.hjwylde.qbs.compiler.QuxCompileOptions#isOptimise()}.
+     */
+    private final boolean optimise;
+
     private Identifier name;
     private ImmutableList<Identifier> pkg;
 
@@ -107,9 +152,15 @@ public final class Qux2ClassTranslater extends QuxAdapter {
     private MethodVisitor simv;
 
     public Qux2ClassTranslater(String source, ClassVisitor cv) {
+        this(source, cv, false);
+    }
+
+    public Qux2ClassTranslater(String source, ClassVisitor cv, boolean optimise) {
         this.source = checkNotNull(source, "source cannot be null");
 
         this.cv = checkNotNull(cv, "cv cannot be null");
+
+        this.optimise = optimise;
     }
 
     public ImmutableList<Identifier> getId() {
@@ -165,7 +216,12 @@ public final class Qux2ClassTranslater extends QuxAdapter {
             return FunctionVisitor.NULL_INSTANCE;
         }
 
-        return new Function2ClassTranslater(mv, flags, name, type);
+        if (optimise) {
+            // The whole body is needed up front to find the locals that may be held in long slots
+            return new FunctionBuffer(mv, new FunctionNode(flags, name, type));
+        }
+
+        return new Function2ClassTranslater(mv, flags, name, type, ImmutableSet.<Identifier>of());
     }
 
     /**
@@ -212,10 +268,58 @@ public final class Qux2ClassTranslater extends QuxAdapter {
         }
     }
 
+    /**
+     * Gets the field names in the order that the runtime holds them in a record.
+     */
+    static java.util.List<String> getFields(Collection<Identifier> fields) {
+        java.util.List<String> ids = new ArrayList<>();
+        for (Identifier field : fields) {
+            ids.add(field.getId());
+        }
+
+        Collections.sort(ids);
+
+        return ids;
+    }
+
     static com.hjwylde.qux.util.Type getQuxType(Node node) {
         return Attributes.getAttributeUnchecked(node, Attribute.Type.class).getType();
     }
 
+    /**
+     * Gets the slot of the accessed field in the static type of the target. The slot is only a
+     * hint to the runtime, as the record may have more fields than its static type. If the static
+     * type is a union of records with different fields, then there is no hint and {@code -1} is
+     * returned.
+     */
+    static int getSlot(ExprNode.RecordAccess access) {
+        com.hjwylde.qux.util.Type type = getQuxType(access.getTarget());
+
+        java.util.List<com.hjwylde.qux.util.Type> types = new ArrayList<>();
+        if (type instanceof com.hjwylde.qux.util.Type.Union) {
+            types.addAll(((com.hjwylde.qux.util.Type.Union) type).getTypes());
+        } else {
+            types.add(type);
+        }
+
+        java.util.List<String> fields = null;
+        for (com.hjwylde.qux.util.Type inner : types) {
+            if (!(inner instanceof com.hjwylde.qux.util.Type.Record)) {
+                return -1;
+            }
+
+            java.util.List<String> innerFields = getFields(
+                    ((com.hjwylde.qux.util.Type.Record) inner).getFields().keySet());
+            if (fields != null && !fields.equals(innerFields)) {
+                return -1;
+            }
+
+            fields = innerFields;
+        }
+
+        return fields.indexOf(access.getField().getId());
+    }
+
     static Type getType(Node node) {
         return getType(getQuxType(node));
     }
@@ -342,16 +446,39 @@ public final class Qux2ClassTranslater extends QuxAdapter {
          */
         private final java.util.List<Identifier> locals;
 
+        /**
+         * The names of the variables held in {@code long} slots, see {@link LongLocals}. Each such
+         * variable keeps its usual object slot as well, which holds its value if it doesn't fit in
+         * a {@code long} and {@code null} otherwise.
+         */
+        private final ImmutableSet<Identifier> longs;
+
+        /**
+         * The index of the {@code long} slot of each variable in {@link #longs}, allocated on first
+         * use.
+         */
+        private final Map<Identifier, Integer> longLocals = new HashMap<>();
+
+        /**
+         * Whether int arithmetic on the variables in {@link #longs} should be attempted on their
+         * {@code long} values before falling back to the boxed arithmetic.
+         */
+        private boolean speculate;
+
         private int line = Integer.MIN_VALUE;
 
         public Expr2ClassTranslater(MethodVisitor mv) {
-            this(mv, new ArrayList<>());
+            this(mv, new ArrayList<>(), ImmutableSet.<Identifier>of(), false);
         }
 
-        public Expr2ClassTranslater(MethodVisitor mv, java.util.List<Identifier> locals) {
+        public Expr2ClassTranslater(MethodVisitor mv, java.util.List<Identifier> locals,
+                ImmutableSet<Identifier> longs, boolean speculate) {
             this.mv = checkNotNull(mv, "mv cannot be null");
 
             this.locals = checkNotNull(locals, "locals cannot be null");
+            this.longs = checkNotNull(longs, "longs cannot be null");
+
+            this.speculate = speculate;
         }
 
         public void visitExpr(ExprNode expr) {
@@ -360,14 +487,70 @@ public final class Qux2ClassTranslater extends QuxAdapter {
             expr.accept(this);
         }
 
+        /**
+         * Visits the given bool expression as a condition, jumping to the given label if it
+         * evaluates to the given value and falling through otherwise. Comparisons jump directly on
+         * their primitive result and logical operators short-circuit, so a {@link Bool} is only
+         * created for the conditions that can't be compiled into jumps.
+         *
+         * @param expr the condition.
+         * @param jumpIf the value of the condition to jump on.
+         * @param label the label to jump to.
+         */
+        public void visitCondition(ExprNode expr, boolean jumpIf, Label label) {
+            visitLineNumber(expr);
+
+            if (expr instanceof ExprNode.Unary && ((ExprNode.Unary) expr).getOp() == Op.Unary.NOT) {
+                visitCondition(((ExprNode.Unary) expr).getTarget(), !jumpIf, label);
+            } else if (isCondition(expr)) {
+                ExprNode.Binary binary = (ExprNode.Binary) expr;
+
+                if (binary.getOp() == Op.Binary.AND || binary.getOp() == Op.Binary.OR) {
+                    visitLogical(binary, jumpIf, label);
+                } else {
+                    visitComparison(binary, jumpIf, label);
+                }
+            } else {
+                visitExpr(expr);
+
+                mv.visitFieldInsn(GETSTATIC, Type.getInternalName(Bool.class), "TRUE",
+                        Type.getDescriptor(Bool.class));
+                mv.visitJumpInsn(jumpIf ? IF_ACMPEQ : IF_ACMPNE, label);
+            }
+        }
+
         /**
          * {@inheritDoc}
          */
         @Override
         public void visitExprBinary(ExprNode.Binary expr) {
+            if (isCondition(expr)) {
+                visitBool(expr);
+                return;
+            } else if (isSpeculative(expr)) {
+                visitSpeculative(expr);
+                return;
+            }
+
             visitExpr(expr.getLhs());
             visitExpr(expr.getRhs());
 
+            if (isDynamic(expr.getLhs())) {
+                switch (expr.getOp()) {
+                    case ADD:
+                    case DIV:
+                    case MUL:
+                    case REM:
+                    case SUB:
+                        visitInvokeDynamic(getMethodName(expr.getOp()), getType(expr),
+                                expr.getLhs(), expr.getRhs());
+                        return;
+                    default:
+                        // The method is picked from the static type of the right hand side
+                        break;
+                }
+            }
+
             Class<?> lhsClass = Qux2ClassTranslater.getClass(expr.getLhs());
             Class<?> rhsClass = Qux2ClassTranslater.getClass(expr.getRhs());
 
@@ -389,24 +572,10 @@ public final class Qux2ClassTranslater extends QuxAdapter {
                     mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(lhsClass), "_div_",
                             getMethodDescriptor(lhsClass, "_div_", rhsClass), false);
                     break;
-                case EQ:
-                    mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(lhsClass), "_eq_",
-                            getMethodDescriptor(lhsClass, "_eq_", AbstractObj.class), false);
-                    break;
                 case EXP:
                     mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Int.class), "_exp_",
                             getMethodDescriptor(Int.class, "_exp_", Int.class), false);
                     break;
-                case GT:
-                    mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(AbstractObj.class),
-                            "_gt_", getMethodDescriptor(AbstractObj.class, "_gt_",
-                                    AbstractObj.class), false);
-                    break;
-                case GTE:
-                    mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(AbstractObj.class),
-                            "_gte_", getMethodDescriptor(AbstractObj.class, "_gte_",
-                                    AbstractObj.class), false);
-                    break;
                 case IDIV:
                     mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Int.class), "_idiv_",
                             getMethodDescriptor(Int.class, "_idiv_", Int.class), false);
@@ -424,24 +593,10 @@ public final class Qux2ClassTranslater extends QuxAdapter {
                     mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(rhsClass), "_contains_",
                             getMethodDescriptor(rhsClass, "_contains_", AbstractObj.class), false);
                     break;
-                case LT:
-                    mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(AbstractObj.class),
-                            "_lt_", getMethodDescriptor(AbstractObj.class, "_lt_",
-                                    AbstractObj.class), false);
-                    break;
-                case LTE:
-                    mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(AbstractObj.class),
-                            "_lte_", getMethodDescriptor(AbstractObj.class, "_lte_",
-                                    AbstractObj.class), false);
-                    break;
                 case MUL:
                     mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(lhsClass), "_mul_",
                             getMethodDescriptor(lhsClass, "_mul_", rhsClass), false);
                     break;
-                case NEQ:
-                    mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(lhsClass), "_neq_",
-                            getMethodDescriptor(lhsClass, "_neq_", AbstractObj.class), false);
-                    break;
                 case OR:
                     mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(lhsClass), "_or_",
                             getMethodDescriptor(lhsClass, "_or_", rhsClass), false);
@@ -484,14 +639,18 @@ public final class Qux2ClassTranslater extends QuxAdapter {
             Type returnType = getType(expr);
             java.util.List<Type> argumentTypes = new ArrayList<>();
 
+            Optional<Attribute.ReadOnly> readOnly = Attributes.getAttribute(expr,
+                    Attribute.ReadOnly.class);
+
             for (int i = 0; i < expr.getArguments().size(); i++) {
                 visitExpr(expr.getArguments().get(i));
 
                 Type argumentType = getType(expr.getArguments().get(i));
 
                 // Check to see if this argument is not the receiver, if it isn't, then we want to
-                // pass by value
-                if (i != 0 || !expr.isMethodCall()) {
+                // pass by value, unless the function never mutates it nor lets it escape
+                if ((i != 0 || !expr.isMethodCall()) && !(readOnly.isPresent() && readOnly.get()
+                        .isReadOnly(i))) {
                     // Ensures pass-by-value semantics by cloning the values
                     mv.visitMethodInsn(INVOKEVIRTUAL, argumentType.getInternalName(), "_dup_",
                             getMethodDescriptor(Qux2ClassTranslater.getClass(argumentType),
@@ -512,6 +671,15 @@ public final class Qux2ClassTranslater extends QuxAdapter {
          */
         @Override
         public void visitExprList(ExprNode.List expr) {
+            if (isLongValues(expr.getValues())) {
+                // Allocate the primitive specialised list directly
+                visitLongValues(expr.getValues());
+
+                mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(List.class), "valueOf",
+                        getMethodDescriptor(List.class, "valueOf", long[].class), false);
+                return;
+            }
+
             visitValue(expr.getValues().size());
             mv.visitTypeInsn(ANEWARRAY, Type.getInternalName(AbstractObj.class));
 
@@ -537,24 +705,33 @@ public final class Qux2ClassTranslater extends QuxAdapter {
          */
         @Override
         public void visitExprRecord(ExprNode.Record expr) {
-            mv.visitTypeInsn(NEW, Type.getInternalName(HashMap.class));
-            mv.visitInsn(DUP);
-            mv.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(HashMap.class), "<init>",
-                    getConstructorDescriptor(HashMap.class), false);
+            java.util.List<String> fields = getFields(expr.getFields().keySet());
 
-            for (Map.Entry<Identifier, ExprNode> field : expr.getFields().entrySet()) {
+            visitValue(fields.size());
+            mv.visitTypeInsn(ANEWARRAY, Type.getInternalName(String.class));
+
+            for (int i = 0; i < fields.size(); i++) {
                 mv.visitInsn(DUP);
+                visitValue(i);
+                mv.visitLdcInsn(fields.get(i));
+                mv.visitInsn(AASTORE);
+            }
 
-                mv.visitLdcInsn(field.getKey().getId());
-                visitExpr(field.getValue());
+            // The values are evaluated in the order they were written, but stored in the slots of
+            // their sorted field names
+            visitValue(fields.size());
+            mv.visitTypeInsn(ANEWARRAY, Type.getInternalName(AbstractObj.class));
 
-                mv.visitMethodInsn(INVOKEINTERFACE, Type.getInternalName(Map.class), "put",
-                        getMethodDescriptor(Map.class, "put", Object.class, Object.class), true);
-                mv.visitInsn(POP);
+            for (Map.Entry<Identifier, ExprNode> field : expr.getFields().entrySet()) {
+                mv.visitInsn(DUP);
+                visitValue(fields.indexOf(field.getKey().getId()));
+                visitExpr(field.getValue());
+                mv.visitInsn(AASTORE);
             }
 
             mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(Record.class), "valueOf",
-                    getMethodDescriptor(Record.class, "valueOf", Map.class), false);
+                    getMethodDescriptor(Record.class, "valueOf", String[].class,
+                            AbstractObj[].class), false);
         }
 
         /**
@@ -563,10 +740,11 @@ public final class Qux2ClassTranslater extends QuxAdapter {
         @Override
         public void visitExprRecordAccess(ExprNode.RecordAccess expr) {
             visitExpr(expr.getTarget());
+            visitValue(getSlot(expr));
             mv.visitLdcInsn(expr.getField().getId());
 
             mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Record.class), "get",
-                    getMethodDescriptor(Record.class, "get", String.class), false);
+                    getMethodDescriptor(Record.class, "get", int.class, String.class), false);
             visitCheckcast(expr);
         }
 
@@ -575,6 +753,15 @@ public final class Qux2ClassTranslater extends QuxAdapter {
          */
         @Override
         public void visitExprSet(ExprNode.Set expr) {
+            if (isLongValues(expr.getValues())) {
+                // Allocate the primitive specialised set directly
+                visitLongValues(expr.getValues());
+
+                mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(Set.class), "valueOf",
+                        getMethodDescriptor(Set.class, "valueOf", long[].class), false);
+                return;
+            }
+
             visitValue(expr.getValues().size());
             mv.visitTypeInsn(ANEWARRAY, Type.getInternalName(AbstractObj.class));
 
@@ -618,6 +805,17 @@ public final class Qux2ClassTranslater extends QuxAdapter {
          */
         @Override
         public void visitExprUnary(ExprNode.Unary expr) {
+            if ((expr.getOp() == Op.Unary.INC || expr.getOp() == Op.Unary.DEC) && expr.getTarget()
+                    instanceof ExprNode.Variable && isLong(
+                    ((ExprNode.Variable) expr.getTarget()).getName())) {
+                visitIncrement(((ExprNode.Variable) expr.getTarget()).getName(),
+                        expr.getOp() == Op.Unary.INC, true);
+                return;
+            } else if (isSpeculative(expr)) {
+                visitSpeculative(expr);
+                return;
+            }
+
             // TODO: We're visiting this expression multiple times throughout this method and it could cause issues if there are side effects inside of it
             visitExpr(expr.getTarget());
 
@@ -663,12 +861,14 @@ public final class Qux2ClassTranslater extends QuxAdapter {
 
                         visitExpr(access.getTarget());
                         mv.visitInsn(SWAP);
+                        visitValue(getSlot(access));
+                        mv.visitInsn(SWAP);
                         mv.visitLdcInsn(access.getField().getId());
                         mv.visitInsn(SWAP);
 
                         mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Record.class),
                                 "_assign_", getMethodDescriptor(Record.class, "_assign_",
-                                        String.class, AbstractObj.class), false);
+                                        int.class, String.class, AbstractObj.class), false);
                     }
                     break;
                 case INC:
@@ -709,12 +909,14 @@ public final class Qux2ClassTranslater extends QuxAdapter {
 
                         visitExpr(access.getTarget());
                         mv.visitInsn(SWAP);
+                        visitValue(getSlot(access));
+                        mv.visitInsn(SWAP);
                         mv.visitLdcInsn(access.getField().getId());
                         mv.visitInsn(SWAP);
 
                         mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Record.class),
                                 "_assign_", getMethodDescriptor(Record.class, "_assign_",
-                                        String.class, AbstractObj.class), false);
+                                        int.class, String.class, AbstractObj.class), false);
                     }
                     break;
                 case LEN:
@@ -722,6 +924,11 @@ public final class Qux2ClassTranslater extends QuxAdapter {
                             getMethodDescriptor(clazz, "_len_"), false);
                     break;
                 case NEG:
+                    if (isDynamic(expr.getTarget())) {
+                        visitInvokeDynamic("_neg_", getType(expr), expr.getTarget());
+                        break;
+                    }
+
                     mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(clazz), "_neg_",
                             getMethodDescriptor(clazz, "_neg_"), false);
                     visitCheckcast(expr.getTarget());
@@ -811,17 +1018,743 @@ public final class Qux2ClassTranslater extends QuxAdapter {
          */
         @Override
         public void visitExprVariable(ExprNode.Variable expr) {
+            if (isLong(expr.getName())) {
+                visitLoadBoxed(expr.getName());
+                return;
+            }
+
             mv.visitVarInsn(ALOAD, locals.indexOf(expr.getName()));
         }
 
+        /**
+         * Checks whether the given variable is held in a {@code long} slot.
+         */
+        boolean isLong(Identifier var) {
+            return longs.contains(var);
+        }
+
+        /**
+         * Reserves two local slots for a {@code long}.
+         *
+         * @return the index of the first slot.
+         */
+        int newLongLocal() {
+            int index = locals.size();
+
+            locals.add(new Identifier("$long" + index));
+            locals.add(new Identifier("$long" + (index + 1)));
+
+            return index;
+        }
+
+        /**
+         * Assigns the given expression to a variable held in a {@code long} slot. If the
+         * expression is int arithmetic over other such variables, then it is attempted on their
+         * {@code long} values first, see {@link #visitSpeculative(ExprNode)}.
+         */
+        void visitAssignLong(Identifier var, ExprNode expr) {
+            visitLineNumber(expr);
+
+            if (expr instanceof ExprNode.Value && isLongExpr(expr)) {
+                visitLongExpr(expr, null);
+                visitStoreLong(var);
+                return;
+            }
+
+            java.util.Set<Identifier> vars = getLongVariables(expr);
+            if (!speculate || !isLongExpr(expr) || vars.isEmpty()) {
+                visitExpr(expr);
+                visitStoreBoxed(var);
+                return;
+            }
+
+            Label slowLabel = new Label();
+            Label endLabel = new Label();
+
+            visitGuards(vars, slowLabel);
+            visitLongExpr(expr, slowLabel);
+            visitStoreLong(var);
+            mv.visitJumpInsn(GOTO, endLabel);
+
+            mv.visitLabel(slowLabel);
+            visitSlowExpr(expr);
+            visitStoreBoxed(var);
+
+            mv.visitLabel(endLabel);
+        }
+
+        /**
+         * Increments or decrements a variable held in a {@code long} slot, leaving its old value on
+         * the stack if requested. Falls back to the boxed arithmetic if the variable holds a big
+         * value or the result overflows.
+         */
+        void visitIncrement(Identifier var, boolean increment, boolean value) {
+            int index = getLongLocal(var);
+
+            Label slowLabel = new Label();
+            Label endLabel = new Label();
+
+            mv.visitVarInsn(ALOAD, locals.indexOf(var));
+            mv.visitJumpInsn(IFNONNULL, slowLabel);
+            mv.visitVarInsn(LLOAD, index);
+            visitValue(increment ? Long.MAX_VALUE : Long.MIN_VALUE);
+            mv.visitInsn(LCMP);
+            mv.visitJumpInsn(IFEQ, slowLabel);
+
+            if (value) {
+                mv.visitVarInsn(LLOAD, index);
+                visitBox();
+            }
+
+            mv.visitVarInsn(LLOAD, index);
+            mv.visitInsn(LCONST_1);
+            mv.visitInsn(increment ? LADD : LSUB);
+            mv.visitVarInsn(LSTORE, index);
+            mv.visitJumpInsn(GOTO, endLabel);
+
+            mv.visitLabel(slowLabel);
+            visitLoadBoxed(var);
+            if (value) {
+                mv.visitInsn(DUP);
+            }
+            String name = increment ? "_add_" : "_sub_";
+            mv.visitFieldInsn(GETSTATIC, Type.getInternalName(Int.class), "ONE",
+                    Type.getDescriptor(Int.class));
+            mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Int.class), name,
+                    getMethodDescriptor(Int.class, name, Int.class), false);
+            visitStoreBoxed(var);
+
+            mv.visitLabel(endLabel);
+        }
+
+        /**
+         * Stores the {@link Int} on top of the stack into a variable held in a {@code long} slot.
+         */
+        void visitStoreBoxed(Identifier var) {
+            Label bigLabel = new Label();
+            Label endLabel = new Label();
+
+            mv.visitInsn(DUP);
+            mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Int.class), "isSmall",
+                    getMethodDescriptor(Int.class, "isSmall"), false);
+            mv.visitJumpInsn(IFEQ, bigLabel);
+            mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Int.class), "longValue",
+                    getMethodDescriptor(Int.class, "longValue"), false);
+            visitStoreLong(var);
+            mv.visitJumpInsn(GOTO, endLabel);
+
+            mv.visitLabel(bigLabel);
+            mv.visitVarInsn(ASTORE, locals.indexOf(var));
+            // Keeps the long slot initialised on every path
+            mv.visitInsn(LCONST_0);
+            mv.visitVarInsn(LSTORE, getLongLocal(var));
+
+            mv.visitLabel(endLabel);
+        }
+
+        /**
+         * Stores the {@code long} on top of the stack into a variable held in a {@code long} slot.
+         */
+        void visitStoreLong(Identifier var) {
+            mv.visitVarInsn(LSTORE, getLongLocal(var));
+            mv.visitInsn(ACONST_NULL);
+            mv.visitVarInsn(ASTORE, locals.indexOf(var));
+        }
+
+        private int getLongLocal(Identifier var) {
+            Integer index = longLocals.get(var);
+            if (index == null) {
+                index = newLongLocal();
+                longLocals.put(var, index);
+            }
+
+            return index;
+        }
+
+        /**
+         * Gets the variables held in {@code long} slots that the given int expression reads.
+         */
+        private java.util.Set<Identifier> getLongVariables(ExprNode expr) {
+            java.util.Set<Identifier> vars = new LinkedHashSet<>();
+
+            if (expr instanceof ExprNode.Variable) {
+                if (isLong(((ExprNode.Variable) expr).getName())) {
+                    vars.add(((ExprNode.Variable) expr).getName());
+                }
+            } else if (expr instanceof ExprNode.Binary) {
+                vars.addAll(getLongVariables(((ExprNode.Binary) expr).getLhs()));
+                vars.addAll(getLongVariables(((ExprNode.Binary) expr).getRhs()));
+            } else if (expr instanceof ExprNode.Unary) {
+                vars.addAll(getLongVariables(((ExprNode.Unary) expr).getTarget()));
+            }
+
+            return vars;
+        }
+
+        /**
+         * Checks whether the given expression may be computed on {@code long} values, i.e.,
+         * whether it is built from int literals, variables held in {@code long} slots and the
+         * {@code +}, {@code -}, {@code *}, {@code //}, {@code %} and negation operators.
+         */
+        private boolean isLongExpr(ExprNode expr) {
+            if (expr instanceof ExprNode.Value) {
+                ExprNode.Value value = (ExprNode.Value) expr;
+
+                return value.getType() == ExprNode.Value.Type.INT
+                        && ((BigInteger) value.getValue()).bitLength() < 64;
+            } else if (expr instanceof ExprNode.Variable) {
+                return isLong(((ExprNode.Variable) expr).getName());
+            } else if (expr instanceof ExprNode.Binary) {
+                ExprNode.Binary binary = (ExprNode.Binary) expr;
+
+                switch (binary.getOp()) {
+                    case ADD:
+                    case IDIV:
+                    case MUL:
+                    case REM:
+                    case SUB:
+                        return isLongExpr(binary.getLhs()) && isLongExpr(binary.getRhs());
+                    default:
+                        return false;
+                }
+            } else if (expr instanceof ExprNode.Unary) {
+                ExprNode.Unary unary = (ExprNode.Unary) expr;
+
+                return unary.getOp() == Op.Unary.NEG && isLongExpr(unary.getTarget());
+            }
+
+            return false;
+        }
+
+        /**
+         * Gets the name of the runtime method that implements the given arithmetic operator.
+         */
+        private String getMethodName(Op.Binary op) {
+            switch (op) {
+                case ADD:
+                    return "_add_";
+                case DIV:
+                    return "_div_";
+                case MUL:
+                    return "_mul_";
+                case REM:
+                    return "_rem_";
+                case SUB:
+                    return "_sub_";
+                default:
+                    throw new MethodNotImplementedError(op.toString());
+            }
+        }
+
+        /**
+         * Gets the jump instruction that jumps on the sign of a comparison, e.g., the result of
+         * {@code compareTo} or {@code LCMP}, if the given comparison holds.
+         */
+        private int getJumpOpcode(Op.Binary op) {
+            switch (op) {
+                case EQ:
+                    return IFEQ;
+                case GT:
+                    return IFGT;
+                case GTE:
+                    return IFGE;
+                case LT:
+                    return IFLT;
+                case LTE:
+                    return IFLE;
+                case NEQ:
+                    return IFNE;
+                default:
+                    throw new MethodNotImplementedError(op.toString());
+            }
+        }
+
+        /**
+         * Gets the jump instruction that jumps exactly when the given one doesn't.
+         */
+        private int negateJumpOpcode(int opcode) {
+            switch (opcode) {
+                case IFEQ:
+                    return IFNE;
+                case IFGE:
+                    return IFLT;
+                case IFGT:
+                    return IFLE;
+                case IFLE:
+                    return IFGT;
+                case IFLT:
+                    return IFGE;
+                case IFNE:
+                    return IFEQ;
+                default:
+                    throw new IllegalArgumentException("opcode is not a jump on an int: " + opcode);
+            }
+        }
+
+        /**
+         * Checks whether the given expression has a type that is too imprecise to pick the method
+         * of an operator on it statically, i.e., {@code any} or a union. Operators on such values
+         * are compiled to {@code invokedynamic} call sites instead.
+         */
+        private boolean isDynamic(ExprNode expr) {
+            com.hjwylde.qux.util.Type type = getQuxType(expr);
+
+            return type instanceof com.hjwylde.qux.util.Type.Any
+                    || type instanceof com.hjwylde.qux.util.Type.Union;
+        }
+
+        /**
+         * Checks whether the given expression is a comparison or a logical and or or, i.e., an
+         * expression that may be compiled into jumps by {@link #visitCondition(ExprNode, boolean,
+         * Label)}.
+         */
+        private boolean isCondition(ExprNode expr) {
+            if (!(expr instanceof ExprNode.Binary)) {
+                return false;
+            }
+
+            switch (((ExprNode.Binary) expr).getOp()) {
+                case AND:
+                case OR:
+                    // These operators are bitwise on ints
+                    return getQuxType(expr) instanceof com.hjwylde.qux.util.Type.Bool;
+                case EQ:
+                case GT:
+                case GTE:
+                case LT:
+                case LTE:
+                case NEQ:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Checks whether the given expression is a comparison of two expressions that may be
+         * computed on {@code long} values.
+         */
+        private boolean isLongComparison(ExprNode expr) {
+            if (!(expr instanceof ExprNode.Binary)) {
+                return false;
+            }
+
+            ExprNode.Binary binary = (ExprNode.Binary) expr;
+
+            switch (binary.getOp()) {
+                case EQ:
+                case GT:
+                case GTE:
+                case LT:
+                case LTE:
+                case NEQ:
+                    return isLongExpr(binary.getLhs()) && isLongExpr(binary.getRhs());
+                default:
+                    return false;
+            }
+        }
+
+        private boolean isSpeculative(ExprNode expr) {
+            return speculate && (isLongExpr(expr) || isLongComparison(expr))
+                    && !getLongVariables(expr).isEmpty();
+        }
+
+        private void visitBox() {
+            mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(Int.class), "valueOf",
+                    getMethodDescriptor(Int.class, "valueOf", long.class), false);
+        }
+
+        /**
+         * Jumps to the given label if any of the given variables hold a value that doesn't fit in
+         * a {@code long}.
+         */
+        private void visitGuards(java.util.Set<Identifier> vars, Label slowLabel) {
+            for (Identifier var : vars) {
+                mv.visitVarInsn(ALOAD, locals.indexOf(var));
+                mv.visitJumpInsn(IFNONNULL, slowLabel);
+            }
+        }
+
+        /**
+         * Loads a variable held in a {@code long} slot as an {@link Int}.
+         */
+        private void visitLoadBoxed(Identifier var) {
+            Label endLabel = new Label();
+
+            mv.visitVarInsn(ALOAD, locals.indexOf(var));
+            mv.visitInsn(DUP);
+            mv.visitJumpInsn(IFNONNULL, endLabel);
+            mv.visitInsn(POP);
+            mv.visitVarInsn(LLOAD, getLongLocal(var));
+            visitBox();
+
+            mv.visitLabel(endLabel);
+        }
+
+        /**
+         * Computes the given expression on {@code long} values, jumping to the given label if it
+         * overflows or would raise an error. The guards on the variables must already have been
+         * visited.
+         * <p>
+         * Intermediate results are held in locals rather than on the stack, so that the stack is
+         * the same at every jump to the label.
+         */
+        private void visitLongExpr(ExprNode expr, Label slowLabel) {
+            if (expr instanceof ExprNode.Value) {
+                visitValue(((BigInteger) ((ExprNode.Value) expr).getValue()).longValue());
+            } else if (expr instanceof ExprNode.Variable) {
+                mv.visitVarInsn(LLOAD, getLongLocal(((ExprNode.Variable) expr).getName()));
+            } else if (expr instanceof ExprNode.Unary) {
+                ExprNode target = ((ExprNode.Unary) expr).getTarget();
+                int index = visitLongOperand(target, slowLabel);
+
+                // -Long.MIN_VALUE is the only negation that overflows
+                visitLoadLongOperand(target, index);
+                visitValue(Long.MIN_VALUE);
+                mv.visitInsn(LCMP);
+                mv.visitJumpInsn(IFEQ, slowLabel);
+
+                visitLoadLongOperand(target, index);
+                mv.visitInsn(LNEG);
+            } else {
+                ExprNode.Binary binary = (ExprNode.Binary) expr;
+
+                ExprNode lhs = binary.getLhs();
+                ExprNode rhs = binary.getRhs();
+                int lhsIndex = visitLongOperand(lhs, slowLabel);
+                int rhsIndex = visitLongOperand(rhs, slowLabel);
+                int result;
+
+                switch (binary.getOp()) {
+                    case ADD:
+                        visitLoadLongOperand(lhs, lhsIndex);
+                        visitLoadLongOperand(rhs, rhsIndex);
+                        mv.visitInsn(LADD);
+                        result = newLongLocal();
+                        mv.visitVarInsn(LSTORE, result);
+
+                        // Overflow iff both arguments have a different sign to the result
+                        visitLoadLongOperand(lhs, lhsIndex);
+                        mv.visitVarInsn(LLOAD, result);
+                        mv.visitInsn(LXOR);
+                        visitLoadLongOperand(rhs, rhsIndex);
+                        mv.visitVarInsn(LLOAD, result);
+                        mv.visitInsn(LXOR);
+                        mv.visitInsn(LAND);
+                        mv.visitInsn(LCONST_0);
+                        mv.visitInsn(LCMP);
+                        mv.visitJumpInsn(IFLT, slowLabel);
+
+                        mv.visitVarInsn(LLOAD, result);
+                        break;
+                    case IDIV:
+                        // Division by zero raises an error and Long.MIN_VALUE // -1 overflows
+                        visitLongCheck(rhs, rhsIndex, 0, slowLabel);
+                        visitLongCheck(rhs, rhsIndex, -1, slowLabel);
+
+                        visitLoadLongOperand(lhs, lhsIndex);
+                        visitLoadLongOperand(rhs, rhsIndex);
+                        mv.visitInsn(LDIV);
+                        break;
+                    case MUL:
+                        // If both arguments fit in an int then the product can't overflow
+                        visitIntCheck(lhs, lhsIndex, slowLabel);
+                        visitIntCheck(rhs, rhsIndex, slowLabel);
+
+                        visitLoadLongOperand(lhs, lhsIndex);
+                        visitLoadLongOperand(rhs, rhsIndex);
+                        mv.visitInsn(LMUL);
+                        break;
+                    case REM:
+                        visitLongCheck(rhs, rhsIndex, 0, slowLabel);
+
+                        visitLoadLongOperand(lhs, lhsIndex);
+                        visitLoadLongOperand(rhs, rhsIndex);
+                        mv.visitInsn(LREM);
+                        break;
+                    case SUB:
+                        visitLoadLongOperand(lhs, lhsIndex);
+                        visitLoadLongOperand(rhs, rhsIndex);
+                        mv.visitInsn(LSUB);
+                        result = newLongLocal();
+                        mv.visitVarInsn(LSTORE, result);
+
+                        // Overflow iff the arguments have different signs and the sign of the
+                        // result differs from the sign of the left argument
+                        visitLoadLongOperand(lhs, lhsIndex);
+                        visitLoadLongOperand(rhs, rhsIndex);
+                        mv.visitInsn(LXOR);
+                        visitLoadLongOperand(lhs, lhsIndex);
+                        mv.visitVarInsn(LLOAD, result);
+                        mv.visitInsn(LXOR);
+                        mv.visitInsn(LAND);
+                        mv.visitInsn(LCONST_0);
+                        mv.visitInsn(LCMP);
+                        mv.visitJumpInsn(IFLT, slowLabel);
+
+                        mv.visitVarInsn(LLOAD, result);
+                        break;
+                    default:
+                        throw new MethodNotImplementedError(binary.getOp().toString());
+                }
+            }
+        }
+
+        /**
+         * Jumps to the given label unless the given operand fits in an {@code int}.
+         */
+        private void visitIntCheck(ExprNode operand, int index, Label slowLabel) {
+            if (operand instanceof ExprNode.Value
+                    && ((BigInteger) ((ExprNode.Value) operand).getValue()).bitLength() < 32) {
+                return;
+            }
+
+            visitLoadLongOperand(operand, index);
+            mv.visitInsn(L2I);
+            mv.visitInsn(I2L);
+            visitLoadLongOperand(operand, index);
+            mv.visitInsn(LCMP);
+            mv.visitJumpInsn(IFNE, slowLabel);
+        }
+
+        /**
+         * Jumps to the given label if the given operand is equal to the given value.
+         */
+        private void visitLongCheck(ExprNode operand, int index, long value, Label slowLabel) {
+            if (operand instanceof ExprNode.Value
+                    && ((BigInteger) ((ExprNode.Value) operand).getValue()).longValue() != value) {
+                return;
+            }
+
+            visitLoadLongOperand(operand, index);
+            visitValue(value);
+            mv.visitInsn(LCMP);
+            mv.visitJumpInsn(IFEQ, slowLabel);
+        }
+
+        /**
+         * Loads an operand visited by {@link #visitLongOperand(ExprNode, Label)}.
+         */
+        private void visitLoadLongOperand(ExprNode operand, int index) {
+            if (index < 0) {
+                visitLongExpr(operand, null);
+            } else {
+                mv.visitVarInsn(LLOAD, index);
+            }
+        }
+
+        /**
+         * Computes an operand of a {@code long} expression into a local. Literals and variables
+         * are cheap to load, so they aren't computed until they're loaded and {@code -1} is
+         * returned.
+         *
+         * @return the index of the local holding the operand, or {@code -1}.
+         */
+        private int visitLongOperand(ExprNode operand, Label slowLabel) {
+            if (operand instanceof ExprNode.Value || operand instanceof ExprNode.Variable) {
+                return -1;
+            }
+
+            visitLongExpr(operand, slowLabel);
+
+            int index = newLongLocal();
+            mv.visitVarInsn(LSTORE, index);
+
+            return index;
+        }
+
+        private void visitSlowExpr(ExprNode expr) {
+            boolean speculate = this.speculate;
+            this.speculate = false;
+
+            visitExpr(expr);
+
+            this.speculate = speculate;
+        }
+
+        /**
+         * Visits an int expression over variables held in {@code long} slots. It is first attempted
+         * on the {@code long} values of the variables. If any of them hold a big value, or the
+         * arithmetic overflows or would raise an error, then the expression is computed again
+         * using the boxed arithmetic. As the expression only reads variables, it is
+         * safe to compute it twice.
+         */
+        private void visitSpeculative(ExprNode expr) {
+            Label slowLabel = new Label();
+            Label endLabel = new Label();
+
+            visitGuards(getLongVariables(expr), slowLabel);
+
+            visitLongExpr(expr, slowLabel);
+            visitBox();
+
+            mv.visitJumpInsn(GOTO, endLabel);
+
+            mv.visitLabel(slowLabel);
+            visitSlowExpr(expr);
+
+            mv.visitLabel(endLabel);
+        }
+
         private void visitCheckcast(Node node) {
             mv.visitTypeInsn(CHECKCAST, getType(node).getInternalName());
         }
 
+        /**
+         * Visits a condition, materialising its value as a {@link Bool}.
+         */
+        private void visitBool(ExprNode expr) {
+            Label trueLabel = new Label();
+            Label endLabel = new Label();
+
+            visitCondition(expr, true, trueLabel);
+            mv.visitFieldInsn(GETSTATIC, Type.getInternalName(Bool.class), "FALSE",
+                    Type.getDescriptor(Bool.class));
+            mv.visitJumpInsn(GOTO, endLabel);
+
+            mv.visitLabel(trueLabel);
+            mv.visitFieldInsn(GETSTATIC, Type.getInternalName(Bool.class), "TRUE",
+                    Type.getDescriptor(Bool.class));
+
+            mv.visitLabel(endLabel);
+        }
+
+        /**
+         * Visits a comparison as a condition, jumping on the result of {@code equalTo} or {@code
+         * compareTo}. If the operands may be computed on {@code long} values, then the comparison
+         * is first attempted on them in the same manner as {@link #visitSpeculative(ExprNode)}.
+         */
+        private void visitComparison(ExprNode.Binary expr, boolean jumpIf, Label label) {
+            int opcode = getJumpOpcode(expr.getOp());
+            if (!jumpIf) {
+                opcode = negateJumpOpcode(opcode);
+            }
+
+            if (isSpeculative(expr)) {
+                Label slowLabel = new Label();
+                Label endLabel = new Label();
+
+                visitGuards(getLongVariables(expr), slowLabel);
+
+                int lhsIndex = visitLongOperand(expr.getLhs(), slowLabel);
+                int rhsIndex = visitLongOperand(expr.getRhs(), slowLabel);
+
+                visitLoadLongOperand(expr.getLhs(), lhsIndex);
+                visitLoadLongOperand(expr.getRhs(), rhsIndex);
+                mv.visitInsn(LCMP);
+                mv.visitJumpInsn(opcode, label);
+                mv.visitJumpInsn(GOTO, endLabel);
+
+                mv.visitLabel(slowLabel);
+                speculate = false;
+                visitComparison(expr, jumpIf, label);
+                speculate = true;
+
+                mv.visitLabel(endLabel);
+                return;
+            }
+
+            visitExpr(expr.getLhs());
+            visitExpr(expr.getRhs());
+
+            boolean equality = expr.getOp() == Op.Binary.EQ || expr.getOp() == Op.Binary.NEQ;
+
+            if (isDynamic(expr.getLhs())) {
+                visitInvokeDynamic(equality ? "equalTo" : "compareTo", equality ? Type.BOOLEAN_TYPE
+                        : Type.INT_TYPE, expr.getLhs(), expr.getRhs());
+            } else if (equality) {
+                Class<?> lhsClass = Qux2ClassTranslater.getClass(expr.getLhs());
+
+                mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(lhsClass), "equalTo",
+                        getMethodDescriptor(lhsClass, "equalTo", AbstractObj.class), false);
+            } else {
+                mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(AbstractObj.class),
+                        "compareTo", getMethodDescriptor(AbstractObj.class, "compareTo",
+                                AbstractObj.class), false);
+            }
+
+            // equalTo returns a boolean rather than the sign of a comparison, so the jump is on the
+            // opposite condition
+            mv.visitJumpInsn(equality ? negateJumpOpcode(opcode) : opcode, label);
+        }
+
+        /**
+         * Visits an {@code invokedynamic} call site for the runtime method of the given name,
+         * called on the first of the given operands with the rest as arguments. The operands must
+         * already be on the stack. The site is linked by {@link qux.lang.InlineCache}.
+         */
+        private void visitInvokeDynamic(String name, Type returnType, ExprNode... operands) {
+            Type[] operandTypes = new Type[operands.length];
+            for (int i = 0; i < operands.length; i++) {
+                operandTypes[i] = getType(operands[i]);
+            }
+
+            mv.visitInvokeDynamicInsn(name, Type.getMethodDescriptor(returnType, operandTypes),
+                    BOOTSTRAP);
+        }
+
         private void visitLineNumber(Node node) {
             line = Qux2ClassTranslater.visitLineNumber(mv, node, line);
         }
 
+        /**
+         * Visits a logical and or or as a condition. The right hand side is only evaluated if the
+         * left hand side doesn't decide the value, i.e., if it is true for an and or false for an
+         * or.
+         */
+        private void visitLogical(ExprNode.Binary expr, boolean jumpIf, Label label) {
+            // The value of the left hand side that decides the value of the expression
+            boolean decider = expr.getOp() == Op.Binary.OR;
+
+            if (jumpIf == decider) {
+                visitCondition(expr.getLhs(), decider, label);
+                visitCondition(expr.getRhs(), decider, label);
+            } else {
+                Label endLabel = new Label();
+
+                visitCondition(expr.getLhs(), decider, endLabel);
+                visitCondition(expr.getRhs(), jumpIf, label);
+
+                mv.visitLabel(endLabel);
+            }
+        }
+
+        /**
+         * Checks whether the given values are all int literals that fit in a {@code long}. If so,
+         * then they may be passed to the runtime as a {@code long[]}.
+         */
+        private boolean isLongValues(java.util.List<ExprNode> values) {
+            if (values.isEmpty()) {
+                return false;
+            }
+
+            for (ExprNode value : values) {
+                if (!(value instanceof ExprNode.Value)) {
+                    return false;
+                }
+
+                ExprNode.Value literal = (ExprNode.Value) value;
+                if (literal.getType() != ExprNode.Value.Type.INT
+                        || ((BigInteger) literal.getValue()).bitLength() >= 64) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private void visitLongValues(java.util.List<ExprNode> values) {
+            visitValue(values.size());
+            mv.visitIntInsn(NEWARRAY, T_LONG);
+
+            for (int i = 0; i < values.size(); i++) {
+                mv.visitInsn(DUP);
+                visitValue(i);
+                visitValue(((BigInteger) ((ExprNode.Value) values.get(i)).getValue()).longValue());
+                mv.visitInsn(LASTORE);
+            }
+        }
+
         private void visitValue(BigDecimal value) {
             mv.visitLdcInsn(value.toString());
         }
@@ -878,14 +1811,14 @@ public final class Qux2ClassTranslater extends QuxAdapter {
             // Create the new byte array
             mv.visitIntInsn(NEWARRAY, T_BYTE);
 
-            for (byte b : value) {
+            for (int i = 0; i < value.length; i++) {
                 // Duplicate the array reference
                 mv.visitInsn(DUP);
 
                 // Push the array index
-                visitValue(1);
+                visitValue(i);
                 // Push the byte value
-                visitValue(b);
+                visitValue(value[i]);
                 // Store to the array reference
                 mv.visitInsn(BASTORE);
             }
@@ -919,6 +1852,11 @@ public final class Qux2ClassTranslater extends QuxAdapter {
         private final Identifier name;
         private final com.hjwylde.qux.util.Type.Function type;
 
+        /**
+         * The names of the variables held in {@code long} slots, see {@link LongLocals}.
+         */
+        private final ImmutableSet<Identifier> longs;
+
         private Expr2ClassTranslater et;
 
         /**
@@ -940,13 +1878,15 @@ public final class Qux2ClassTranslater extends QuxAdapter {
         private int line = Integer.MIN_VALUE;
 
         public Function2ClassTranslater(MethodVisitor mv, int flags, Identifier name,
-                com.hjwylde.qux.util.Type.Function type) {
+                com.hjwylde.qux.util.Type.Function type, ImmutableSet<Identifier> longs) {
             this.mv = checkNotNull(mv, "mv cannot be null");
 
             this.flags = flags;
             this.name = checkNotNull(name, "name cannot be null");
             this.type = (com.hjwylde.qux.util.Type.Function) getQuxType(checkNotNull(type,
                     "type cannot be null"));
+
+            this.longs = checkNotNull(longs, "longs cannot be null");
         }
 
         public void visitBlock(java.util.List<StmtNode> stmts) {
@@ -962,7 +1902,15 @@ public final class Qux2ClassTranslater extends QuxAdapter {
         public void visitCode() {
             mv.visitCode();
 
-            et = new Expr2ClassTranslater(mv, locals);
+            et = new Expr2ClassTranslater(mv, locals, longs, optimise);
+
+            // Move the parameters held in long slots into them
+            for (int i = 0; i < type.getParameterTypes().size(); i++) {
+                if (et.isLong(locals.get(i))) {
+                    mv.visitVarInsn(ALOAD, i);
+                    et.visitStoreBoxed(locals.get(i));
+                }
+            }
         }
 
         /**
@@ -1021,16 +1969,26 @@ public final class Qux2ClassTranslater extends QuxAdapter {
                     ExprNode.RecordAccess recordAccess = (ExprNode.RecordAccess) stmt.getLhs();
 
                     visitExpr(recordAccess.getTarget());
+                    mv.visitLdcInsn(getSlot(recordAccess));
                     mv.visitLdcInsn(recordAccess.getField().getId());
                     visitExpr(stmt.getExpr());
 
                     mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Record.class),
-                            "_assign_", getMethodDescriptor(Record.class, "_assign_", String.class,
-                                    AbstractObj.class), false);
+                            "_assign_", getMethodDescriptor(Record.class, "_assign_", int.class,
+                                    String.class, AbstractObj.class), false);
                     break;
                 case VARIABLE:
                     ExprNode.Variable variable = (ExprNode.Variable) stmt.getLhs();
 
+                    if (et.isLong(variable.getName())) {
+                        if (!locals.contains(variable.getName())) {
+                            locals.add(variable.getName());
+                        }
+
+                        et.visitAssignLong(variable.getName(), stmt.getExpr());
+                        break;
+                    }
+
                     visitExpr(stmt.getExpr());
 
                     if (!locals.contains(variable.getName())) {
@@ -1051,6 +2009,19 @@ public final class Qux2ClassTranslater extends QuxAdapter {
         public void visitStmtExpr(StmtNode.Expr stmt) {
             visitLineNumber(stmt);
 
+            if (stmt.getExpr() instanceof ExprNode.Unary) {
+                ExprNode.Unary unary = (ExprNode.Unary) stmt.getExpr();
+
+                // The old value of an increment or decrement statement isn't needed
+                if ((unary.getOp() == Op.Unary.INC || unary.getOp() == Op.Unary.DEC)
+                        && unary.getTarget() instanceof ExprNode.Variable && et.isLong(
+                        ((ExprNode.Variable) unary.getTarget()).getName())) {
+                    et.visitIncrement(((ExprNode.Variable) unary.getTarget()).getName(),
+                            unary.getOp() == Op.Unary.INC, false);
+                    return;
+                }
+            }
+
             visitExpr(stmt.getExpr());
 
             if (getType(stmt.getExpr()) != Type.VOID_TYPE) {
@@ -1065,6 +2036,12 @@ public final class Qux2ClassTranslater extends QuxAdapter {
         public void visitStmtFor(StmtNode.For stmt) {
             visitLineNumber(stmt);
 
+            if (optimise && stmt.getExpr() instanceof ExprNode.Binary
+                    && ((ExprNode.Binary) stmt.getExpr()).getOp() == Op.Binary.RNG) {
+                visitStmtForRange(stmt);
+                return;
+            }
+
             visitExpr(stmt.getExpr());
 
             com.hjwylde.qux.util.Type innerType = com.hjwylde.qux.util.Type.getInnerType(getQuxType(
@@ -1094,7 +2071,11 @@ public final class Qux2ClassTranslater extends QuxAdapter {
             mv.visitMethodInsn(INVOKEINTERFACE, Type.getInternalName(Iterator.class), "next",
                     getMethodDescriptor(Iterator.class, "next"), true);
             mv.visitTypeInsn(CHECKCAST, getType(innerType).getInternalName());
-            mv.visitVarInsn(ASTORE, var);
+            if (et.isLong(stmt.getVar())) {
+                et.visitStoreBoxed(stmt.getVar());
+            } else {
+                mv.visitVarInsn(ASTORE, var);
+            }
 
             visitBlock(stmt.getBody());
 
@@ -1109,15 +2090,10 @@ public final class Qux2ClassTranslater extends QuxAdapter {
         public void visitStmtIf(StmtNode.If stmt) {
             visitLineNumber(stmt);
 
-            visitExpr(stmt.getCondition());
-
-            mv.visitFieldInsn(GETSTATIC, Type.getInternalName(Bool.class), "FALSE",
-                    Type.getDescriptor(Bool.class));
-
             Label falseLabel = new Label();
             Label endLabel = new Label();
 
-            mv.visitJumpInsn(IF_ACMPEQ, falseLabel);
+            et.visitCondition(stmt.getCondition(), false, falseLabel);
 
             visitBlock(stmt.getTrueBlock());
 
@@ -1143,15 +2119,11 @@ public final class Qux2ClassTranslater extends QuxAdapter {
         public void visitStmtPrint(StmtNode.Print stmt) {
             visitLineNumber(stmt);
 
-            mv.visitFieldInsn(GETSTATIC, Type.getInternalName(System.class), "out",
-                    Type.getDescriptor(PrintStream.class));
-
             visitExpr(stmt.getExpr());
 
-            mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Object.class), "toString",
-                    getMethodDescriptor(Object.class, "toString"), false);
-            mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(PrintStream.class), "println",
-                    getMethodDescriptor(PrintStream.class, "println", String.class), false);
+            // The console buffers the output and encodes the object directly into the buffer
+            mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(Console.class), "println",
+                    getMethodDescriptor(Console.class, "println", AbstractObj.class), false);
         }
 
         /**
@@ -1182,11 +2154,124 @@ public final class Qux2ClassTranslater extends QuxAdapter {
 
             mv.visitLabel(startLabel);
 
-            visitExpr(stmt.getCondition());
+            et.visitCondition(stmt.getCondition(), false, endLabel);
 
+            visitBlock(stmt.getBody());
+
+            mv.visitJumpInsn(GOTO, startLabel);
+            mv.visitLabel(endLabel);
+        }
+
+        /**
+         * Visits a for loop over a range, {@code for var in from..to}. If both bounds fit in a
+         * {@code long}, then the loop counts over a {@code long} rather than creating the range
+         * and iterating over it. Otherwise it iterates over the range as usual, sharing the loop
+         * body so that it is only generated once.
+         */
+        private void visitStmtForRange(StmtNode.For stmt) {
+            ExprNode.Binary range = (ExprNode.Binary) stmt.getExpr();
+
+            locals.add(stmt.getVar());
+            int var = locals.indexOf(stmt.getVar());
+            int from = locals.indexOf(generateVariable());
+            int to = locals.indexOf(generateVariable());
+            // The iterator, or null if counting over a long
+            int iter = locals.indexOf(generateVariable());
+            int index = et.newLongLocal();
+            int end = et.newLongLocal();
+            Label iterLabel = new Label();
+            Label startLabel = new Label();
+            Label nextLabel = new Label();
+            Label bodyLabel = new Label();
+            Label endLabel = new Label();
+
+            visitExpr(range.getLhs());
+            mv.visitVarInsn(ASTORE, from);
+            visitExpr(range.getRhs());
+            mv.visitVarInsn(ASTORE, to);
+
+            mv.visitVarInsn(ALOAD, from);
+            mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Int.class), "isSmall",
+                    getMethodDescriptor(Int.class, "isSmall"), false);
+            mv.visitJumpInsn(IFEQ, iterLabel);
+            mv.visitVarInsn(ALOAD, to);
+            mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Int.class), "isSmall",
+                    getMethodDescriptor(Int.class, "isSmall"), false);
+            mv.visitJumpInsn(IFEQ, iterLabel);
+
+            mv.visitVarInsn(ALOAD, from);
+            mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Int.class), "longValue",
+                    getMethodDescriptor(Int.class, "longValue"), false);
+            mv.visitVarInsn(LSTORE, index);
+            mv.visitVarInsn(ALOAD, to);
+            mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Int.class), "longValue",
+                    getMethodDescriptor(Int.class, "longValue"), false);
+            mv.visitVarInsn(LSTORE, end);
+
+            // Leave the runtime to raise the error for a reversed range
+            mv.visitVarInsn(LLOAD, index);
+            mv.visitVarInsn(LLOAD, end);
+            mv.visitInsn(LCMP);
+            mv.visitJumpInsn(IFGT, iterLabel);
+
+            mv.visitInsn(ACONST_NULL);
+            mv.visitVarInsn(ASTORE, iter);
+            mv.visitJumpInsn(GOTO, startLabel);
+
+            mv.visitLabel(iterLabel);
+            mv.visitVarInsn(ALOAD, from);
+            mv.visitVarInsn(ALOAD, to);
+            mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Int.class), "_rng_",
+                    getMethodDescriptor(Int.class, "_rng_", Int.class), false);
+            mv.visitMethodInsn(INVOKEINTERFACE, Type.getInternalName(Iterable.class), "_iter_",
+                    getMethodDescriptor(Iterable.class, "_iter_"), true);
+            mv.visitVarInsn(ASTORE, iter);
+            // Keeps the long slots initialised on every path
+            mv.visitInsn(LCONST_0);
+            mv.visitVarInsn(LSTORE, index);
+            mv.visitInsn(LCONST_0);
+            mv.visitVarInsn(LSTORE, end);
+
+            mv.visitLabel(startLabel);
+
+            mv.visitVarInsn(ALOAD, iter);
+            mv.visitJumpInsn(IFNONNULL, nextLabel);
+            mv.visitVarInsn(LLOAD, index);
+            mv.visitVarInsn(LLOAD, end);
+            mv.visitInsn(LCMP);
+            mv.visitJumpInsn(IFGE, endLabel);
+            mv.visitVarInsn(LLOAD, index);
+            if (et.isLong(stmt.getVar())) {
+                et.visitStoreLong(stmt.getVar());
+            } else {
+                mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(Int.class), "valueOf",
+                        getMethodDescriptor(Int.class, "valueOf", long.class), false);
+                mv.visitVarInsn(ASTORE, var);
+            }
+            mv.visitVarInsn(LLOAD, index);
+            mv.visitInsn(LCONST_1);
+            mv.visitInsn(LADD);
+            mv.visitVarInsn(LSTORE, index);
+            mv.visitJumpInsn(GOTO, bodyLabel);
+
+            mv.visitLabel(nextLabel);
+            mv.visitVarInsn(ALOAD, iter);
+            mv.visitMethodInsn(INVOKEINTERFACE, Type.getInternalName(Iterator.class), "hasNext",
+                    getMethodDescriptor(Iterator.class, "hasNext"), true);
             mv.visitFieldInsn(GETSTATIC, Type.getInternalName(Bool.class), "TRUE",
                     Type.getDescriptor(Bool.class));
             mv.visitJumpInsn(IF_ACMPNE, endLabel);
+            mv.visitVarInsn(ALOAD, iter);
+            mv.visitMethodInsn(INVOKEINTERFACE, Type.getInternalName(Iterator.class), "next",
+                    getMethodDescriptor(Iterator.class, "next"), true);
+            mv.visitTypeInsn(CHECKCAST, Type.getInternalName(Int.class));
+            if (et.isLong(stmt.getVar())) {
+                et.visitStoreBoxed(stmt.getVar());
+            } else {
+                mv.visitVarInsn(ASTORE, var);
+            }
+
+            mv.visitLabel(bodyLabel);
 
             visitBlock(stmt.getBody());
 
@@ -1206,4 +2291,40 @@ public final class Qux2ClassTranslater extends QuxAdapter {
             line = Qux2ClassTranslater.visitLineNumber(mv, node, line);
         }
     }
+
+    /**
+     * Buffers a function so that its whole body is available before it is translated. Used when
+     * optimising, as the translation depends on every definition of each local variable.
+     *
+     * @author Henry J. Wylde
+     * @since 0.2.6
+     */
+    private final class FunctionBuffer extends FunctionAdapter {
+
+        private final MethodVisitor mv;
+
+        private final FunctionNode function;
+
+        public FunctionBuffer(MethodVisitor mv, FunctionNode function) {
+            super(function);
+
+            this.mv = checkNotNull(mv, "mv cannot be null");
+
+            this.function = function;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visitEnd() {
+            super.visitEnd();
+
+            FunctionVisitor fv = new Function2ClassTranslater(mv, function.getFlags(),
+                    function.getName(), function.getType(), LongLocals.find(function));
+
+            function.accept(fv);
+            fv.visitEnd();
+        }
+    }
 }
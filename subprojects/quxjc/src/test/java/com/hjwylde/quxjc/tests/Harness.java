@@ -13,6 +13,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
@@ -22,8 +23,11 @@ import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 /**
  * TODO: Documentation
@@ -90,22 +94,25 @@ public abstract class Harness {
         this.root = root.toAbsolutePath().normalize();
     }
 
-    protected final void compile(final String id) throws IOException {
-        String[] args =
-                new String[] {QUXJC_EXECUTABLE, "-cp", QUXJC_CLASSPATH, "-od", root.toString(),
-                        getTestPath(id, QUX_EXT).toString()};
+    protected final void compile(final String id) throws IOException, ExecutionException {
+        List<String> args = new ArrayList<>();
+        args.addAll(Arrays.asList(QUXJC_EXECUTABLE, "-cp", QUXJC_CLASSPATH, "-od",
+                root.toString()));
+        args.addAll(getCompileOptions());
+        args.add(getTestPath(id, QUX_EXT).toString());
 
         ProcessBuilder pb = new ProcessBuilder(args);
         final Process quxc = pb.start();
 
         try {
-            int result = quxc.waitFor();
+            FutureTask<List<String>> err = readLines(quxc.getErrorStream());
 
             List<String> output = new ArrayList<>();
             output.addAll(CharStreams.readLines(new InputStreamReader(quxc.getInputStream(),
                     StandardCharsets.UTF_8)));
-            output.addAll(CharStreams.readLines(new InputStreamReader(quxc.getErrorStream(),
-                    StandardCharsets.UTF_8)));
+            output.addAll(err.get());
+
+            int result = quxc.waitFor();
 
             if (result != 0) {
                 fail("qux compilation exited with non-zero exit status '" + result + "'");
@@ -129,10 +136,14 @@ public abstract class Harness {
         final Process java = pb.start();
 
         try {
-            int result = java.waitFor();
-
-            List<String> err = CharStreams.readLines(new InputStreamReader(java.getErrorStream(),
+            // Read both outputs before waiting, otherwise a program that fills either pipe never
+            // exits
+            FutureTask<List<String>> errTask = readLines(java.getErrorStream());
+            List<String> out = CharStreams.readLines(new InputStreamReader(java.getInputStream(),
                     StandardCharsets.UTF_8));
+            List<String> err = errTask.get();
+
+            int result = java.waitFor();
 
             if (result != 0) {
                 fail("java execution exited with non-zero exit status '" + result + "'");
@@ -141,8 +152,7 @@ public abstract class Harness {
                 fail(Joiner.on("\n").join(err));
             }
 
-            return CharStreams.readLines(new InputStreamReader(java.getInputStream(),
-                    StandardCharsets.UTF_8));
+            return out;
         } catch (InterruptedException e) {
             fail("java execution interrupted");
             throw new InternalError("DEADCODE");
@@ -151,6 +161,15 @@ public abstract class Harness {
         }
     }
 
+    /**
+     * Gets any extra options to pass to the compiler when compiling a test.
+     *
+     * @return the extra compiler options.
+     */
+    protected List<String> getCompileOptions() {
+        return Collections.emptyList();
+    }
+
     protected final String getTestDirectory(String id) {
         if (id.contains(".")) {
             return id.substring(0, id.lastIndexOf(".")).replace(".", File.separator);
@@ -196,4 +215,22 @@ public abstract class Harness {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Reads the lines of the given stream on a separate thread, so that it may be drained at the
+     * same time as another stream.
+     *
+     * @param in the stream to read.
+     * @return the task reading the lines.
+     */
+    private static FutureTask<List<String>> readLines(InputStream in) {
+        FutureTask<List<String>> task = new FutureTask<>(() -> CharStreams.readLines(
+                new InputStreamReader(in, StandardCharsets.UTF_8)));
+
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+
+        return task;
+    }
 }